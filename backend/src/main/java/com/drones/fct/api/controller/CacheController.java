@@ -0,0 +1,45 @@
+package com.drones.fct.api.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.drones.fct.api.dto.CacheStatsDto;
+import com.drones.fct.application.ReadCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@Tag(name = "Caches", description = "Statistics of the read caches")
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+  private final ReadCache readCache;
+
+  @Operation(summary = "Hit, miss and eviction counts of the matrix and drone caches since startup")
+  @GetMapping("/stats")
+  public List<CacheStatsDto> stats() {
+    Map<String, Long> sizes = readCache.sizes();
+    return readCache.stats().entrySet().stream()
+        .map(entry -> toDto(entry.getKey(), sizes.get(entry.getKey()), entry.getValue()))
+        .toList();
+  }
+
+  private CacheStatsDto toDto(String name, long size, CacheStats stats) {
+    CacheStatsDto dto = new CacheStatsDto();
+    dto.setName(name);
+    dto.setSize(size);
+    dto.setHits(stats.hitCount());
+    dto.setMisses(stats.missCount());
+    dto.setHitRate(stats.hitRate());
+    dto.setEvictions(stats.evictionCount());
+    return dto;
+  }
+}
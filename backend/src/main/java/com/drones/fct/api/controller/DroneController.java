@@ -1,11 +1,18 @@
 package com.drones.fct.api.controller;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,13 +20,20 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.drones.fct.api.dto.BulkCreateDronesRequest;
 import com.drones.fct.api.dto.CreateDroneRequest;
 import com.drones.fct.api.dto.DroneDto;
 import com.drones.fct.api.dto.UpdateDroneRequest;
 import com.drones.fct.application.DroneService;
 import com.drones.fct.domain.model.Drone;
+import com.drones.fct.domain.model.DroneView;
+import com.drones.fct.domain.model.Orientation;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -36,7 +50,11 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class DroneController {
 
+  private static final String NDJSON = "application/x-ndjson";
+  private static final int FLUSH_EVERY = 1_000;
+
   private final DroneService droneService;
+  private final ObjectMapper objectMapper;
 
   @Operation(summary = "Create a drone", responses = {
       @ApiResponse(responseCode = "201", description = "Drone created", content = @Content(schema = @Schema(implementation = DroneDto.class))),
@@ -54,17 +72,35 @@ public class DroneController {
         request.getX(),
         request.getY(),
         request.getOrientation());
-    return new ResponseEntity<>(toDto(drone), HttpStatus.CREATED);
+    return new ResponseEntity<>(DroneDto.from(drone), HttpStatus.CREATED);
+
+  }
 
+  @Operation(summary = "Create many drones at once", responses = {
+      @ApiResponse(responseCode = "201", description = "All drones created"),
+      @ApiResponse(responseCode = "400", description = "Invalid input"),
+      @ApiResponse(responseCode = "404", description = "Matrix not found"),
+      @ApiResponse(responseCode = "409", description = "Name, model or position conflict; nothing is created")
+  })
+  @PostMapping("/bulk")
+  public ResponseEntity<List<DroneDto>> createDrones(@Valid @RequestBody BulkCreateDronesRequest request) {
+    List<DroneDto> created = droneService.createDrones(request.getDrones()).stream().map(DroneDto::from).toList();
+    return new ResponseEntity<>(created, HttpStatus.CREATED);
   }
 
   @Operation(summary = "Get a drone by ID", responses = {
       @ApiResponse(responseCode = "200", description = "Drone found", content = @Content(schema = @Schema(implementation = DroneDto.class))),
+      @ApiResponse(responseCode = "304", description = "Drone unchanged since the ETag in If-None-Match"),
       @ApiResponse(responseCode = "404", description = "Drone not found")
   })
   @GetMapping("/{droneId}")
-  public DroneDto getDrone(@PathVariable Long droneId) {
-    return toDto(droneService.getDrone(droneId));
+  public DroneDto getDrone(@PathVariable Long droneId, WebRequest request) {
+    // Hashed from the body itself, which a flight buffered by write-behind changes before the version does.
+    DroneView drone = droneService.getDrone(droneId);
+    if (request.checkNotModified(DigestUtils.md5DigestAsHex(drone.toString().getBytes(StandardCharsets.UTF_8)))) {
+      return null;
+    }
+    return DroneDto.from(drone);
   }
 
   @Operation(summary = "Update drone", responses = {
@@ -77,7 +113,7 @@ public class DroneController {
   public DroneDto updateDrone(
       @PathVariable Long droneId,
       @Valid @RequestBody UpdateDroneRequest request) {
-    return toDto(droneService.updateDrone(
+    return DroneDto.from(droneService.updateDrone(
         droneId,
         request.getMatrixId(),
         request.getName(),
@@ -104,23 +140,44 @@ public class DroneController {
     return ResponseEntity.ok(response);
   }
 
-  @Operation(summary = "List all drones")
+  @Operation(summary = "List drones by ID", responses = {
+      @ApiResponse(responseCode = "200", description = "Drones after afterId, at most limit of them"),
+      @ApiResponse(responseCode = "400", description = "Invalid limit")
+  })
   @GetMapping
-  public List<DroneDto> listDrones() {
-    return droneService.listDrones().stream().map(this::toDto).toList();
+  public List<DroneDto> listDrones(
+      @Parameter(description = "Only drones with a greater ID; pass the last ID of the previous page")
+      @RequestParam(required = false) Long afterId,
+      @Parameter(description = "Page size, up to 1000; all drones when omitted")
+      @RequestParam(required = false) Integer limit,
+      @RequestParam(required = false) Long matrixId,
+      @RequestParam(required = false) Orientation orientation) {
+    return droneService.listDrones(afterId, limit, matrixId, orientation).stream().map(DroneDto::from).toList();
   }
 
-  private DroneDto toDto(Drone drone) {
-    if (drone == null)
-      return new DroneDto();
-    DroneDto dto = new DroneDto();
-    dto.setId(drone.getId());
-    dto.setName(drone.getName());
-    dto.setModel(drone.getModel());
-    dto.setX(drone.getX());
-    dto.setY(drone.getY());
-    dto.setOrientation(drone.getOrientation());
-    dto.setMatrixId(drone.getMatrix().getId());
-    return dto;
+  @Operation(summary = "Stream all drones as newline-delimited JSON, one drone per line, by ID")
+  @GetMapping(produces = NDJSON)
+  public ResponseEntity<StreamingResponseBody> streamDrones(
+      @RequestParam(required = false) Long matrixId,
+      @RequestParam(required = false) Orientation orientation) {
+    StreamingResponseBody body = output -> {
+      OutputStream out = new BufferedOutputStream(output);
+      int[] written = new int[1];
+      droneService.streamDrones(matrixId, orientation, view -> {
+        try {
+          out.write(objectMapper.writeValueAsBytes(DroneDto.from(view)));
+          out.write('\n');
+          // The first line goes out at once; after that in chunks.
+          if (written[0]++ % FLUSH_EVERY == 0) {
+            out.flush();
+          }
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+      out.flush();
+    };
+    return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
   }
+
 }
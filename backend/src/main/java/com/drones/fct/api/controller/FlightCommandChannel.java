@@ -0,0 +1,86 @@
+package com.drones.fct.api.controller;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Controller;
+
+import com.drones.fct.api.dto.ApiError;
+import com.drones.fct.api.dto.DroneCommandEvent;
+import com.drones.fct.api.dto.DroneCommandMessage;
+import com.drones.fct.api.exception.GlobalExceptionHandler;
+import com.drones.fct.application.CommandStreamService;
+import com.drones.fct.application.DroneCommandOutcome;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * STOMP entry point for command bursts. Clients send to
+ * {@code /app/drones/{droneId}/commands} and subscribe to
+ * {@code /topic/drones/{droneId}}, where an ACCEPTED/REJECTED acknowledgement
+ * is published on receipt and a SUCCEEDED/FAILED result once the burst ran.
+ */
+@Controller
+@RequiredArgsConstructor
+public class FlightCommandChannel {
+
+  private final CommandStreamService commandStreamService;
+  private final SimpMessagingTemplate messagingTemplate;
+
+  @MessageMapping("/drones/{droneId}/commands")
+  public void executeCommands(@DestinationVariable Long droneId, @Payload DroneCommandMessage message) {
+    String requestId = message.getRequestId();
+    // Results wait for the acknowledgement so subscribers always see it first.
+    CompletableFuture<Void> acknowledged = new CompletableFuture<>();
+    DroneCommandEvent ack;
+    try {
+      boolean accepted = commandStreamService.submit(droneId, message.getCommands(), outcome -> {
+        acknowledged.join();
+        publish(toEvent(requestId, outcome));
+      });
+      ack = accepted
+          ? event(requestId, droneId, "ACCEPTED")
+          : rejected(requestId, droneId, new ApiError("TOO_MANY_REQUESTS",
+              "Too many pending command bursts for drone " + droneId));
+    } catch (RuntimeException e) {
+      ack = rejected(requestId, droneId, GlobalExceptionHandler.describe(e));
+    }
+    try {
+      publish(ack);
+    } finally {
+      acknowledged.complete(null);
+    }
+  }
+
+  private void publish(DroneCommandEvent event) {
+    messagingTemplate.convertAndSend("/topic/drones/" + event.getDroneId(), event);
+  }
+
+  private DroneCommandEvent toEvent(String requestId, DroneCommandOutcome outcome) {
+    if (outcome.succeeded()) {
+      DroneCommandEvent event = event(requestId, outcome.droneId(), "SUCCEEDED");
+      event.setDrone(outcome.drone());
+      return event;
+    }
+    DroneCommandEvent event = event(requestId, outcome.droneId(), "FAILED");
+    event.setError(GlobalExceptionHandler.describe(outcome.error()));
+    return event;
+  }
+
+  private DroneCommandEvent rejected(String requestId, Long droneId, ApiError error) {
+    DroneCommandEvent event = event(requestId, droneId, "REJECTED");
+    event.setError(error);
+    return event;
+  }
+
+  private DroneCommandEvent event(String requestId, Long droneId, String status) {
+    DroneCommandEvent event = new DroneCommandEvent();
+    event.setRequestId(requestId);
+    event.setDroneId(droneId);
+    event.setStatus(status);
+    return event;
+  }
+}
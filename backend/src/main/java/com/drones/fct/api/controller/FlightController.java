@@ -1,8 +1,13 @@
 package com.drones.fct.api.controller;
 
+import java.net.URI;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -12,9 +17,31 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.drones.fct.api.dto.BatchDroneCommandRequest;
 import com.drones.fct.api.dto.CommandsRequest;
+import com.drones.fct.api.dto.DroneCommandResultDto;
 import com.drones.fct.api.dto.DroneDto;
+import com.drones.fct.api.dto.FlightJobDto;
+import com.drones.fct.api.dto.RouteDto;
+import com.drones.fct.api.dto.RouteRequest;
+import com.drones.fct.api.dto.SimulationResultDto;
+import com.drones.fct.api.dto.SwarmPlanDto;
+import com.drones.fct.api.dto.SwarmPlanRequest;
+import com.drones.fct.api.exception.GlobalExceptionHandler;
+import com.drones.fct.api.exception.UnsupportedCommandException;
+import com.drones.fct.application.DroneCommandOutcome;
+import com.drones.fct.application.FleetCommandService;
+import com.drones.fct.application.FlightJob;
+import com.drones.fct.application.FlightJobService;
+import com.drones.fct.application.FlightRetry;
 import com.drones.fct.application.FlightService;
-import com.drones.fct.domain.model.Drone;
+import com.drones.fct.application.FlightSimulationService;
+import com.drones.fct.application.RoutePlanner;
+import com.drones.fct.application.SimulationReport;
+import com.drones.fct.application.SimultaneousFlightService;
+import com.drones.fct.application.SwarmPlanningService;
+import com.drones.fct.domain.flight.PackedCommands;
+import com.drones.fct.domain.flight.PlannedStep;
+import com.drones.fct.domain.flight.SwarmPlanner;
+import com.drones.fct.domain.model.MovementCommand;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -30,6 +57,13 @@ import lombok.RequiredArgsConstructor;
 public class FlightController {
 
   private final FlightService flightService;
+  private final FlightRetry flightRetry;
+  private final FleetCommandService fleetCommandService;
+  private final SimultaneousFlightService simultaneousFlightService;
+  private final FlightJobService flightJobService;
+  private final FlightSimulationService flightSimulationService;
+  private final RoutePlanner routePlanner;
+  private final SwarmPlanningService swarmPlanningService;
 
   @Operation(summary = "Execute commands on a drone", responses = {
       @ApiResponse(responseCode = "200", description = "Commands executed"),
@@ -41,40 +75,227 @@ public class FlightController {
   public DroneDto executeCommands(
       @PathVariable Long droneId,
       @Valid @RequestBody CommandsRequest request) {
-    return toDto(flightService.executeCommands(droneId, request.getCommands()));
+    List<MovementCommand> commands = commands(request);
+    return DroneDto.from(flightRetry.call(() -> flightService.executeCommands(droneId, commands)));
+  }
+
+  @Operation(summary = "Plan the shortest command list that takes a drone to a target cell", responses = {
+      @ApiResponse(responseCode = "200", description = "Route planned; the drone is not moved"),
+      @ApiResponse(responseCode = "400", description = "Target outside the matrix"),
+      @ApiResponse(responseCode = "404", description = "Drone not found"),
+      @ApiResponse(responseCode = "409", description = "Target occupied or unreachable")
+  })
+  @PostMapping("/drones/{droneId}/route-to")
+  public RouteDto routeTo(
+      @PathVariable Long droneId,
+      @Valid @RequestBody RouteRequest request) {
+    RouteDto dto = new RouteDto();
+    dto.setDroneId(droneId);
+    dto.setTargetX(request.getX());
+    dto.setTargetY(request.getY());
+    dto.setCommands(routePlanner.routeTo(droneId, request.getX(), request.getY()));
+    return dto;
   }
 
   @Operation(summary = "Execute the same sequence of commands on multiple drones at once", responses = {
-      @ApiResponse(responseCode = "200", description = "Commands executed"),
+      @ApiResponse(responseCode = "200", description = "Commands executed; with parallel=true, one result per drone"),
       @ApiResponse(responseCode = "400", description = "Invalid request")
   })
   @PostMapping("/drones/commands")
-  public void executeCommandsInSequence(
+  public ResponseEntity<List<DroneCommandResultDto>> executeCommandsInSequence(
       @Parameter(description = "Drones IDs") @RequestParam List<Long> droneIds,
+      @Parameter(description = "Run each drone independently and concurrently, reporting failures per drone")
+      @RequestParam(defaultValue = "false") boolean parallel,
       @RequestBody CommandsRequest request) {
-    flightService.executeCommandsInSequence(droneIds, request.getCommands());
+    if (parallel) {
+      return ResponseEntity.ok(fleetCommandService.executeInParallel(droneIds, commands(request)).stream()
+          .map(this::toResultDto)
+          .toList());
+    }
+    List<MovementCommand> commands = commands(request);
+    flightRetry.run(() -> flightService.executeCommandsInSequence(droneIds, commands));
+    return ResponseEntity.ok().build();
   }
 
   @Operation(summary = "Execute multiple different command sequences for multiple different drones", responses = {
-      @ApiResponse(responseCode = "202", description = "Commands accepted"),
-      @ApiResponse(responseCode = "400", description = "Invalid request")
+      @ApiResponse(responseCode = "202", description = "Commands accepted; poll the returned job for the outcome"),
+      @ApiResponse(responseCode = "400", description = "Invalid request"),
+      @ApiResponse(responseCode = "429", description = "Job queue is full")
   })
   @PostMapping("/batch-commands")
-  public ResponseEntity<Void> executeBatchCommands(
+  public ResponseEntity<FlightJobDto> executeBatchCommands(
+      @Valid @RequestBody BatchDroneCommandRequest request) {
+    FlightJob job = flightJobService.submit(commands(request));
+    return ResponseEntity.accepted()
+        .location(URI.create("/api/flights/jobs/" + job.getId()))
+        .body(toJobDto(job));
+  }
+
+  @Operation(summary = "Plan collision-free routes for several drones of a matrix", responses = {
+      @ApiResponse(responseCode = "200", description = "Routes planned; drones are moved only when execute is set"),
+      @ApiResponse(responseCode = "400", description = "Invalid goals"),
+      @ApiResponse(responseCode = "404", description = "Matrix or drone not found"),
+      @ApiResponse(responseCode = "409", description = "No plan within the time budget, or a collision when flown")
+  })
+  @PostMapping("/matrices/{matrixId}/plan")
+  public SwarmPlanDto planRoutes(
+      @PathVariable Long matrixId,
+      @Parameter(description = "Fly the planned routes together right away") @RequestParam(defaultValue = "false")
+      boolean execute,
+      @Valid @RequestBody SwarmPlanRequest request) {
+    SwarmPlanner.Result result = swarmPlanningService.plan(matrixId, request.getGoals());
+    SwarmPlanDto dto = new SwarmPlanDto();
+    dto.setTicks(result.ticks());
+    Map<Long, List<PlannedStep>> routes = new LinkedHashMap<>();
+    for (int i = 0; i < result.routes().size(); i++) {
+      routes.put(request.getGoals().get(i).getDroneId(), result.routes().get(i));
+    }
+    dto.setRoutes(routes.entrySet().stream()
+        .map(route -> new SwarmPlanDto.Route(route.getKey(), route.getValue()))
+        .toList());
+    if (execute) {
+      dto.setDrones(flightRetry.call(() -> simultaneousFlightService.executeRoutes(matrixId, routes)).stream()
+          .map(DroneDto::from)
+          .toList());
+    }
+    return dto;
+  }
+
+  @Operation(summary = "Predict the outcome of a batch without moving any drone", responses = {
+      @ApiResponse(responseCode = "200", description = "Predicted positions and every failing entry"),
+      @ApiResponse(responseCode = "400", description = "Invalid request")
+  })
+  @PostMapping("/simulate")
+  public SimulationResultDto simulate(@Valid @RequestBody BatchDroneCommandRequest request) {
+    SimulationReport report = flightSimulationService.simulate(commands(request));
+    SimulationResultDto dto = new SimulationResultDto();
+    dto.setFeasible(report.feasible());
+    dto.setDrones(report.drones().stream().map(this::toPredictionDto).toList());
+    dto.setFailures(report.failures().stream().map(this::toFailureDto).toList());
+    dto.setFirstFailure(report.feasible() ? null : toFailureDto(report.firstFailure()));
+    return dto;
+  }
+
+  @Operation(summary = "Get the status of a batch command job", responses = {
+      @ApiResponse(responseCode = "200", description = "Job found"),
+      @ApiResponse(responseCode = "404", description = "Job not found or expired")
+  })
+  @GetMapping("/jobs/{jobId}")
+  public FlightJobDto getJob(@PathVariable UUID jobId) {
+    return toJobDto(flightJobService.getJob(jobId));
+  }
+
+  @Operation(summary = "Move drones of a matrix simultaneously, one command per drone per tick", responses = {
+      @ApiResponse(responseCode = "200", description = "Commands executed; final state of the commanded drones"),
+      @ApiResponse(responseCode = "400", description = "Invalid request"),
+      @ApiResponse(responseCode = "404", description = "Matrix or drone not found"),
+      @ApiResponse(responseCode = "409", description = "Collision/Out of bounds")
+  })
+  @PostMapping("/matrices/{matrixId}/simultaneous-commands")
+  public List<DroneDto> executeSimultaneous(
+      @PathVariable Long matrixId,
       @Valid @RequestBody BatchDroneCommandRequest request) {
-    flightService.executeBatchCommands(request.getCommands());
-    return ResponseEntity.accepted().build();
+    List<BatchDroneCommandRequest.DroneCommand> commands = commands(request);
+    return flightRetry.call(() -> simultaneousFlightService.executeSimultaneous(matrixId, commands)).stream()
+        .map(DroneDto::from)
+        .toList();
+  }
+
+  private static List<MovementCommand> commands(CommandsRequest request) {
+    return commands(request.getCommands(), request.getCompact(), request.getPacked(), request.getPackedCount());
+  }
+
+  private static List<BatchDroneCommandRequest.DroneCommand> commands(BatchDroneCommandRequest request) {
+    List<BatchDroneCommandRequest.DroneCommand> entries = request.getCommands();
+    for (BatchDroneCommandRequest.DroneCommand entry : entries) {
+      if (entry.getSentCommands() == null) {
+        throw new IllegalArgumentException("List of movement commands cannot be null");
+      }
+      if (entry.getCompact() != null || entry.getPacked() != null) {
+        entry.setCommands(commands(entry.getCommands(), entry.getCompact(), entry.getPacked(),
+            entry.getPackedCount()));
+      }
+    }
+    return entries;
+  }
+
+  /**
+   * Commands may be sent as a list of names, as a compact letter string or as
+   * packed 2-bit codes. The compact forms are decoded into a
+   * {@link PackedCommands} list that the services compile without expanding.
+   */
+  private static List<MovementCommand> commands(List<MovementCommand> commands, String compact, String packed,
+      Integer packedCount) {
+    int forms = (commands != null ? 1 : 0) + (compact != null ? 1 : 0) + (packed != null ? 1 : 0);
+    if (forms > 1) {
+      throw new IllegalArgumentException("Send only one of commands, compact or packed.");
+    }
+    if (packed != null && packedCount == null) {
+      throw new IllegalArgumentException("packedCount is required with packed commands.");
+    }
+    try {
+      if (compact != null) {
+        return PackedCommands.parse(compact);
+      }
+      if (packed != null) {
+        return PackedCommands.fromBase64(packed, packedCount);
+      }
+    } catch (IllegalArgumentException e) {
+      throw new UnsupportedCommandException(e.getMessage());
+    }
+    return commands;
+  }
+
+  private SimulationResultDto.PredictedDrone toPredictionDto(SimulationReport.Prediction prediction) {
+    SimulationResultDto.PredictedDrone dto = new SimulationResultDto.PredictedDrone();
+    dto.setDroneId(prediction.droneId());
+    dto.setMatrixId(prediction.matrixId());
+    dto.setX(prediction.x());
+    dto.setY(prediction.y());
+    dto.setOrientation(prediction.orientation());
+    return dto;
+  }
+
+  private SimulationResultDto.Failure toFailureDto(SimulationReport.PlanFailure failure) {
+    SimulationResultDto.Failure dto = new SimulationResultDto.Failure();
+    dto.setEntry(failure.entry());
+    dto.setDroneId(failure.droneId());
+    dto.setReason(failure.reason().name());
+    dto.setStep(failure.commandIndex());
+    dto.setX(failure.x());
+    dto.setY(failure.y());
+    dto.setBlockerDroneId(failure.blockerId());
+    dto.setMessage(failure.message());
+    return dto;
+  }
+
+  private FlightJobDto toJobDto(FlightJob job) {
+    FlightJobDto dto = new FlightJobDto();
+    dto.setId(job.getId());
+    dto.setStatus(job.getStatus().name());
+    dto.setTotalCommands(job.getTotalCommands());
+    dto.setCompletedCommands(job.getCompletedCommands().get());
+    dto.setSubmittedAt(job.getSubmittedAt());
+    dto.setStartedAt(job.getStartedAt());
+    dto.setFinishedAt(job.getFinishedAt());
+    if (job.getStatus() == FlightJob.Status.SUCCEEDED) {
+      dto.setResults(job.getOutcomes().stream().map(this::toResultDto).toList());
+    } else if (job.getStatus() == FlightJob.Status.FAILED) {
+      dto.setError(GlobalExceptionHandler.describe(job.getError()));
+    }
+    return dto;
   }
 
-  private DroneDto toDto(Drone drone) {
-    DroneDto dto = new DroneDto();
-    dto.setId(drone.getId());
-    dto.setName(drone.getName());
-    dto.setModel(drone.getModel());
-    dto.setX(drone.getX());
-    dto.setY(drone.getY());
-    dto.setOrientation(drone.getOrientation());
-    dto.setMatrixId(drone.getMatrix().getId());
+  private DroneCommandResultDto toResultDto(DroneCommandOutcome outcome) {
+    DroneCommandResultDto dto = new DroneCommandResultDto();
+    dto.setDroneId(outcome.droneId());
+    if (outcome.succeeded()) {
+      dto.setStatus("SUCCEEDED");
+      dto.setDrone(outcome.drone());
+    } else {
+      dto.setStatus("FAILED");
+      dto.setError(GlobalExceptionHandler.describe(outcome.error()));
+    }
     return dto;
   }
 }
\ No newline at end of file
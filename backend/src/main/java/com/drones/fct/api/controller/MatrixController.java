@@ -11,18 +11,22 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.drones.fct.api.dto.CreateMatrixRequest;
 import com.drones.fct.api.dto.DroneDto;
 import com.drones.fct.api.dto.MatrixDto;
+import com.drones.fct.api.dto.NearestDroneDto;
 import com.drones.fct.api.dto.UpdateMatrixRequest;
 import com.drones.fct.application.MatrixService;
-import com.drones.fct.domain.model.Drone;
-import com.drones.fct.domain.model.Matrix;
-import com.drones.fct.domain.repository.DroneRepository;
+import com.drones.fct.domain.model.DroneView;
+import com.drones.fct.domain.model.MatrixView;
+import com.drones.fct.domain.spatial.DistanceMetric;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -35,21 +39,26 @@ import lombok.RequiredArgsConstructor;
 public class MatrixController {
 
   private final MatrixService matrixService;
-  private final DroneRepository droneRepository;
 
   @PostMapping
   public ResponseEntity<MatrixDto> createMatrix(@Valid @RequestBody CreateMatrixRequest request) {
     return ResponseEntity.status(HttpStatus.CREATED)
-        .body(toDto(matrixService.createMatrix(request.getMaxX(), request.getMaxY())));
+        .body(toDto(MatrixView.of(matrixService.createMatrix(request.getMaxX(), request.getMaxY(), request.getMode()))
+            .withDrones(List.of())));
   }
 
   @Operation(summary = "Get matrix details", responses = {
       @ApiResponse(responseCode = "200", description = "Matrix found"),
+      @ApiResponse(responseCode = "304", description = "Matrix and its drones unchanged since the ETag in If-None-Match"),
       @ApiResponse(responseCode = "404", description = "Matrix not found")
   })
   @GetMapping("/{matrixId}")
-  public MatrixDto getMatrix(@PathVariable Long matrixId) {
-    return toDto(matrixService.getMatrix(matrixId));
+  public MatrixDto getMatrix(@PathVariable Long matrixId, WebRequest request) {
+    // The ETag is taken before the matrix is read, so it is never newer than the body it goes out with.
+    if (request.checkNotModified(matrixService.getETag(matrixId))) {
+      return null;
+    }
+    return toDto(matrixService.getMatrixView(matrixId));
   }
 
   @Operation(summary = "Update matrix", responses = {
@@ -61,10 +70,13 @@ public class MatrixController {
   public MatrixDto updateMatrix(
       @PathVariable Long matrixId,
       @Valid @RequestBody UpdateMatrixRequest request) {
-    return toDto(matrixService.updateMatrix(
+    matrixService.updateMatrix(
         matrixId,
         request.getMaxX(),
-        request.getMaxY()));
+        request.getMaxY(),
+        request.getMode());
+    // Answered from the same projections as GET, once the update has committed.
+    return toDto(matrixService.getMatrixView(matrixId));
   }
 
   @Operation(summary = "Delete matrix", responses = {
@@ -78,33 +90,71 @@ public class MatrixController {
     return ResponseEntity.noContent().build();
   }
 
-  @Operation(summary = "List all matrices")
-  @GetMapping
-  public List<MatrixDto> listMatrices() {
-    return matrixService.listMatrices().stream().map(this::toDto).toList();
+  @Operation(summary = "List the drones inside a rectangle of the matrix", responses = {
+      @ApiResponse(responseCode = "200", description = "Drones in the rectangle"),
+      @ApiResponse(responseCode = "400", description = "Corners are not ordered"),
+      @ApiResponse(responseCode = "404", description = "Matrix not found")
+  })
+  @GetMapping("/{matrixId}/drones")
+  public List<DroneDto> listDrones(
+      @PathVariable Long matrixId,
+      @Parameter(description = "Left edge, inclusive") @RequestParam(defaultValue = "0") int x1,
+      @Parameter(description = "Bottom edge, inclusive") @RequestParam(defaultValue = "0") int y1,
+      @Parameter(description = "Right edge, inclusive") @RequestParam(defaultValue = "" + Integer.MAX_VALUE) int x2,
+      @Parameter(description = "Top edge, inclusive") @RequestParam(defaultValue = "" + Integer.MAX_VALUE) int y2) {
+    return matrixService.findDronesIn(matrixId, x1, y1, x2, y2).stream().map(DroneDto::from).toList();
   }
 
-  private MatrixDto toDto(Matrix matrix) {
-    MatrixDto dto = new MatrixDto();
-    dto.setId(matrix.getId());
-    dto.setMaxX(matrix.getMaxX());
-    dto.setMaxY(matrix.getMaxY());
+  @Operation(summary = "Find the drones closest to a cell", responses = {
+      @ApiResponse(responseCode = "200", description = "Nearest drones, closest first"),
+      @ApiResponse(responseCode = "400", description = "Cell outside the matrix or invalid k"),
+      @ApiResponse(responseCode = "404", description = "Matrix not found")
+  })
+  @GetMapping("/{matrixId}/nearest")
+  public List<NearestDroneDto> findNearest(
+      @PathVariable Long matrixId,
+      @RequestParam int x,
+      @RequestParam int y,
+      @Parameter(description = "How many drones to return") @RequestParam(defaultValue = "1") int k,
+      @Parameter(description = "MANHATTAN counts cells; TRAVEL also counts the turns needed")
+      @RequestParam(defaultValue = "MANHATTAN") DistanceMetric metric) {
+    return matrixService.findNearest(matrixId, x, y, k, metric).stream()
+        .map(drone -> toNearestDto(drone, x, y))
+        .toList();
+  }
 
-    List<Drone> drones = droneRepository.findByMatrixId(matrix.getId());
-    dto.setDrones(drones.stream().map(this::toDroneDto).toList());
+  @Operation(summary = "List matrices by ID", responses = {
+      @ApiResponse(responseCode = "200", description = "Matrices after afterId, at most limit of them"),
+      @ApiResponse(responseCode = "400", description = "Invalid limit")
+  })
+  @GetMapping
+  public List<MatrixDto> listMatrices(
+      @Parameter(description = "Only matrices with a greater ID; pass the last ID of the previous page")
+      @RequestParam(required = false) Long afterId,
+      @Parameter(description = "Page size, up to 1000; all matrices when omitted")
+      @RequestParam(required = false) Integer limit,
+      @Parameter(description = "Whether to embed each matrix's drones")
+      @RequestParam(defaultValue = "true") boolean drones) {
+    return matrixService.listMatrices(afterId, limit, drones).stream().map(this::toDto).toList();
+  }
 
+  private MatrixDto toDto(MatrixView matrix) {
+    MatrixDto dto = new MatrixDto();
+    dto.setId(matrix.id());
+    dto.setMaxX(matrix.maxX());
+    dto.setMaxY(matrix.maxY());
+    dto.setMode(matrix.mode());
+    if (matrix.drones() != null) {
+      dto.setDrones(matrix.drones().stream().map(DroneDto::from).toList());
+    }
     return dto;
   }
 
-  private DroneDto toDroneDto(Drone drone) {
-    DroneDto dto = new DroneDto();
-    dto.setId(drone.getId());
-    dto.setName(drone.getName());
-    dto.setModel(drone.getModel());
-    dto.setX(drone.getX());
-    dto.setY(drone.getY());
-    dto.setOrientation(drone.getOrientation());
-    dto.setMatrixId(drone.getMatrix().getId());
+  private NearestDroneDto toNearestDto(DroneView drone, int x, int y) {
+    NearestDroneDto dto = new NearestDroneDto();
+    dto.setDrone(DroneDto.from(drone));
+    dto.setDistance(DistanceMetric.MANHATTAN.cost(drone.x(), drone.y(), drone.orientation(), x, y));
+    dto.setTravelCost(DistanceMetric.TRAVEL.cost(drone.x(), drone.y(), drone.orientation(), x, y));
     return dto;
   }
 
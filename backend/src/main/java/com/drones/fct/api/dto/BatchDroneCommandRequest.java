@@ -3,10 +3,10 @@ package com.drones.fct.api.dto;
 import java.util.List;
 
 import com.drones.fct.domain.model.MovementCommand;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -18,14 +18,34 @@ public class BatchDroneCommandRequest {
 
   @Data
   @NoArgsConstructor
-  @AllArgsConstructor
   public static class DroneCommand {
     @NotNull(message = "Drone identifier cannot be null")
     @Schema(description = "Drone identifier")
     private Long droneId;
 
-    @NotNull(message = "List of movement commands cannot be null")
     @Schema(description = "List of movement commands")
     private List<MovementCommand> commands;
+
+    @Schema(description = "Commands as one letter each (L, R, M), instead of commands", example = "MMLMRM")
+    private String compact;
+
+    @Schema(description = "Commands as base64 of 2-bit codes (0=L, 1=R, 2=M), four per byte, lowest bits first,"
+        + " instead of commands")
+    private String packed;
+
+    @Schema(description = "Number of commands in packed")
+    private Integer packedCount;
+
+    public DroneCommand(Long droneId, List<MovementCommand> commands) {
+      this.droneId = droneId;
+      this.commands = commands;
+    }
+
+    /** Whichever form of the commands was sent; one of them is required. */
+    @JsonIgnore
+    @NotNull(message = "List of movement commands cannot be null")
+    public Object getSentCommands() {
+      return commands != null ? commands : compact != null ? compact : packed;
+    }
   }
 }
@@ -0,0 +1,18 @@
+package com.drones.fct.api.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class BulkCreateDronesRequest {
+  @NotEmpty(message = "drones cannot be empty")
+  @Size(max = 10_000, message = "At most 10000 drones per request")
+  @Valid
+  @Schema(description = "Drones to create; either all are created or none")
+  private List<CreateDroneRequest> drones;
+}
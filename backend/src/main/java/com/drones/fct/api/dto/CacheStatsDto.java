@@ -0,0 +1,25 @@
+package com.drones.fct.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+public class CacheStatsDto {
+  @Schema(description = "Cache name: matrices or drones")
+  private String name;
+
+  @Schema(description = "Entries currently cached (estimate)")
+  private long size;
+
+  @Schema(description = "Lookups answered from the cache")
+  private long hits;
+
+  @Schema(description = "Lookups that went to the database")
+  private long misses;
+
+  @Schema(description = "hits / (hits + misses); 1.0 before any lookup")
+  private double hitRate;
+
+  @Schema(description = "Entries dropped for size or age; invalidations are not counted")
+  private long evictions;
+}
@@ -11,4 +11,14 @@ import lombok.Data;
 public class CommandsRequest {
   @Schema(description = "List of movement commands")
   private List<MovementCommand> commands;
+
+  @Schema(description = "Commands as one letter each (L, R, M), instead of commands", example = "MMLMRM")
+  private String compact;
+
+  @Schema(description = "Commands as base64 of 2-bit codes (0=L, 1=R, 2=M), four per byte, lowest bits first,"
+      + " instead of commands")
+  private String packed;
+
+  @Schema(description = "Number of commands in packed")
+  private Integer packedCount;
 }
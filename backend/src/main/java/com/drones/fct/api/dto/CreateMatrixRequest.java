@@ -1,5 +1,7 @@
 package com.drones.fct.api.dto;
 
+import com.drones.fct.domain.model.MatrixMode;
+
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
@@ -17,4 +19,7 @@ public class CreateMatrixRequest {
   @Min(value = 1, message = "Max Y must be at least 1")
   @Schema(description = "Maximum value of the Y coordinate")
   private int maxY;
+
+  @Schema(description = "DENSE (default, up to 100 per side) or SPARSE (up to 1,000,000 per side)")
+  private MatrixMode mode;
 }
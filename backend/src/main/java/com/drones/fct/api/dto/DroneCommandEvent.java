@@ -0,0 +1,22 @@
+package com.drones.fct.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+public class DroneCommandEvent {
+  @Schema(description = "Request ID sent by the client")
+  private String requestId;
+
+  @Schema(description = "Drone ID")
+  private Long droneId;
+
+  @Schema(description = "ACCEPTED or REJECTED on receipt, then SUCCEEDED or FAILED once executed")
+  private String status;
+
+  @Schema(description = "Resulting drone state, present when the commands succeeded")
+  private DroneDto drone;
+
+  @Schema(description = "Reason, present when the commands were rejected or failed")
+  private ApiError error;
+}
@@ -0,0 +1,19 @@
+package com.drones.fct.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+public class DroneCommandResultDto {
+  @Schema(description = "Drone ID")
+  private Long droneId;
+
+  @Schema(description = "SUCCEEDED or FAILED")
+  private String status;
+
+  @Schema(description = "Resulting drone state, present when the commands succeeded")
+  private DroneDto drone;
+
+  @Schema(description = "Failure reason, present when the commands failed")
+  private ApiError error;
+}
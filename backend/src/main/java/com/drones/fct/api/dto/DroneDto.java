@@ -1,5 +1,7 @@
 package com.drones.fct.api.dto;
 
+import com.drones.fct.domain.model.Drone;
+import com.drones.fct.domain.model.DroneView;
 import com.drones.fct.domain.model.Orientation;
 
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -27,4 +29,28 @@ public class DroneDto {
 
   @Schema(description = "Matrix ID where the drone is located")
   private Long matrixId;
+
+  public static DroneDto from(Drone drone) {
+    DroneDto dto = new DroneDto();
+    dto.setId(drone.getId());
+    dto.setName(drone.getName());
+    dto.setModel(drone.getModel());
+    dto.setX(drone.getX());
+    dto.setY(drone.getY());
+    dto.setOrientation(drone.getOrientation());
+    dto.setMatrixId(drone.getMatrix().getId());
+    return dto;
+  }
+
+  public static DroneDto from(DroneView view) {
+    DroneDto dto = new DroneDto();
+    dto.setId(view.id());
+    dto.setName(view.name());
+    dto.setModel(view.model());
+    dto.setX(view.x());
+    dto.setY(view.y());
+    dto.setOrientation(view.orientation());
+    dto.setMatrixId(view.matrixId());
+    return dto;
+  }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.drones.fct.api.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+public class FlightJobDto {
+  @Schema(description = "Job ID")
+  private UUID id;
+
+  @Schema(description = "QUEUED, RUNNING, SUCCEEDED or FAILED")
+  private String status;
+
+  @Schema(description = "Number of drone command entries in the batch")
+  private int totalCommands;
+
+  @Schema(description = "Entries simulated so far")
+  private int completedCommands;
+
+  private Instant submittedAt;
+
+  private Instant startedAt;
+
+  private Instant finishedAt;
+
+  @Schema(description = "Resulting state of each commanded drone, present when the job succeeded")
+  private List<DroneCommandResultDto> results;
+
+  @Schema(description = "Failure reason, present when the job failed; no drone was moved")
+  private ApiError error;
+}
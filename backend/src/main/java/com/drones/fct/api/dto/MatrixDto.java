@@ -2,6 +2,9 @@ package com.drones.fct.api.dto;
 
 import java.util.List;
 
+import com.drones.fct.domain.model.MatrixMode;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 
@@ -16,6 +19,10 @@ public class MatrixDto {
   @Schema(description = "Maximum value of the Y coordinate")
   private int maxY;
 
-  @Schema(description = "List of drones in the matrix")
+  @Schema(description = "Occupancy storage: DENSE or SPARSE")
+  private MatrixMode mode;
+
+  @Schema(description = "List of drones in the matrix; omitted when the listing is asked for without drones")
+  @JsonInclude(JsonInclude.Include.NON_NULL)
   private List<DroneDto> drones;
 }
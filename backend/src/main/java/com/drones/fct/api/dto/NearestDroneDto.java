@@ -0,0 +1,16 @@
+package com.drones.fct.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+public class NearestDroneDto {
+  @Schema(description = "The drone")
+  private DroneDto drone;
+
+  @Schema(description = "Manhattan distance to the requested cell")
+  private int distance;
+
+  @Schema(description = "Commands to reach the requested cell on an empty matrix, turns included")
+  private int travelCost;
+}
@@ -0,0 +1,23 @@
+package com.drones.fct.api.dto;
+
+import java.util.List;
+
+import com.drones.fct.domain.model.MovementCommand;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+public class RouteDto {
+  @Schema(description = "Drone ID")
+  private Long droneId;
+
+  @Schema(description = "Target X coordinate")
+  private int targetX;
+
+  @Schema(description = "Target Y coordinate")
+  private int targetY;
+
+  @Schema(description = "Shortest list of commands that takes the drone to the target")
+  private List<MovementCommand> commands;
+}
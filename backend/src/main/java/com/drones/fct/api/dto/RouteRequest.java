@@ -0,0 +1,17 @@
+package com.drones.fct.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+
+@Data
+public class RouteRequest {
+
+  @Min(value = 0, message = "X can not be negative")
+  @Schema(description = "Target X coordinate")
+  private int x;
+
+  @Min(value = 0, message = "Y can not be negative")
+  @Schema(description = "Target Y coordinate")
+  private int y;
+}
@@ -0,0 +1,56 @@
+package com.drones.fct.api.dto;
+
+import java.util.List;
+
+import com.drones.fct.domain.model.Orientation;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+public class SimulationResultDto {
+  @Schema(description = "True when every entry of the plan would succeed")
+  private boolean feasible;
+
+  @Schema(description = "Predicted final state of every known drone in the plan")
+  private List<PredictedDrone> drones;
+
+  @Schema(description = "Every entry that would be rejected, in request order")
+  private List<Failure> failures;
+
+  @Schema(description = "The failure a real batch run would stop at")
+  private Failure firstFailure;
+
+  @Data
+  public static class PredictedDrone {
+    private Long droneId;
+    private Long matrixId;
+    private int x;
+    private int y;
+    private Orientation orientation;
+  }
+
+  @Data
+  public static class Failure {
+    @Schema(description = "Index of the entry in the request")
+    private int entry;
+
+    private Long droneId;
+
+    @Schema(description = "COLLISION, OUT_OF_BOUNDS, NOT_FOUND or INVALID_COMMANDS")
+    private String reason;
+
+    @Schema(description = "Index of the first failing command within the entry")
+    private Integer step;
+
+    @Schema(description = "Cell the drone could not enter")
+    private Integer x;
+
+    private Integer y;
+
+    @Schema(description = "Drone occupying that cell, for collisions")
+    private Long blockerDroneId;
+
+    private String message;
+  }
+}
@@ -0,0 +1,33 @@
+package com.drones.fct.api.dto;
+
+import java.util.List;
+
+import com.drones.fct.domain.flight.PlannedStep;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+public class SwarmPlanDto {
+  @Schema(description = "Ticks until the last drone reaches its goal")
+  private int ticks;
+
+  @Schema(description = "Route per drone, one step per tick; WAIT keeps the drone in place for a tick")
+  private List<Route> routes;
+
+  @Schema(description = "Drones after the routes were flown; only set when the plan was executed")
+  private List<DroneDto> drones;
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Route {
+    @Schema(description = "Drone identifier")
+    private Long droneId;
+
+    @Schema(description = "Steps of the route, in order")
+    private List<PlannedStep> steps;
+  }
+}
@@ -0,0 +1,36 @@
+package com.drones.fct.api.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+public class SwarmPlanRequest {
+  @Valid
+  @NotNull(message = "goals cannot be null")
+  @Schema(description = "Target cell of every drone to plan")
+  private List<Goal> goals;
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Goal {
+    @NotNull(message = "Drone identifier cannot be null")
+    @Schema(description = "Drone identifier")
+    private Long droneId;
+
+    @Min(value = 0, message = "X can not be negative")
+    @Schema(description = "Target X coordinate")
+    private int x;
+
+    @Min(value = 0, message = "Y can not be negative")
+    @Schema(description = "Target Y coordinate")
+    private int y;
+  }
+}
@@ -1,5 +1,7 @@
 package com.drones.fct.api.dto;
 
+import com.drones.fct.domain.model.MatrixMode;
+
 import jakarta.validation.constraints.Min;
 import lombok.Value;
 
@@ -11,4 +13,7 @@ public class UpdateMatrixRequest {
   @Min(value = 1, message = "Max Y must be at least 1")
   int maxY;
 
+  // Null keeps the current mode.
+  MatrixMode mode;
+
 }
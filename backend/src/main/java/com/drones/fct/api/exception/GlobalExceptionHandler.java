@@ -1,9 +1,12 @@
 package com.drones.fct.api.exception;
 
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -15,20 +18,32 @@ public class GlobalExceptionHandler {
 
   @ExceptionHandler(NotFoundException.class)
   public ResponseEntity<ApiError> handleNotFound(NotFoundException ex) {
-    ApiError error = new ApiError("NOT_FOUND", ex.getMessage());
-    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    return respond(ex);
   }
 
   @ExceptionHandler(ConflictException.class)
   public ResponseEntity<ApiError> handleConflict(ConflictException ex) {
-    ApiError error = new ApiError("CONFLICT", ex.getMessage());
-    return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    return respond(ex);
+  }
+
+  @ExceptionHandler(DataIntegrityViolationException.class)
+  public ResponseEntity<ApiError> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+    return respond(ex);
+  }
+
+  @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+  public ResponseEntity<ApiError> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex) {
+    return respond(ex);
+  }
+
+  @ExceptionHandler(TooManyRequestsException.class)
+  public ResponseEntity<ApiError> handleTooManyRequests(TooManyRequestsException ex) {
+    return respond(ex);
   }
 
   @ExceptionHandler(IllegalArgumentException.class)
   public ResponseEntity<ApiError> handleBadRequest(IllegalArgumentException ex) {
-    ApiError error = new ApiError("BAD_REQUEST", ex.getMessage());
-    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    return respond(ex);
   }
 
   @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -44,8 +59,7 @@ public class GlobalExceptionHandler {
 
   @ExceptionHandler(UnsupportedCommandException.class)
   public ResponseEntity<ApiError> handleUnsupportedCommand(UnsupportedCommandException ex) {
-    ApiError error = new ApiError("BAD_REQUEST", ex.getMessage());
-    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    return respond(ex);
   }
 
   @ExceptionHandler(HttpMessageNotReadableException.class)
@@ -81,9 +95,40 @@ public class GlobalExceptionHandler {
     return "Malformed JSON request.";
   }
 
+  /**
+   * Same code/message an exception would get as an HTTP response, for results
+   * that report failures per item instead of failing the whole request.
+   */
+  public static ApiError describe(RuntimeException ex) {
+    return respond(ex).getBody();
+  }
+
   public ResponseEntity<ApiError> handleAllUncaughtExceptions(Exception ex) {
     ApiError error = new ApiError("INTERNAL_SERVER_ERROR", "Unexpected error occurred: " + ex.getMessage());
     return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
   }
 
+  /** The status and body of each exception type, shared by the handlers above and {@link #describe}. */
+  private static ResponseEntity<ApiError> respond(RuntimeException ex) {
+    return switch (ex) {
+      case NotFoundException e -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+          .body(new ApiError("NOT_FOUND", e.getMessage()));
+      case ConflictException e -> ResponseEntity.status(HttpStatus.CONFLICT)
+          .body(new ApiError("CONFLICT", e.getMessage()));
+      case ObjectOptimisticLockingFailureException e -> ResponseEntity.status(HttpStatus.CONFLICT)
+          .body(new ApiError("CONFLICT", "The resource was modified concurrently; read it again and retry."));
+      case DataIntegrityViolationException e -> ResponseEntity.status(HttpStatus.CONFLICT)
+          .body(new ApiError("CONFLICT", "The change conflicts with existing data."));
+      case TooManyRequestsException e -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+          .header(HttpHeaders.RETRY_AFTER, "1")
+          .body(new ApiError("TOO_MANY_REQUESTS", e.getMessage()));
+      case IllegalArgumentException e -> ResponseEntity.status(HttpStatus.BAD_REQUEST)
+          .body(new ApiError("BAD_REQUEST", e.getMessage()));
+      case UnsupportedCommandException e -> ResponseEntity.status(HttpStatus.BAD_REQUEST)
+          .body(new ApiError("BAD_REQUEST", e.getMessage()));
+      default -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+          .body(new ApiError("INTERNAL_SERVER_ERROR", "Unexpected error occurred: " + ex.getMessage()));
+    };
+  }
+
 }
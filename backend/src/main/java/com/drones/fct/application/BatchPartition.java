@@ -0,0 +1,70 @@
+package com.drones.fct.application;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.drones.fct.api.dto.BatchDroneCommandRequest;
+import com.drones.fct.domain.flight.CommandProgram;
+import com.drones.fct.domain.flight.FlightFailure;
+import com.drones.fct.domain.flight.FlightState;
+import com.drones.fct.domain.model.Matrix;
+import com.drones.fct.domain.model.Orientation;
+import com.drones.fct.domain.spatial.OccupancyGrid;
+
+/**
+ * Batch entries of one matrix, run in request order against a private grid
+ * overlay. Either stops at the first failing entry, or skips failing entries
+ * and keeps going so every failure of a plan can be reported.
+ */
+final class BatchPartition {
+
+  final Matrix matrix;
+  final List<Integer> entries;
+  final Map<Long, FlightState> states;
+  final OccupancyGrid snapshot;
+  final List<Integer> failedEntries = new ArrayList<>();
+  final List<FlightFailure> failures = new ArrayList<>();
+
+  BatchPartition(Matrix matrix, List<Integer> entries, Map<Long, FlightState> states, OccupancyGrid snapshot) {
+    this.matrix = matrix;
+    this.entries = entries;
+    this.states = states;
+    this.snapshot = snapshot;
+  }
+
+  boolean failed() {
+    return !failedEntries.isEmpty();
+  }
+
+  int firstFailedEntry() {
+    return failedEntries.get(0);
+  }
+
+  BatchPartition run(List<BatchDroneCommandRequest.DroneCommand> commands, CommandProgram[] programs,
+      AtomicInteger progress, boolean continueOnFailure) {
+    for (int entry : entries) {
+      FlightState state = states.get(commands.get(entry).getDroneId());
+      int fromX = state.getX();
+      int fromY = state.getY();
+      Orientation fromOrientation = state.getOrientation();
+      FlightFailure result = programs[entry].run(state, snapshot);
+      if (result != null) {
+        failedEntries.add(entry);
+        failures.add(result);
+        if (!continueOnFailure) {
+          return this;
+        }
+        // A rejected entry does not move the drone at all.
+        state.setX(fromX);
+        state.setY(fromY);
+        state.setOrientation(fromOrientation);
+      } else {
+        snapshot.move(state.getDroneId(), fromX, fromY, state.getX(), state.getY());
+      }
+      progress.incrementAndGet();
+    }
+    return this;
+  }
+}
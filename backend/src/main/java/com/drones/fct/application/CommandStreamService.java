@@ -0,0 +1,66 @@
+package com.drones.fct.application;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.drones.fct.domain.flight.CommandProgram;
+import com.drones.fct.domain.model.MovementCommand;
+
+/**
+ * Executes command bursts received over a streaming channel. Bursts for the
+ * same drone run strictly in arrival order; bursts for different drones run
+ * in parallel on a small worker pool. Each burst is its own transaction,
+ * retried at once on a lost race, since a pause would hold up the worker.
+ */
+@Service
+public class CommandStreamService implements DisposableBean {
+
+  private final FlightService flightService;
+  private final FlightRetry flightRetry;
+  private final ExecutorService workers;
+  private final KeyedSerialExecutor<Long> lanes;
+
+  public CommandStreamService(FlightService flightService, FlightRetry flightRetry,
+      @Value("${flights.stream.workers:4}") int workers,
+      @Value("${flights.stream.max-pending-per-drone:64}") int maxPendingPerDrone) {
+    this.flightService = flightService;
+    this.flightRetry = flightRetry;
+    this.workers = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), new CustomizableThreadFactory("flight-stream-"));
+    this.lanes = new KeyedSerialExecutor<>(this.workers, maxPendingPerDrone);
+  }
+
+  /**
+   * Validates and queues a burst. {@code onResult} is called from a worker
+   * thread once the burst has run. Returns false when the drone already has
+   * too many bursts waiting.
+   */
+  public boolean submit(Long droneId, List<MovementCommand> commands, Consumer<DroneCommandOutcome> onResult) {
+    FlightCommands.requireCommands(commands);
+    CommandProgram program = FlightCommands.compile(commands);
+    return lanes.submit(droneId, () -> {
+      DroneCommandOutcome outcome;
+      try {
+        outcome = DroneCommandOutcome.succeeded(droneId,
+            flightRetry.callWithoutBackOff(() -> flightService.executeProgram(droneId, program)));
+      } catch (RuntimeException e) {
+        outcome = DroneCommandOutcome.failed(droneId, e);
+      }
+      onResult.accept(outcome);
+    });
+  }
+
+  @Override
+  public void destroy() {
+    workers.shutdown();
+  }
+}
@@ -0,0 +1,25 @@
+package com.drones.fct.application;
+
+import com.drones.fct.api.dto.DroneDto;
+import com.drones.fct.domain.model.Drone;
+
+/**
+ * Result of running commands on one drone of a multi-drone request. Exactly
+ * one of {@code drone} and {@code error} is set. The drone is copied into a
+ * DTO when the outcome is created, so outcomes kept after their transaction
+ * closed never touch an entity.
+ */
+public record DroneCommandOutcome(Long droneId, DroneDto drone, RuntimeException error) {
+
+  public static DroneCommandOutcome succeeded(Long droneId, Drone drone) {
+    return new DroneCommandOutcome(droneId, DroneDto.from(drone), null);
+  }
+
+  public static DroneCommandOutcome failed(Long droneId, RuntimeException error) {
+    return new DroneCommandOutcome(droneId, null, error);
+  }
+
+  public boolean succeeded() {
+    return error == null;
+  }
+}
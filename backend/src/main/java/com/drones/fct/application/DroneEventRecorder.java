@@ -0,0 +1,89 @@
+package com.drones.fct.application;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.drones.fct.domain.events.DroneEvent;
+import com.drones.fct.domain.events.DroneEventType;
+import com.drones.fct.infrastructure.events.EventLog;
+
+/**
+ * Appends the {@link DroneEvent}s published by the drone and flight services
+ * to the event log once their transaction commits, so rolled-back changes are
+ * never recorded. A single flusher thread syncs the log on a fixed interval,
+ * committing every append since the previous flush with one fsync.
+ *
+ * With {@code events.log.rebuild-on-startup} set, the log is replayed once at
+ * startup and the last state of every live drone is kept for
+ * {@link #lastKnown()}.
+ */
+@Component
+public class DroneEventRecorder implements InitializingBean, DisposableBean {
+
+  private final EventLog log;
+  private final ScheduledExecutorService flusher;
+  private final boolean rebuildOnStartup;
+  private volatile Map<Long, DroneEvent> lastKnown = Map.of();
+
+  public DroneEventRecorder(@Value("${events.log.directory:data/events}") String directory,
+      @Value("${events.log.segment-size:67108864}") int segmentSize,
+      @Value("${events.log.flush-interval-ms:10}") long flushIntervalMs,
+      @Value("${events.log.rebuild-on-startup:false}") boolean rebuildOnStartup) throws IOException {
+    this.log = new EventLog(Path.of(directory), segmentSize);
+    this.rebuildOnStartup = rebuildOnStartup;
+    this.flusher = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("event-log-flush-"));
+    flusher.scheduleWithFixedDelay(log::sync, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    if (rebuildOnStartup) {
+      lastKnown = Collections.unmodifiableMap(rebuild());
+    }
+  }
+
+  @TransactionalEventListener
+  public void record(DroneEvent event) {
+    log.append(event);
+  }
+
+  /**
+   * Replays the whole log and returns the last known state of every drone that
+   * has not been deleted, keyed by drone ID in order of creation.
+   */
+  public Map<Long, DroneEvent> rebuild() {
+    Map<Long, DroneEvent> drones = new LinkedHashMap<>();
+    log.replay(event -> {
+      if (event.type() == DroneEventType.DELETE) {
+        drones.remove(event.droneId());
+      } else {
+        drones.merge(event.droneId(), event, DroneEvent::then);
+      }
+    });
+    return drones;
+  }
+
+  /** The state {@link #rebuild()} found at startup, or empty unless rebuilding on startup is enabled. */
+  public Map<Long, DroneEvent> lastKnown() {
+    return lastKnown;
+  }
+
+  @Override
+  public void destroy() throws IOException {
+    flusher.shutdown();
+    log.close();
+  }
+}
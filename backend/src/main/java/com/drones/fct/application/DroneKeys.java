@@ -0,0 +1,43 @@
+package com.drones.fct.application;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Name -> drone ID and model -> drone ID of one matrix, so uniqueness checks
+ * are answered from memory. The unique constraints on the drones table stay
+ * the final word for writes racing past a check. Names and models are
+ * compared without case, as the table's collation compares them.
+ */
+public class DroneKeys {
+
+  private final Map<String, Long> names = new HashMap<>();
+  private final Map<String, Long> models = new HashMap<>();
+
+  /** The form a name or model is compared in. */
+  public static String key(String value) {
+    return value != null ? value.toLowerCase(Locale.ROOT) : null;
+  }
+
+  /** ID of the drone using {@code name} in this matrix, or null. */
+  public synchronized Long nameOwner(String name) {
+    return names.get(key(name));
+  }
+
+  /** ID of the drone using {@code model} in this matrix, or null. */
+  public synchronized Long modelOwner(String model) {
+    return models.get(key(model));
+  }
+
+  public synchronized void add(long droneId, String name, String model) {
+    names.put(key(name), droneId);
+    models.put(key(model), droneId);
+  }
+
+  /** Frees the name and model if this drone holds them. */
+  public synchronized void remove(long droneId, String name, String model) {
+    names.remove(key(name), droneId);
+    models.remove(key(model), droneId);
+  }
+}
@@ -1,17 +1,36 @@
 package com.drones.fct.application;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.drones.fct.api.dto.CreateDroneRequest;
 import com.drones.fct.api.exception.ConflictException;
 import com.drones.fct.api.exception.NotFoundException;
+import com.drones.fct.domain.events.DroneEvent;
 import com.drones.fct.domain.model.Drone;
+import com.drones.fct.domain.model.DroneView;
 import com.drones.fct.domain.model.Matrix;
+import com.drones.fct.domain.model.MatrixView;
 import com.drones.fct.domain.model.Orientation;
 import com.drones.fct.domain.repository.DroneRepository;
 import com.drones.fct.domain.repository.MatrixRepository;
+import com.drones.fct.domain.spatial.OccupancyGrid;
 
 import lombok.RequiredArgsConstructor;
 
@@ -20,8 +39,16 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class DroneService {
 
+  private static final int MAX_PAGE_SIZE = 1_000;
+
   private final DroneRepository droneRepository;
   private final MatrixRepository matrixRepository;
+  private final OccupancyIndex occupancyIndex;
+  private final ApplicationEventPublisher events;
+  private final PositionBuffer positions;
+  private final ReadCache readCache;
+  private final MatrixVersions matrixVersions;
+  private final MatrixActors matrixActors;
 
   public Drone createDrone(Long matrixId, String name, String model, int x, int y, Orientation orientation) {
     if (name == null || name.trim().isEmpty()) {
@@ -34,19 +61,20 @@ public class DroneService {
       throw new IllegalArgumentException("Drone orientation must be provided.");
     }
 
-    Matrix matrix = matrixRepository.findById(matrixId)
-        .orElseThrow(() -> new NotFoundException("Matrix ID " + matrixId + " not found"));
+    MatrixView matrix = matrix(matrixId);
 
     validatePosition(matrix, x, y);
 
-    if (droneRepository.existsByNameAndMatrixId(name, matrixId)) {
+    DroneKeys keys = keys(matrix);
+    if (keys.nameOwner(name) != null) {
       throw new ConflictException("A drone with the name '" + name + "' already exists in matrix " + matrixId);
     }
-    if (droneRepository.existsByModelAndMatrixId(model, matrixId)) {
+    if (keys.modelOwner(model) != null) {
       throw new ConflictException("A drone with the model '" + model + "' already exists in matrix " + matrixId);
     }
 
-    if (!droneRepository.findByXAndYAndMatrixId(x, y, matrixId).isEmpty()) {
+    OccupancyGrid grid = occupancy(matrix);
+    if (grid.occupant(x, y) != OccupancyGrid.EMPTY) {
       throw new ConflictException("Position conflict at (" + x + "," + y + ") in matrix " + matrixId);
     }
 
@@ -56,10 +84,121 @@ public class DroneService {
         .x(x)
         .y(y)
         .orientation(orientation)
-        .matrix(matrix)
+        .matrix(matrixRepository.getReferenceById(matrixId))
         .build();
 
-    return droneRepository.save(drone);
+    Drone saved;
+    try {
+      saved = droneRepository.save(drone);
+    } catch (DataIntegrityViolationException e) {
+      throw duplicate(e, matrixId, name, model);
+    }
+    Long droneId = saved.getId();
+    occupancyIndex.evictOnRollback(matrixId);
+    matrixActors.run(matrixId, () -> {
+      if (!grid.place(droneId, x, y)) {
+        throw new ConflictException("Position conflict at (" + x + "," + y + ") in matrix " + matrixId);
+      }
+      keys.add(droneId, name, model);
+    });
+    events.publishEvent(DroneEvent.created(saved));
+    return saved;
+  }
+
+  /**
+   * Creates every drone or none. Names, models and positions are checked
+   * against the in-memory indexes of each matrix, duplicates inside the
+   * request are caught in memory, and the rows are then inserted in JDBC
+   * batches.
+   *
+   * @return the created drones, in request order
+   */
+  public List<Drone> createDrones(List<CreateDroneRequest> requests) {
+    if (requests == null || requests.isEmpty()) {
+      throw new IllegalArgumentException("Drone list must not be empty.");
+    }
+    for (CreateDroneRequest request : requests) {
+      if (request.getName() == null || request.getName().trim().isEmpty()) {
+        throw new IllegalArgumentException("Drone name must not be empty.");
+      }
+      if (request.getModel() == null || request.getModel().trim().isEmpty()) {
+        throw new IllegalArgumentException("Drone model must not be empty.");
+      }
+      if (request.getOrientation() == null) {
+        throw new IllegalArgumentException("Drone orientation must be provided.");
+      }
+    }
+
+    Map<Long, MatrixView> matrices = new HashMap<>();
+    Map<Long, List<CreateDroneRequest>> byMatrix = new LinkedHashMap<>();
+    for (CreateDroneRequest request : requests) {
+      MatrixView matrix = matrices.computeIfAbsent(request.getMatrixId(), this::matrix);
+      validatePosition(matrix, request.getX(), request.getY());
+      byMatrix.computeIfAbsent(matrix.id(), id -> new ArrayList<>()).add(request);
+    }
+
+    for (Map.Entry<Long, List<CreateDroneRequest>> entry : byMatrix.entrySet()) {
+      Long matrixId = entry.getKey();
+      List<CreateDroneRequest> entries = entry.getValue();
+      Set<String> names = new HashSet<>();
+      Set<String> models = new HashSet<>();
+      Set<Long> cells = new HashSet<>();
+      OccupancyGrid grid = occupancy(matrices.get(matrixId));
+      DroneKeys keys = keys(matrices.get(matrixId));
+      for (CreateDroneRequest request : entries) {
+        if (keys.nameOwner(request.getName()) != null) {
+          throw new ConflictException(
+              "A drone with the name '" + request.getName() + "' already exists in matrix " + matrixId);
+        }
+        if (keys.modelOwner(request.getModel()) != null) {
+          throw new ConflictException(
+              "A drone with the model '" + request.getModel() + "' already exists in matrix " + matrixId);
+        }
+        if (!names.add(DroneKeys.key(request.getName()))) {
+          throw new ConflictException("Drone name '" + request.getName() + "' appears more than once for matrix "
+              + matrixId);
+        }
+        if (!models.add(DroneKeys.key(request.getModel()))) {
+          throw new ConflictException("Drone model '" + request.getModel() + "' appears more than once for matrix "
+              + matrixId);
+        }
+        if (!cells.add(((long) request.getX() << 32) | request.getY())
+            || grid.occupant(request.getX(), request.getY()) != OccupancyGrid.EMPTY) {
+          throw new ConflictException(
+              "Position conflict at (" + request.getX() + "," + request.getY() + ") in matrix " + matrixId);
+        }
+      }
+    }
+
+    List<Drone> drones = new ArrayList<>(requests.size());
+    for (CreateDroneRequest request : requests) {
+      drones.add(Drone.builder()
+          .name(request.getName())
+          .model(request.getModel())
+          .x(request.getX())
+          .y(request.getY())
+          .orientation(request.getOrientation())
+          .matrix(matrixRepository.getReferenceById(request.getMatrixId()))
+          .build());
+    }
+    List<Drone> created;
+    try {
+      created = droneRepository.insertAll(drones);
+    } catch (DataIntegrityViolationException e) {
+      throw duplicate(e, byMatrix.keySet());
+    }
+    byMatrix.keySet().forEach(occupancyIndex::evictOnRollback);
+    Map<Long, List<Drone>> createdByMatrix = new LinkedHashMap<>();
+    for (Drone drone : created) {
+      createdByMatrix.computeIfAbsent(drone.getMatrix().getId(), id -> new ArrayList<>()).add(drone);
+    }
+    createdByMatrix.forEach((matrixId, inMatrix) -> {
+      OccupancyGrid grid = occupancy(matrices.get(matrixId));
+      DroneKeys keys = keys(matrices.get(matrixId));
+      matrixActors.run(matrixId, () -> place(grid, keys, inMatrix));
+    });
+    created.forEach(drone -> events.publishEvent(DroneEvent.created(drone)));
+    return created;
   }
 
   public Drone updateDrone(Long droneId, Long matrixId, String name, String model, int x, int y,
@@ -77,20 +216,22 @@ public class DroneService {
     Drone drone = droneRepository.findById(droneId)
         .orElseThrow(() -> new NotFoundException("Drone ID " + droneId + " not found"));
 
-    Matrix newMatrix = matrixRepository.findById(matrixId)
-        .orElseThrow(() -> new NotFoundException("Matrix ID " + matrixId + " not found"));
+    MatrixView newMatrix = matrix(matrixId);
 
     validatePosition(newMatrix, x, y);
 
-    if (!drone.getName().equals(name) && droneRepository.existsByNameAndMatrixId(name, matrixId)) {
+    DroneKeys newKeys = keys(newMatrix);
+    Long nameOwner = newKeys.nameOwner(name);
+    if (nameOwner != null && !nameOwner.equals(droneId)) {
       throw new ConflictException("A drone with the name '" + name + "' already exists in matrix " + matrixId);
     }
-    if (!drone.getModel().equals(model) && droneRepository.existsByModelAndMatrixId(model, matrixId)) {
+    Long modelOwner = newKeys.modelOwner(model);
+    if (modelOwner != null && !modelOwner.equals(droneId)) {
       throw new ConflictException("A drone with the model '" + model + "' already exists in matrix " + matrixId);
     }
 
-    if ((drone.getX() != x || drone.getY() != y || !drone.getMatrix().getId().equals(matrixId))
-        && !droneRepository.findByXAndYAndMatrixId(x, y, matrixId).isEmpty()) {
+    OccupancyGrid newGrid = occupancy(newMatrix);
+    if (!newGrid.isFree(x, y, droneId)) {
       throw new ConflictException("Position (" + x + "," + y + ") in matrix " + matrixId + " is occupied");
     }
 
@@ -102,55 +243,207 @@ public class DroneService {
       throw new ConflictException("No changes detected in the drone update.");
     }
 
-    drone.setMatrix(newMatrix);
+    Matrix oldMatrix = drone.getMatrix();
+    int oldX = drone.getX();
+    int oldY = drone.getY();
+    String oldName = drone.getName();
+    String oldModel = drone.getModel();
+
+    positions.discard(droneId);
+    if (!oldMatrix.getId().equals(matrixId)) {
+      drone.setMatrix(matrixRepository.getReferenceById(matrixId));
+      // The event names only the new matrix; the old one lost a drone.
+      matrixVersions.touch(oldMatrix.getId());
+    }
     drone.setX(x);
     drone.setY(y);
     drone.setName(name);
     drone.setModel(model);
     drone.setOrientation(orientation);
 
-    return droneRepository.save(drone);
+    // Flushed here so a unique key violation surfaces while it can still be translated.
+    Drone saved;
+    try {
+      saved = droneRepository.saveAndFlush(drone);
+    } catch (DataIntegrityViolationException e) {
+      throw duplicate(e, matrixId, name, model);
+    }
+    occupancyIndex.evictOnRollback(oldMatrix.getId());
+    occupancyIndex.evictOnRollback(matrixId);
+    OccupancyGrid oldGrid = occupancy(oldMatrix);
+    DroneKeys oldKeys = keys(oldMatrix);
+    if (oldMatrix.getId().equals(matrixId)) {
+      matrixActors.run(matrixId, () -> {
+        newGrid.remove(droneId, oldX, oldY);
+        if (!newGrid.place(droneId, x, y)) {
+          newGrid.place(droneId, oldX, oldY);
+          throw new ConflictException("Position (" + x + "," + y + ") in matrix " + matrixId + " is occupied");
+        }
+        newKeys.remove(droneId, oldName, oldModel);
+        newKeys.add(droneId, name, model);
+      });
+    } else {
+      // One matrix at a time: a task must not wait on another matrix's actor.
+      matrixActors.run(matrixId, () -> {
+        if (!newGrid.place(droneId, x, y)) {
+          throw new ConflictException("Position (" + x + "," + y + ") in matrix " + matrixId + " is occupied");
+        }
+        newKeys.add(droneId, name, model);
+      });
+      matrixActors.run(oldMatrix.getId(), () -> {
+        oldGrid.remove(droneId, oldX, oldY);
+        oldKeys.remove(droneId, oldName, oldModel);
+      });
+    }
+    events.publishEvent(DroneEvent.updated(saved));
+    return saved;
   }
 
   public Drone deleteDrone(Long droneId) {
     Drone drone = droneRepository.findById(droneId)
         .orElseThrow(() -> new NotFoundException("Drone ID " + droneId + " not found"));
+    positions.discard(droneId);
     droneRepository.delete(drone);
+    Long matrixId = drone.getMatrix().getId();
+    int x = drone.getX();
+    int y = drone.getY();
+    String name = drone.getName();
+    String model = drone.getModel();
+    // The cell, name and model stay taken until the delete commits, so a rollback leaves nothing to give back.
+    matrixActors.runAfterCommit(matrixId,
+        () -> occupancyIndex.remove(matrixId, droneId, x, y, name, model),
+        () -> occupancyIndex.evict(matrixId));
+    events.publishEvent(DroneEvent.deleted(drone));
     return drone;
   }
 
-  public Drone getDrone(Long droneId) {
-    return droneRepository.findById(droneId)
+  @Transactional(readOnly = true)
+  public DroneView getDrone(Long droneId) {
+    return readCache.drone(droneId)
         .orElseThrow(() -> new NotFoundException("Drone ID " + droneId + " not found"));
   }
 
-  public List<Drone> listDrones() {
-    return droneRepository.findAll();
+  /**
+   * Up to {@code limit} drones with an ID above {@code afterId}, by ID, read
+   * as projections; a null limit returns them all and a null filter matches
+   * every drone. Buffered positions are written first when the orientation
+   * filter needs the columns, and the filter is checked again on the result.
+   */
+  @Transactional(readOnly = true)
+  public List<DroneView> listDrones(Long afterId, Integer limit, Long matrixId, Orientation orientation) {
+    if (limit != null && (limit < 1 || limit > MAX_PAGE_SIZE)) {
+      throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE + " (got " + limit + ")");
+    }
+    if (orientation != null) {
+      positions.flushBeforeQuery();
+    }
+    Limit page = limit != null ? Limit.of(limit) : Limit.unlimited();
+    return droneRepository.findViewsAfter(afterId != null ? afterId : 0L, matrixId, orientation, page).stream()
+        .map(positions::overlay)
+        .filter(drone -> orientation == null || drone.orientation() == orientation)
+        .toList();
   }
 
-  private void validatePosition(Matrix matrix, int x, int y) {
-    if (x < 0 || x > matrix.getMaxX() || y < 0 || y > matrix.getMaxY()) {
-      throw new ConflictException(
-          "Invalid coordinates (" + x + "," + y + ") for matrix " + matrix.getId()
-              + " (Max X: " + matrix.getMaxX() + ", Max Y: " + matrix.getMaxY() + ")");
+  /**
+   * Feeds every matching drone, by ID, to {@code consumer} while the rows are
+   * still being read, so memory use does not grow with the fleet.
+   */
+  @Transactional(readOnly = true)
+  public void streamDrones(Long matrixId, Orientation orientation, Consumer<DroneView> consumer) {
+    if (orientation != null) {
+      positions.flushBeforeQuery();
+    }
+    try (Stream<DroneView> views = droneRepository.streamViewsAfter(0L, matrixId, orientation)) {
+      views.map(positions::overlay)
+          .filter(drone -> orientation == null || drone.orientation() == orientation)
+          .forEach(consumer);
     }
   }
 
-  public Drone executeCommands(Long droneId, List<Character> commands) {
-    Drone drone = droneRepository.findById(droneId)
-        .orElseThrow(() -> new NotFoundException("Drone ID " + droneId + " not found"));
+  /** Places freshly inserted drones of one matrix, or none of them if a cell was taken meanwhile. */
+  private static void place(OccupancyGrid grid, DroneKeys keys, List<Drone> drones) {
+    for (int i = 0; i < drones.size(); i++) {
+      Drone drone = drones.get(i);
+      if (!grid.place(drone.getId(), drone.getX(), drone.getY())) {
+        for (Drone placed : drones.subList(0, i)) {
+          grid.remove(placed.getId(), placed.getX(), placed.getY());
+        }
+        throw new ConflictException("Position conflict at (" + drone.getX() + "," + drone.getY() + ") in matrix "
+            + drone.getMatrix().getId());
+      }
+    }
+    for (Drone drone : drones) {
+      keys.add(drone.getId(), drone.getName(), drone.getModel());
+    }
+  }
 
-    Matrix matrix = drone.getMatrix(); // Ya está cargada con Fetch.LAZY
+  private MatrixView matrix(Long matrixId) {
+    return readCache.matrix(matrixId)
+        .orElseThrow(() -> new NotFoundException("Matrix ID " + matrixId + " not found"));
+  }
 
-    for (char command : commands) {
-      try {
-        drone.move(command, matrix);
-      } catch (IllegalArgumentException | IllegalStateException e) {
-        throw new ConflictException("Command '" + command + "' failed for Drone " + droneId + ": " + e.getMessage());
-      }
+  private OccupancyGrid occupancy(Matrix matrix) {
+    return occupancyIndex.grid(matrix, droneRepository::findByMatrixId);
+  }
+
+  private OccupancyGrid occupancy(MatrixView matrix) {
+    return occupancyIndex.grid(matrix, droneRepository::findByMatrixId);
+  }
+
+  private DroneKeys keys(Matrix matrix) {
+    return occupancyIndex.keys(matrix, droneRepository::findByMatrixId);
+  }
+
+  private DroneKeys keys(MatrixView matrix) {
+    return occupancyIndex.keys(matrix, droneRepository::findByMatrixId);
+  }
+
+  /**
+   * Turns a unique key violation the in-memory checks missed (a concurrent
+   * write, or a stale index) into the conflict those checks would have raised,
+   * and drops the matrix's index so it is rebuilt from the database.
+   */
+  private RuntimeException duplicate(DataIntegrityViolationException e, Long matrixId, String name, String model) {
+    String key = violatedKey(e);
+    if (Drone.UNIQUE_NAME.equals(key)) {
+      occupancyIndex.evict(matrixId);
+      return new ConflictException("A drone with the name '" + name + "' already exists in matrix " + matrixId);
+    }
+    if (Drone.UNIQUE_MODEL.equals(key)) {
+      occupancyIndex.evict(matrixId);
+      return new ConflictException("A drone with the model '" + model + "' already exists in matrix " + matrixId);
+    }
+    return e;
+  }
+
+  /** Same as above for a batch insert, where the database does not say which drone clashed. */
+  private RuntimeException duplicate(DataIntegrityViolationException e, Set<Long> matrixIds) {
+    String key = violatedKey(e);
+    if (!Drone.UNIQUE_NAME.equals(key) && !Drone.UNIQUE_MODEL.equals(key)) {
+      return e;
     }
+    matrixIds.forEach(occupancyIndex::evict);
+    return new ConflictException("A drone " + (Drone.UNIQUE_NAME.equals(key) ? "name" : "model")
+        + " in the request was taken meanwhile in matrix "
+        + matrixIds.stream().map(String::valueOf).collect(Collectors.joining(", ")) + "; nothing is created");
+  }
 
-    return droneRepository.save(drone);
+  /** The unique key a write violated, as Hibernate read it from the database's error, or null. */
+  private static String violatedKey(DataIntegrityViolationException e) {
+    if (!(e.getCause() instanceof ConstraintViolationException violation) || violation.getConstraintName() == null) {
+      return null;
+    }
+    // MySQL may qualify the key with its table, as in "drones.uk_drones_matrix_name".
+    String name = violation.getConstraintName();
+    return name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+  }
+
+  private void validatePosition(MatrixView matrix, int x, int y) {
+    if (x < 0 || x > matrix.maxX() || y < 0 || y > matrix.maxY()) {
+      throw new ConflictException(
+          "Invalid coordinates (" + x + "," + y + ") for matrix " + matrix.id()
+              + " (Max X: " + matrix.maxX() + ", Max Y: " + matrix.maxY() + ")");
+    }
   }
 
 }
@@ -0,0 +1,91 @@
+package com.drones.fct.application;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.drones.fct.domain.flight.CommandProgram;
+import com.drones.fct.domain.model.Drone;
+import com.drones.fct.domain.model.MovementCommand;
+
+/**
+ * Broadcasts one command list to many drones. Every drone runs in its own
+ * transaction on a virtual thread; a shared semaphore keeps the number of
+ * drones in flight at or below the JDBC pool size so threads wait for a permit
+ * instead of for a connection.
+ */
+@Service
+public class FleetCommandService {
+
+  private final FlightService flightService;
+  private final FlightRetry flightRetry;
+  private final Semaphore permits;
+
+  public FleetCommandService(FlightService flightService, FlightRetry flightRetry,
+      @Value("${flights.fanout.max-concurrency:10}") int maxConcurrency) {
+    this.flightService = flightService;
+    this.flightRetry = flightRetry;
+    this.permits = new Semaphore(Math.max(1, maxConcurrency), true);
+  }
+
+  public List<DroneCommandOutcome> executeInParallel(List<Long> droneIds, List<MovementCommand> commands) {
+    FlightCommands.requireCommands(commands);
+    CommandProgram program = FlightCommands.compile(commands);
+
+    List<Future<DroneCommandOutcome>> futures = new ArrayList<>(droneIds.size());
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (Long droneId : droneIds) {
+        futures.add(executor.submit(() -> run(droneId, program)));
+      }
+    }
+
+    List<DroneCommandOutcome> outcomes = new ArrayList<>(futures.size());
+    for (int i = 0; i < futures.size(); i++) {
+      outcomes.add(result(droneIds.get(i), futures.get(i)));
+    }
+    return outcomes;
+  }
+
+  private DroneCommandOutcome run(Long droneId, CommandProgram program) {
+    try {
+      Drone drone = flightRetry.call(() -> flightService.executeProgram(droneId, program), this::withPermit);
+      return DroneCommandOutcome.succeeded(droneId, drone);
+    } catch (RuntimeException e) {
+      return DroneCommandOutcome.failed(droneId, e);
+    }
+  }
+
+  /** Holds a permit for one attempt only, so a retry's backoff does not keep it. */
+  private <T> T withPermit(Supplier<T> attempt) {
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted before execution");
+    }
+    try {
+      return attempt.get();
+    } finally {
+      permits.release();
+    }
+  }
+
+  private static DroneCommandOutcome result(Long droneId, Future<DroneCommandOutcome> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return DroneCommandOutcome.failed(droneId, new IllegalStateException("Interrupted while waiting"));
+    } catch (ExecutionException e) {
+      return DroneCommandOutcome.failed(droneId, new IllegalStateException(e.getCause()));
+    }
+  }
+}
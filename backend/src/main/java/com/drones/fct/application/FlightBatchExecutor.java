@@ -0,0 +1,85 @@
+package com.drones.fct.application;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded pool that runs the per-matrix partitions of a batch. When the queue
+ * is full the submitting thread runs the partition itself, so a burst of
+ * batches slows down instead of failing.
+ */
+@Component
+public class FlightBatchExecutor implements DisposableBean {
+
+  private final ExecutorService pool;
+
+  public FlightBatchExecutor(@Value("${flights.batch.parallelism:0}") int parallelism) {
+    int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    this.pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(threads * 16),
+        new CustomizableThreadFactory("flight-batch-"),
+        new ThreadPoolExecutor.CallerRunsPolicy());
+  }
+
+  /**
+   * Runs every task and returns the results in task order. A single task is
+   * run on the calling thread. Unchecked exceptions thrown by a task are
+   * rethrown as is.
+   */
+  public <T> List<T> invokeAll(List<Callable<T>> tasks) {
+    List<T> results = new ArrayList<>(tasks.size());
+    if (tasks.size() == 1) {
+      results.add(call(tasks.get(0)));
+      return results;
+    }
+    List<Future<T>> futures = new ArrayList<>(tasks.size());
+    for (Callable<T> task : tasks) {
+      futures.add(pool.submit(task));
+    }
+    for (Future<T> future : futures) {
+      results.add(await(future));
+    }
+    return results;
+  }
+
+  @Override
+  public void destroy() {
+    pool.shutdown();
+  }
+
+  private static <T> T call(Callable<T> task) {
+    try {
+      return task.call();
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static <T> T await(Future<T> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for batch partition", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+}
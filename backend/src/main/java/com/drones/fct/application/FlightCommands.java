@@ -0,0 +1,47 @@
+package com.drones.fct.application;
+
+import java.util.List;
+
+import com.drones.fct.api.exception.ConflictException;
+import com.drones.fct.api.exception.UnsupportedCommandException;
+import com.drones.fct.domain.flight.CommandProgram;
+import com.drones.fct.domain.flight.FlightFailure;
+import com.drones.fct.domain.flight.PackedCommands;
+import com.drones.fct.domain.model.MovementCommand;
+import com.drones.fct.domain.spatial.OccupancyGrid;
+
+final class FlightCommands {
+
+  private FlightCommands() {
+  }
+
+  static void requireCommands(List<MovementCommand> commands) {
+    if (commands == null || commands.isEmpty()) {
+      throw new IllegalArgumentException("Command list must not be empty.");
+    }
+  }
+
+  static CommandProgram compile(List<MovementCommand> commands) {
+    try {
+      if (commands instanceof PackedCommands packed) {
+        return packed.compile();
+      }
+      return CommandProgram.compile(commands);
+    } catch (IllegalArgumentException e) {
+      throw new UnsupportedCommandException(e.getMessage());
+    }
+  }
+
+  static ConflictException conflict(Long droneId, FlightFailure failure, OccupancyGrid grid) {
+    return switch (failure.kind()) {
+      case COLLISION -> new ConflictException(
+          "Collision detected between drone " + droneId
+              + " and drone " + failure.blockerId()
+              + " at position (" + failure.x() + "," + failure.y() + ")");
+      case OUT_OF_BOUNDS -> new ConflictException(
+          "Drone " + droneId + " would exit matrix boundaries. "
+              + "New position: (" + failure.x() + "," + failure.y() + "), "
+              + "Matrix limits: (0-" + grid.getMaxX() + ", 0-" + grid.getMaxY() + ")");
+    };
+  }
+}
@@ -0,0 +1,61 @@
+package com.drones.fct.application;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.Getter;
+
+/**
+ * A batch of drone commands accepted for background execution. Fields are
+ * written by the worker and read by pollers, so they are volatile and only
+ * published together with the status change that makes them meaningful.
+ */
+@Getter
+public class FlightJob {
+
+  public enum Status {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+  }
+
+  private final UUID id;
+  private final int totalCommands;
+  private final Instant submittedAt;
+  private final AtomicInteger completedCommands = new AtomicInteger();
+  private volatile Status status = Status.QUEUED;
+  private volatile Instant startedAt;
+  private volatile Instant finishedAt;
+  private volatile List<DroneCommandOutcome> outcomes = List.of();
+  private volatile RuntimeException error;
+
+  public FlightJob(UUID id, int totalCommands, Instant submittedAt) {
+    this.id = id;
+    this.totalCommands = totalCommands;
+    this.submittedAt = submittedAt;
+  }
+
+  public boolean isFinished() {
+    return status == Status.SUCCEEDED || status == Status.FAILED;
+  }
+
+  void started(Instant now) {
+    startedAt = now;
+    status = Status.RUNNING;
+  }
+
+  void succeeded(List<DroneCommandOutcome> results, Instant now) {
+    outcomes = List.copyOf(results);
+    finishedAt = now;
+    status = Status.SUCCEEDED;
+  }
+
+  void failed(RuntimeException cause, Instant now) {
+    error = cause;
+    finishedAt = now;
+    status = Status.FAILED;
+  }
+}
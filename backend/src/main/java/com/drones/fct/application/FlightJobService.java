@@ -0,0 +1,110 @@
+package com.drones.fct.application;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.drones.fct.api.dto.BatchDroneCommandRequest;
+import com.drones.fct.api.exception.NotFoundException;
+import com.drones.fct.api.exception.TooManyRequestsException;
+import com.drones.fct.domain.model.Drone;
+
+/**
+ * Runs batch commands in the background. Jobs wait on a bounded queue; when it
+ * is full, submission fails fast with {@link TooManyRequestsException} instead
+ * of piling up work the workers cannot drain. Finished jobs are kept for
+ * {@code flights.jobs.retention} so clients can poll their outcome, and are
+ * purged on a schedule of the same period, so they are gone at most twice
+ * the retention after finishing even when no new job is submitted.
+ */
+@Service
+public class FlightJobService implements DisposableBean {
+
+  private final FlightService flightService;
+  private final FlightRetry flightRetry;
+  private final ThreadPoolExecutor workers;
+  private final ScheduledExecutorService purger;
+  private final Duration retention;
+  private final Map<UUID, FlightJob> jobs = new ConcurrentHashMap<>();
+
+  public FlightJobService(FlightService flightService, FlightRetry flightRetry,
+      @Value("${flights.jobs.workers:2}") int workers,
+      @Value("${flights.jobs.queue-capacity:100}") int queueCapacity,
+      @Value("${flights.jobs.retention:PT15M}") Duration retention) {
+    this.flightService = flightService;
+    this.flightRetry = flightRetry;
+    this.workers = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        new CustomizableThreadFactory("flight-job-"),
+        new ThreadPoolExecutor.AbortPolicy());
+    this.retention = retention;
+    this.purger = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("flight-job-purge-"));
+    long periodMs = Math.max(retention.toMillis(), 1);
+    purger.scheduleWithFixedDelay(this::purgeExpired, periodMs, periodMs, TimeUnit.MILLISECONDS);
+  }
+
+  public FlightJob submit(List<BatchDroneCommandRequest.DroneCommand> commands) {
+    List<BatchDroneCommandRequest.DroneCommand> snapshot = List.copyOf(commands);
+    FlightJob job = new FlightJob(UUID.randomUUID(), snapshot.size(), Instant.now());
+    jobs.put(job.getId(), job);
+    try {
+      workers.execute(() -> run(job, snapshot));
+    } catch (RejectedExecutionException e) {
+      jobs.remove(job.getId());
+      throw new TooManyRequestsException("Flight job queue is full, retry later.");
+    }
+    return job;
+  }
+
+  public FlightJob getJob(UUID jobId) {
+    FlightJob job = jobs.get(jobId);
+    if (job == null) {
+      throw new NotFoundException("Flight job " + jobId + " not found");
+    }
+    return job;
+  }
+
+  private void run(FlightJob job, List<BatchDroneCommandRequest.DroneCommand> commands) {
+    job.started(Instant.now());
+    try {
+      List<Drone> drones = flightRetry.call(() -> {
+        // A retried batch simulates every entry again.
+        job.getCompletedCommands().set(0);
+        return flightService.executeBatchCommands(commands, job.getCompletedCommands());
+      });
+      List<DroneCommandOutcome> outcomes = new ArrayList<>(drones.size());
+      for (Drone drone : drones) {
+        outcomes.add(DroneCommandOutcome.succeeded(drone.getId(), drone));
+      }
+      job.succeeded(outcomes, Instant.now());
+    } catch (RuntimeException e) {
+      job.failed(e, Instant.now());
+    }
+  }
+
+  private void purgeExpired() {
+    Instant cutoff = Instant.now().minus(retention);
+    jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+  }
+
+  @Override
+  public void destroy() {
+    workers.shutdown();
+    purger.shutdownNow();
+  }
+}
@@ -0,0 +1,114 @@
+package com.drones.fct.application;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.drones.fct.api.exception.ConflictException;
+
+/**
+ * Runs a flight in a transaction of its own and runs it again when it loses
+ * an optimistic-locking race: on a drone's version at commit, or, with
+ * write-behind holding drones read-only, in {@link OccupancyIndex}, which
+ * refuses a flight racing another one of the same drone. Every attempt starts
+ * from a fresh persistence context, so it re-reads the drones it moves. The
+ * grid cells a failed attempt took stay taken until its rollback, which
+ * gives them back before the next attempt starts.
+ * Attempts are bounded and spaced by exponential backoff with full jitter, so
+ * writers that collided once do not retry in lockstep.
+ */
+@Component
+public class FlightRetry {
+
+  private final TransactionTemplate transactions;
+  private final int maxAttempts;
+  private final long backoffMs;
+
+  public FlightRetry(PlatformTransactionManager transactionManager,
+      @Value("${flights.retry.max-attempts:4}") int maxAttempts,
+      @Value("${flights.retry.backoff-ms:10}") long backoffMs) {
+    if (maxAttempts < 1) {
+      throw new IllegalArgumentException("flights.retry.max-attempts must be at least 1");
+    }
+    this.transactions = new TransactionTemplate(transactionManager);
+    this.maxAttempts = maxAttempts;
+    this.backoffMs = backoffMs;
+  }
+
+  public <T> T call(Supplier<T> flight) {
+    return call(flight, Supplier::get, true);
+  }
+
+  /**
+   * Same as {@link #call(Supplier)}, with each attempt's transaction run
+   * through {@code around}, so a caller can hold a shared permit only while
+   * a transaction is open and not through the pause between attempts.
+   */
+  public <T> T call(Supplier<T> flight, Function<Supplier<T>, T> around) {
+    return call(flight, around, true);
+  }
+
+  /**
+   * Same as {@link #call(Supplier)} with no pause between attempts, for
+   * callers on a shared worker thread that must not sleep.
+   */
+  public <T> T callWithoutBackOff(Supplier<T> flight) {
+    return call(flight, Supplier::get, false);
+  }
+
+  private <T> T call(Supplier<T> flight, Function<Supplier<T>, T> around, boolean backOff) {
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      // A retry inside the caller's transaction would see the same stale rows.
+      return flight.get();
+    }
+    for (int attempt = 1;; attempt++) {
+      try {
+        return around.apply(() -> transactions.execute(status -> flight.get()));
+      } catch (OptimisticLockingFailureException e) {
+        if (attempt == maxAttempts) {
+          throw new ConflictException(describe(e) + " was modified concurrently; gave up after "
+              + maxAttempts + (maxAttempts == 1 ? " attempt" : " attempts"));
+        }
+        if (backOff) {
+          backOff(attempt);
+        }
+      }
+    }
+  }
+
+  public void run(Runnable flight) {
+    call(() -> {
+      flight.run();
+      return null;
+    });
+  }
+
+  private void backOff(int attempt) {
+    long ceiling = backoffMs << Math.min(attempt - 1, 16);
+    if (ceiling <= 0) {
+      return;
+    }
+    try {
+      Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ConflictException("Interrupted while retrying a concurrent update");
+    }
+  }
+
+  private static String describe(OptimisticLockingFailureException e) {
+    if (e instanceof ObjectOptimisticLockingFailureException stale && stale.getIdentifier() != null) {
+      return stale.getPersistentClassName().substring(stale.getPersistentClassName().lastIndexOf('.') + 1)
+          + " " + stale.getIdentifier();
+    }
+    return "A drone";
+  }
+}
@@ -1,8 +1,18 @@
 package com.drones.fct.application;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-
-import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -10,10 +20,16 @@ import com.drones.fct.api.dto.BatchDroneCommandRequest;
 import com.drones.fct.api.exception.ConflictException;
 import com.drones.fct.api.exception.NotFoundException;
 import com.drones.fct.api.exception.UnsupportedCommandException;
+import com.drones.fct.domain.events.DroneEvent;
+import com.drones.fct.domain.flight.CommandProgram;
+import com.drones.fct.domain.flight.FlightFailure;
+import com.drones.fct.domain.flight.FlightState;
 import com.drones.fct.domain.model.Drone;
 import com.drones.fct.domain.model.Matrix;
 import com.drones.fct.domain.model.MovementCommand;
 import com.drones.fct.domain.repository.DroneRepository;
+import com.drones.fct.domain.spatial.OccupancyGrid;
+import com.drones.fct.domain.spatial.OverlayOccupancyGrid;
 
 import lombok.RequiredArgsConstructor;
 
@@ -23,102 +39,210 @@ import lombok.RequiredArgsConstructor;
 public class FlightService {
 
   private final DroneRepository droneRepository;
+  private final OccupancyIndex occupancyIndex;
+  private final FlightBatchExecutor batchExecutor;
+  private final MatrixActors matrixActors;
+  private final ApplicationEventPublisher events;
+  private final PositionBuffer positions;
 
   public Drone executeCommands(Long droneId, List<MovementCommand> commands) {
-    if (commands == null || commands.isEmpty()) {
-      throw new IllegalArgumentException("Command list must not be empty.");
+    FlightCommands.requireCommands(commands);
+    Drone drone = findDrone(droneId);
+    return execute(drone, FlightCommands.compile(commands));
+  }
+
+  public Drone executeProgram(Long droneId, CommandProgram program) {
+    return execute(findDrone(droneId), program);
+  }
+
+  public void executeCommandsInSequence(List<Long> droneIds, List<MovementCommand> commands) {
+    if (droneIds.isEmpty()) {
+      return;
     }
-    Drone drone = droneRepository.findById(droneId)
-        .orElseThrow(() -> new NotFoundException("Drone ID " + droneId + " not found"));
+    FlightCommands.requireCommands(commands);
+    CommandProgram program = FlightCommands.compile(commands);
+    for (Long droneId : droneIds) {
+      execute(findDrone(droneId), program);
+    }
+  }
 
-    for (MovementCommand cmd : commands) {
-      if (cmd == null) {
-        throw new UnsupportedCommandException("Unsupported command: null");
-      }
-      switch (cmd) {
-        case TURN_LEFT -> turnLeft(drone);
-        case TURN_RIGHT -> turnRight(drone);
-        case MOVE_FORWARD -> moveForward(drone);
-        default -> throw new UnsupportedCommandException("Unsupported command: " + cmd);
+  private Drone execute(Drone drone, CommandProgram program) {
+    OccupancyGrid grid = occupancy(drone.getMatrix());
+    FlightState state = FlightState.of(drone);
+
+    // The matrix actor is the only writer of its grid, so concurrent flights in
+    // the same matrix cannot both claim a free cell.
+    Long matrixId = drone.getMatrix().getId();
+    OccupancyIndex.Changes changes = occupancyIndex.changes();
+    FlightFailure failure = matrixActors.call(matrixId, () -> {
+      FlightFailure result = program.run(state, grid);
+      if (result == null) {
+        changes.move(matrixId, grid, drone.getId(), drone.getX(), drone.getY(), state.getX(), state.getY());
       }
+      return result;
+    });
+    if (failure != null) {
+      throw FlightCommands.conflict(drone.getId(), failure, grid);
     }
+    int fromX = drone.getX();
+    int fromY = drone.getY();
+    state.applyTo(drone);
+    positions.hold(drone);
+    events.publishEvent(DroneEvent.flown(drone, fromX, fromY));
     return drone;
   }
 
-  public void executeCommandsInSequence(List<Long> droneIds, List<MovementCommand> commands) {
-    for (Long droneId : droneIds) {
-      executeCommands(droneId, commands);
-    }
+  /**
+   * Drones in different matrices can never collide, so the batch is split by
+   * matrix and each partition runs, in request order, against its own overlay
+   * of the occupancy grid on its matrix's actor. Nothing is written unless
+   * every partition succeeds; otherwise the failure with the lowest request
+   * index is thrown, which is the one a serial run would have hit first.
+   *
+   * @return the commanded drones, each once, in order of first appearance
+   */
+  @Transactional
+  public List<Drone> executeBatchCommands(List<BatchDroneCommandRequest.DroneCommand> commands) {
+    return executeBatchCommands(commands, new AtomicInteger());
   }
 
+  /**
+   * Same as {@link #executeBatchCommands(List)}, counting simulated entries in
+   * {@code progress} as partitions advance.
+   */
   @Transactional
-  public void executeBatchCommands(List<BatchDroneCommandRequest.DroneCommand> commands) {
-    for (BatchDroneCommandRequest.DroneCommand cmd : commands) {
-      if (cmd.getCommands() == null || cmd.getCommands().isEmpty()) {
-        throw new IllegalArgumentException("Drone " + cmd.getDroneId() + " has no commands to execute.");
+  public List<Drone> executeBatchCommands(List<BatchDroneCommandRequest.DroneCommand> commands,
+      AtomicInteger progress) {
+    int limit = commands.size();
+    for (int i = 0; i < commands.size(); i++) {
+      List<MovementCommand> entryCommands = commands.get(i).getCommands();
+      if (entryCommands == null || entryCommands.isEmpty()) {
+        limit = i;
+        break;
       }
-      if (!droneRepository.existsById(cmd.getDroneId())) {
-        throw new NotFoundException("Drone ID " + cmd.getDroneId() + " not found in batch request.");
+    }
+
+    Set<Long> droneIds = new LinkedHashSet<>();
+    for (int i = 0; i < limit; i++) {
+      droneIds.add(commands.get(i).getDroneId());
+    }
+    Map<Long, Drone> drones = droneRepository.findAllById(droneIds).stream()
+        .collect(Collectors.toMap(Drone::getId, Function.identity()));
+
+    RuntimeException precheckFailure = null;
+    CommandProgram[] programs = new CommandProgram[limit];
+    Map<Long, List<Integer>> partitions = new LinkedHashMap<>();
+    for (int i = 0; i < limit; i++) {
+      BatchDroneCommandRequest.DroneCommand cmd = commands.get(i);
+      Drone drone = drones.get(cmd.getDroneId());
+      if (drone == null) {
+        precheckFailure = new NotFoundException("Drone ID " + cmd.getDroneId() + " not found in batch request.");
+        limit = i;
+        break;
       }
       try {
-        Drone drone = executeCommands(cmd.getDroneId(), cmd.getCommands());
-        checkGlobalCollisions(drone);
-      } catch (ObjectOptimisticLockingFailureException e) {
-        throw new ConflictException("Concurrency conflict on drone " + cmd.getDroneId());
+        programs[i] = FlightCommands.compile(cmd.getCommands());
+      } catch (UnsupportedCommandException e) {
+        precheckFailure = e;
+        limit = i;
+        break;
       }
+      partitions.computeIfAbsent(drone.getMatrix().getId(), id -> new ArrayList<>()).add(i);
+    }
+    if (precheckFailure == null && limit < commands.size()) {
+      precheckFailure = new IllegalArgumentException(
+          "Drone " + commands.get(limit).getDroneId() + " has no commands to execute.");
     }
-  }
 
-  private void turnLeft(Drone drone) {
-    drone.setOrientation(drone.getOrientation().turnLeft());
-  }
+    // Each partition runs and takes its cells in one task on its matrix's actor, so no other flight can claim
+    // a cell between the simulation and the take. Partitions of different matrices still run in parallel.
+    OccupancyIndex.Changes changes = occupancyIndex.changes();
+    boolean take = precheckFailure == null;
+    List<BatchPartition> work = new ArrayList<>(partitions.size());
+    List<Callable<BatchPartition>> tasks = new ArrayList<>(partitions.size());
+    for (List<Integer> entries : partitions.values()) {
+      Matrix matrix = drones.get(commands.get(entries.get(0)).getDroneId()).getMatrix();
+      Map<Long, FlightState> states = new HashMap<>();
+      List<Drone> partitionDrones = new ArrayList<>();
+      for (int entry : entries) {
+        Drone drone = drones.get(commands.get(entry).getDroneId());
+        if (states.putIfAbsent(drone.getId(), FlightState.of(drone)) == null) {
+          partitionDrones.add(drone);
+        }
+      }
+      OccupancyGrid grid = occupancy(matrix);
+      // The partition's moves stay in an overlay of the live grid, so only the cells it changes are copied.
+      BatchPartition partition = new BatchPartition(matrix, entries, states, new OverlayOccupancyGrid(grid));
+      work.add(partition);
+      tasks.add(() -> matrixActors.call(matrix.getId(), () -> {
+        partition.run(commands, programs, progress, false);
+        if (take && !partition.failed()) {
+          changes.moveAll(matrix.getId(), grid, moves(partitionDrones, states));
+        }
+        return partition;
+      }));
+    }
 
-  private void turnRight(Drone drone) {
-    drone.setOrientation(drone.getOrientation().turnRight());
-  }
+    // A partition that took its cells before another one failed gives them back when the batch rolls back.
+    BatchPartition failed = null;
+    for (BatchPartition partition : batchExecutor.invokeAll(tasks)) {
+      if (partition.failed() && (failed == null || partition.firstFailedEntry() < failed.firstFailedEntry())) {
+        failed = partition;
+      }
+    }
+    if (failed != null) {
+      throw FlightCommands.conflict(commands.get(failed.firstFailedEntry()).getDroneId(), failed.failures.get(0),
+          failed.snapshot);
+    }
+    if (precheckFailure != null) {
+      throw precheckFailure;
+    }
 
-  private void moveForward(Drone drone) {
-    int x = drone.getX();
-    int y = drone.getY();
-    Matrix matrix = drone.getMatrix();
+    apply(work, drones);
+    List<Drone> moved = new ArrayList<>(droneIds.size());
+    for (Long droneId : droneIds) {
+      moved.add(drones.get(droneId));
+    }
+    return moved;
+  }
 
-    switch (drone.getOrientation()) {
-      case N -> y++;
-      case S -> y--;
-      case E -> x++;
-      case O -> x--;
+  private static List<OccupancyIndex.Move> moves(List<Drone> drones, Map<Long, FlightState> states) {
+    List<OccupancyIndex.Move> moves = new ArrayList<>(drones.size());
+    for (Drone drone : drones) {
+      FlightState state = states.get(drone.getId());
+      moves.add(new OccupancyIndex.Move(drone.getId(), drone.getX(), drone.getY(), state.getX(), state.getY()));
     }
+    return moves;
+  }
 
-    // Matrix limits validation
-    if (x < 0 || x > matrix.getMaxX() || y < 0 || y > matrix.getMaxY()) {
-      throw new ConflictException(
-          "Drone " + drone.getId() + " would exit matrix boundaries. "
-              + "New position: (" + x + "," + y + "), "
-              + "Matrix limits: (0-" + matrix.getMaxX() + ", 0-" + matrix.getMaxY() + ")");
+  private void apply(List<BatchPartition> work, Map<Long, Drone> drones) {
+    for (BatchPartition partition : work) {
+      for (FlightState state : partition.states.values()) {
+        Drone drone = drones.get(state.getDroneId());
+        int fromX = drone.getX();
+        int fromY = drone.getY();
+        state.applyTo(drone);
+        positions.hold(drone);
+        events.publishEvent(DroneEvent.flown(drone, fromX, fromY));
+      }
     }
+  }
+
+  private Drone findDrone(Long droneId) {
+    return droneRepository.findById(droneId)
+        .orElseThrow(() -> new NotFoundException("Drone ID " + droneId + " not found"));
+  }
 
-    // Drone collision validation
-    List<Drone> others = droneRepository.findByXAndYAndMatrixId(x, y, matrix.getId());
-    if (!others.isEmpty() && (others.size() > 1 || !others.get(0).getId().equals(drone.getId()))) {
+  public void checkGlobalCollisions(Drone drone) {
+    long other = occupancy(drone.getMatrix()).occupant(drone.getX(), drone.getY());
+    if (other != OccupancyGrid.EMPTY && other != drone.getId()) {
       throw new ConflictException(
           "Collision detected between drone " + drone.getId()
-              + " and drone " + others.get(0).getId()
-              + " at position (" + x + "," + y + ")");
+              + " and drone " + other);
     }
-
-    drone.setX(x);
-    drone.setY(y);
   }
 
-  public void checkGlobalCollisions(Drone drone) {
-    List<Drone> dronesInSamePosition = droneRepository.findByXAndYAndMatrixId(
-        drone.getX(), drone.getY(), drone.getMatrix().getId());
-    dronesInSamePosition.forEach(other -> {
-      if (!other.getId().equals(drone.getId())) {
-        throw new ConflictException(
-            "Collision detected between drone " + drone.getId()
-                + " and drone " + other.getId());
-      }
-    });
+  private OccupancyGrid occupancy(Matrix matrix) {
+    return occupancyIndex.grid(matrix, droneRepository::findByMatrixId);
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,134 @@
+package com.drones.fct.application;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.drones.fct.api.dto.BatchDroneCommandRequest;
+import com.drones.fct.api.exception.UnsupportedCommandException;
+import com.drones.fct.domain.flight.CommandProgram;
+import com.drones.fct.domain.flight.FlightFailure;
+import com.drones.fct.domain.flight.FlightState;
+import com.drones.fct.domain.model.Drone;
+import com.drones.fct.domain.model.MovementCommand;
+import com.drones.fct.domain.repository.DroneRepository;
+import com.drones.fct.domain.spatial.OverlayOccupancyGrid;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Predicts the outcome of a batch without executing it. Entries run exactly
+ * as in {@link FlightService#executeBatchCommands(List)}, but against detached
+ * drone states and an {@link OverlayOccupancyGrid} over each live grid, which
+ * keeps the simulated moves to itself, so no entity or grid is changed and no
+ * transaction or row lock is taken. The run is not on the matrix's actor, so
+ * flights committing meanwhile may show through. Failing entries are skipped
+ * rather than aborting the run, so one call reports every problem in the plan.
+ */
+@Service
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@RequiredArgsConstructor
+public class FlightSimulationService {
+
+  private final DroneRepository droneRepository;
+  private final OccupancyIndex occupancyIndex;
+  private final FlightBatchExecutor batchExecutor;
+
+  public SimulationReport simulate(List<BatchDroneCommandRequest.DroneCommand> commands) {
+    Set<Long> droneIds = new LinkedHashSet<>();
+    for (BatchDroneCommandRequest.DroneCommand command : commands) {
+      droneIds.add(command.getDroneId());
+    }
+    Map<Long, Drone> drones = droneRepository.findAllById(droneIds).stream()
+        .collect(Collectors.toMap(Drone::getId, Function.identity()));
+
+    List<SimulationReport.PlanFailure> failures = new ArrayList<>();
+    CommandProgram[] programs = new CommandProgram[commands.size()];
+    Map<Long, List<Integer>> partitions = new LinkedHashMap<>();
+    for (int i = 0; i < commands.size(); i++) {
+      BatchDroneCommandRequest.DroneCommand command = commands.get(i);
+      Drone drone = drones.get(command.getDroneId());
+      if (drone == null) {
+        failures.add(rejected(i, command.getDroneId(), SimulationReport.Reason.NOT_FOUND,
+            "Drone ID " + command.getDroneId() + " not found"));
+        continue;
+      }
+      List<MovementCommand> entryCommands = command.getCommands();
+      if (entryCommands == null || entryCommands.isEmpty()) {
+        failures.add(rejected(i, command.getDroneId(), SimulationReport.Reason.INVALID_COMMANDS,
+            "Drone " + command.getDroneId() + " has no commands to execute."));
+        continue;
+      }
+      try {
+        programs[i] = FlightCommands.compile(entryCommands);
+      } catch (UnsupportedCommandException e) {
+        failures.add(rejected(i, command.getDroneId(), SimulationReport.Reason.INVALID_COMMANDS, e.getMessage()));
+        continue;
+      }
+      partitions.computeIfAbsent(drone.getMatrix().getId(), id -> new ArrayList<>()).add(i);
+    }
+
+    List<Callable<BatchPartition>> tasks = new ArrayList<>(partitions.size());
+    for (List<Integer> entries : partitions.values()) {
+      Drone first = drones.get(commands.get(entries.get(0)).getDroneId());
+      Map<Long, FlightState> states = new HashMap<>();
+      for (int entry : entries) {
+        Drone drone = drones.get(commands.get(entry).getDroneId());
+        states.computeIfAbsent(drone.getId(), id -> FlightState.of(drone));
+      }
+      BatchPartition partition = new BatchPartition(first.getMatrix(), entries, states,
+          new OverlayOccupancyGrid(occupancyIndex.grid(first.getMatrix(), droneRepository::findByMatrixId)));
+      tasks.add(() -> partition.run(commands, programs, new AtomicInteger(), true));
+    }
+
+    Map<Long, SimulationReport.Prediction> predictions = new HashMap<>();
+    for (BatchPartition partition : batchExecutor.invokeAll(tasks)) {
+      for (int i = 0; i < partition.failedEntries.size(); i++) {
+        int entry = partition.failedEntries.get(i);
+        failures.add(flown(entry, commands.get(entry).getDroneId(), partition.failures.get(i), partition));
+      }
+      for (FlightState state : partition.states.values()) {
+        predictions.put(state.getDroneId(), new SimulationReport.Prediction(state.getDroneId(),
+            partition.matrix.getId(), state.getX(), state.getY(), state.getOrientation()));
+      }
+    }
+    failures.sort(Comparator.comparingInt(SimulationReport.PlanFailure::entry));
+
+    List<SimulationReport.Prediction> ordered = new ArrayList<>(predictions.size());
+    for (Long droneId : droneIds) {
+      SimulationReport.Prediction prediction = predictions.get(droneId);
+      if (prediction != null) {
+        ordered.add(prediction);
+      }
+    }
+    return new SimulationReport(ordered, failures);
+  }
+
+  private static SimulationReport.PlanFailure rejected(int entry, Long droneId, SimulationReport.Reason reason,
+      String message) {
+    return new SimulationReport.PlanFailure(entry, droneId, reason, null, null, null, null, message);
+  }
+
+  private static SimulationReport.PlanFailure flown(int entry, Long droneId, FlightFailure failure,
+      BatchPartition partition) {
+    SimulationReport.Reason reason = failure.kind() == FlightFailure.Kind.COLLISION
+        ? SimulationReport.Reason.COLLISION
+        : SimulationReport.Reason.OUT_OF_BOUNDS;
+    Long blocker = failure.kind() == FlightFailure.Kind.COLLISION ? failure.blockerId() : null;
+    return new SimulationReport.PlanFailure(entry, droneId, reason, failure.commandIndex(), failure.x(),
+        failure.y(), blocker, FlightCommands.conflict(droneId, failure, partition.snapshot).getMessage());
+  }
+}
@@ -0,0 +1,76 @@
+package com.drones.fct.application;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs tasks one at a time per key, in submission order, while tasks for
+ * different keys run concurrently on the shared executor. A key only holds a
+ * lane while it has work; each lane runs one task per executor slot so a busy
+ * key cannot starve the others. At most {@code maxPendingPerKey} tasks may
+ * wait per key.
+ */
+public class KeyedSerialExecutor<K> {
+
+  private final Executor executor;
+  private final int maxPendingPerKey;
+  private final ConcurrentMap<K, ArrayDeque<Runnable>> lanes = new ConcurrentHashMap<>();
+
+  public KeyedSerialExecutor(Executor executor, int maxPendingPerKey) {
+    this.executor = executor;
+    this.maxPendingPerKey = maxPendingPerKey;
+  }
+
+  /** Queues {@code task} behind earlier tasks of the same key; false if the key's queue is full. */
+  public boolean submit(K key, Runnable task) {
+    boolean[] accepted = new boolean[1];
+    boolean[] start = new boolean[1];
+    lanes.compute(key, (k, lane) -> {
+      if (lane == null) {
+        lane = new ArrayDeque<>();
+        start[0] = true;
+      }
+      if (lane.size() < maxPendingPerKey) {
+        lane.add(task);
+        accepted[0] = true;
+      }
+      return lane.isEmpty() ? null : lane;
+    });
+    if (start[0] && accepted[0]) {
+      executor.execute(() -> runNext(key));
+    }
+    return accepted[0];
+  }
+
+  /** Number of keys with queued or running work. */
+  public int activeKeys() {
+    return lanes.size();
+  }
+
+  private void runNext(K key) {
+    // Read under the lane's bin lock: a concurrent submit may be growing the deque.
+    Runnable[] head = new Runnable[1];
+    lanes.computeIfPresent(key, (k, lane) -> {
+      head[0] = lane.peek();
+      return lane;
+    });
+    Runnable task = head[0];
+    try {
+      task.run();
+    } catch (RuntimeException e) {
+      // Tasks report their own failures; one failing must not stall the key.
+    } finally {
+      // The running task stays at the head of the lane so concurrent submits
+      // see a non-empty lane and do not start a second runner.
+      ArrayDeque<Runnable> remaining = lanes.compute(key, (k, lane) -> {
+        lane.poll();
+        return lane.isEmpty() ? null : lane;
+      });
+      if (remaining != null) {
+        executor.execute(() -> runNext(key));
+      }
+    }
+  }
+}
@@ -0,0 +1,175 @@
+package com.drones.fct.application;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.drones.fct.api.exception.TooManyRequestsException;
+
+/**
+ * Single writer per matrix. Every check-and-move against a matrix's occupancy
+ * grid runs as a task in that matrix's mailbox, so commands on one matrix are
+ * applied strictly one after another without locks or retries, while
+ * different matrices run in parallel on the shared workers.
+ *
+ * Callers block until their task has run and get its result or exception
+ * back. Tasks must only touch in-memory state: the caller's transaction and
+ * persistence context stay on the calling thread. Since callers usually hold
+ * a database connection while they wait, waiting is bounded twice: tasks
+ * beyond the per-matrix or total limit are refused at once, and a task that
+ * has not started within the wait limit is dropped. Either way the caller
+ * gets a {@link TooManyRequestsException}.
+ */
+@Component
+public class MatrixActors implements DisposableBean {
+
+  private static final int QUEUED = 0;
+  private static final int RUNNING = 1;
+  private static final int DROPPED = 2;
+
+  private final ExecutorService workers;
+  private final KeyedSerialExecutor<Long> mailboxes;
+  private final ThreadLocal<Long> current = new ThreadLocal<>();
+  private final AtomicInteger pending = new AtomicInteger();
+  private final int maxPendingTotal;
+  private final long maxWaitMs;
+
+  public MatrixActors(@Value("${flights.matrix-actors.workers:4}") int workers,
+      @Value("${flights.matrix-actors.max-pending:1024}") int maxPendingPerMatrix,
+      @Value("${flights.matrix-actors.max-pending-total:8192}") int maxPendingTotal,
+      @Value("${flights.matrix-actors.max-wait-ms:2000}") long maxWaitMs) {
+    // A worker queues at most one runner per matrix with a task waiting, so
+    // the total limit bounds its queue too.
+    this.workers = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(maxPendingTotal), new CustomizableThreadFactory("matrix-actor-"));
+    this.mailboxes = new KeyedSerialExecutor<>(this.workers, maxPendingPerMatrix);
+    this.maxPendingTotal = maxPendingTotal;
+    this.maxWaitMs = maxWaitMs;
+  }
+
+  /**
+   * Runs {@code task} in the mailbox of {@code matrixId} and waits for it. A
+   * task already running for that matrix runs nested tasks inline; a task
+   * must not call into the actor of another matrix.
+   */
+  public <T> T call(Long matrixId, Supplier<T> task) {
+    if (matrixId.equals(current.get())) {
+      return task.get();
+    }
+    if (pending.incrementAndGet() > maxPendingTotal) {
+      pending.decrementAndGet();
+      throw new TooManyRequestsException("Too many commands waiting for matrix actors");
+    }
+    AtomicInteger state = new AtomicInteger(QUEUED);
+    CompletableFuture<T> result = new CompletableFuture<>();
+    boolean accepted = mailboxes.submit(matrixId, () -> {
+      pending.decrementAndGet();
+      if (!state.compareAndSet(QUEUED, RUNNING)) {
+        return;
+      }
+      current.set(matrixId);
+      try {
+        result.complete(task.get());
+      } catch (RuntimeException | Error e) {
+        result.completeExceptionally(e);
+      } finally {
+        current.remove();
+      }
+    });
+    if (!accepted) {
+      pending.decrementAndGet();
+      throw new TooManyRequestsException("Too many commands waiting for matrix " + matrixId);
+    }
+    try {
+      return await(result, maxWaitMs);
+    } catch (TimeoutException e) {
+      if (state.compareAndSet(QUEUED, DROPPED)) {
+        throw new TooManyRequestsException("Timed out waiting for matrix " + matrixId);
+      }
+      // Already running: the caller must see what it did.
+      return await(result);
+    }
+  }
+
+  public void run(Long matrixId, Runnable task) {
+    call(matrixId, () -> {
+      task.run();
+      return null;
+    });
+  }
+
+  /**
+   * Runs {@code task} in the mailbox of {@code matrixId} once the current
+   * transaction commits, or right away outside one. If the mailbox refuses
+   * it, {@code refused} runs on the calling thread instead, since the commit
+   * can no longer be undone.
+   */
+  public void runAfterCommit(Long matrixId, Runnable task, Runnable refused) {
+    Runnable step = () -> {
+      try {
+        run(matrixId, task);
+      } catch (TooManyRequestsException e) {
+        refused.run();
+      }
+    };
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      step.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        step.run();
+      }
+    });
+  }
+
+  /** Tasks accepted and not yet started. */
+  public int pending() {
+    return pending.get();
+  }
+
+  @Override
+  public void destroy() {
+    workers.shutdown();
+  }
+
+  private static <T> T await(CompletableFuture<T> result) {
+    try {
+      return await(result, -1);
+    } catch (TimeoutException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /** Waits up to {@code timeoutMs}, or for good when it is negative. */
+  private static <T> T await(CompletableFuture<T> result, long timeoutMs) throws TimeoutException {
+    try {
+      return timeoutMs < 0 ? result.get() : result.get(timeoutMs, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for matrix actor", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      if (e.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+}
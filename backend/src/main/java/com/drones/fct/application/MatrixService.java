@@ -1,18 +1,27 @@
 package com.drones.fct.application;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.drones.fct.api.exception.ConflictException;
 import com.drones.fct.api.exception.NotFoundException;
 import com.drones.fct.domain.model.Drone;
+import com.drones.fct.domain.model.DroneView;
 import com.drones.fct.domain.model.Matrix;
+import com.drones.fct.domain.model.MatrixMode;
+import com.drones.fct.domain.model.MatrixView;
 import com.drones.fct.domain.repository.DroneRepository;
 import com.drones.fct.domain.repository.MatrixRepository;
+import com.drones.fct.domain.spatial.DistanceMetric;
+import com.drones.fct.domain.spatial.OccupancyGrid;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -22,38 +31,48 @@ public class MatrixService {
 
   private static final String MATRIX_ID = "Matrix ID ";
   private static final String NOT_FOUND = " not found";
+  private static final int MAX_DENSE_SIZE = 100;
+  private static final int MAX_SPARSE_SIZE = 1_000_000;
+  private static final int MAX_NEAREST = 1_000;
+  private static final int MAX_PAGE_SIZE = 1_000;
 
   private final MatrixRepository matrixRepository;
   private final DroneRepository droneRepository;
+  private final OccupancyIndex occupancyIndex;
+  private final PositionBuffer positions;
+  private final ReadCache readCache;
+  private final MatrixVersions matrixVersions;
+  private final MatrixActors matrixActors;
 
   public Matrix createMatrix(int maxX, int maxY) {
-    int maxSize = 100;
-    if (maxX <= 0 || maxY <= 0) {
-      throw new ConflictException("Matrix dimensions must be positive (maxX: " + maxX + ", maxY: " + maxY + ")");
-    }
-    if (maxX > maxSize || maxY > maxSize) {
-      throw new ConflictException("Matrix dimensions exceed maximum allowed size (" + maxSize + ").");
-    }
+    return createMatrix(maxX, maxY, MatrixMode.DENSE);
+  }
+
+  public Matrix createMatrix(int maxX, int maxY, MatrixMode mode) {
+    MatrixMode resolved = mode != null ? mode : MatrixMode.DENSE;
+    validateDimensions(maxX, maxY, resolved);
     Matrix matrix = Matrix.builder()
         .maxX(maxX)
         .maxY(maxY)
+        .mode(resolved)
         .build();
     return matrixRepository.save(matrix);
   }
 
   public Matrix updateMatrix(Long matrixId, int maxX, int maxY) {
-    int maxSize = 100;
+    return updateMatrix(matrixId, maxX, maxY, null);
+  }
 
+  /** A null {@code mode} keeps the matrix's current mode. */
+  public Matrix updateMatrix(Long matrixId, int maxX, int maxY, MatrixMode mode) {
     if (maxX <= 0 || maxY <= 0) {
       throw new ConflictException("Matrix dimensions must be positive (maxX: " + maxX + ", maxY: " + maxY + ")");
     }
 
-    if (maxX > maxSize || maxY > maxSize) {
-      throw new ConflictException("Matrix dimensions exceed maximum allowed size (" + maxSize + ").");
-    }
-
     Matrix matrix = matrixRepository.findById(matrixId)
         .orElseThrow(() -> new NotFoundException(MATRIX_ID + matrixId + NOT_FOUND));
+    MatrixMode resolved = mode != null ? mode : matrix.getMode();
+    validateDimensions(maxX, maxY, resolved);
 
     List<Drone> drones = droneRepository.findByMatrixId(matrixId);
     for (Drone drone : drones) {
@@ -66,7 +85,11 @@ public class MatrixService {
 
     matrix.setMaxX(maxX);
     matrix.setMaxY(maxY);
-    return matrixRepository.save(matrix);
+    matrix.setMode(resolved);
+    Matrix saved = matrixRepository.save(matrix);
+    evictAfterCommit(matrixId);
+    matrixVersions.touch(matrixId);
+    return saved;
   }
 
   public Matrix getMatrix(Long matrixId) {
@@ -74,6 +97,22 @@ public class MatrixService {
         .orElseThrow(() -> new NotFoundException(MATRIX_ID + matrixId + NOT_FOUND));
   }
 
+  /**
+   * The matrix's ETag, taken without reading the matrix row. It moves with
+   * every committed change to the matrix or to any of its drones.
+   */
+  @Transactional(readOnly = true)
+  public String getETag(Long matrixId) {
+    matrixView(matrixId);
+    return matrixVersions.eTag(matrixId);
+  }
+
+  /** The matrix and its drones, by ID, read as projections. */
+  @Transactional(readOnly = true)
+  public MatrixView getMatrixView(Long matrixId) {
+    return matrixView(matrixId).withDrones(overlay(droneRepository.findViewsByMatrixIdIn(List.of(matrixId))));
+  }
+
   public void deleteMatrix(Long matrixId) {
     Matrix matrix = matrixRepository.findById(matrixId)
         .orElseThrow(() -> new NotFoundException(MATRIX_ID + matrixId + NOT_FOUND));
@@ -88,10 +127,117 @@ public class MatrixService {
     }
 
     matrixRepository.delete(matrix);
+    evictAfterCommit(matrixId);
+    matrixVersions.touch(matrixId);
+  }
+
+  /**
+   * Drops the matrix's grid and cached view on its actor once the change
+   * commits, so a flight running meanwhile keeps the grid it checked against
+   * and a rollback keeps both.
+   */
+  private void evictAfterCommit(Long matrixId) {
+    Runnable evict = () -> {
+      occupancyIndex.evict(matrixId);
+      readCache.evictMatrix(matrixId);
+    };
+    matrixActors.runAfterCommit(matrixId, evict, evict);
+  }
+
+  /**
+   * Drones of a matrix inside the inclusive rectangle (x1, y1)-(x2, y2),
+   * ordered by ID. The occupancy grid finds them, warmed first if needed, and
+   * only those drones are read, by ID, so positions that have not been
+   * written back yet count too.
+   */
+  @Transactional(readOnly = true)
+  public List<DroneView> findDronesIn(Long matrixId, int x1, int y1, int x2, int y2) {
+    if (x1 > x2 || y1 > y2) {
+      throw new IllegalArgumentException(
+          "Invalid rectangle (" + x1 + ", " + y1 + ")-(" + x2 + ", " + y2 + "): corners must be ordered.");
+    }
+    OccupancyGrid grid = occupancyIndex.grid(matrixView(matrixId), droneRepository::findByMatrixId);
+    List<Long> droneIds = Arrays.stream(grid.occupantsIn(x1, y1, x2, y2)).distinct().boxed().toList();
+    if (droneIds.isEmpty()) {
+      return List.of();
+    }
+    // A flight that has not committed yet holds both its cells; the drone is
+    // where its committed position says.
+    return readCache.drones(droneIds).stream()
+        .filter(drone -> drone.x() >= x1 && drone.x() <= x2 && drone.y() >= y1 && drone.y() <= y2)
+        .sorted(Comparator.comparing(DroneView::id))
+        .toList();
+  }
+
+  /**
+   * The {@code count} drones closest to (x, y) under {@code metric}, nearest
+   * first and ties broken by ID. Candidates come from the matrix's occupancy
+   * grid by rings of growing distance, so only they are loaded.
+   */
+  @Transactional(readOnly = true)
+  public List<DroneView> findNearest(Long matrixId, int x, int y, int count, DistanceMetric metric) {
+    if (count < 1 || count > MAX_NEAREST) {
+      throw new IllegalArgumentException("k must be between 1 and " + MAX_NEAREST + " (got " + count + ")");
+    }
+    MatrixView matrix = matrixView(matrixId);
+    if (x < 0 || y < 0 || x > matrix.maxX() || y > matrix.maxY()) {
+      throw new IllegalArgumentException("Cell (" + x + ", " + y + ") is outside matrix " + matrixId);
+    }
+    OccupancyGrid grid = occupancyIndex.grid(matrix, droneRepository::findByMatrixId);
+    List<Long> candidates = Arrays.stream(grid.nearest(x, y, count, metric.slack())).boxed().toList();
+    if (candidates.isEmpty()) {
+      return List.of();
+    }
+    Comparator<DroneView> closest = Comparator
+        .comparingInt((DroneView drone) -> metric.cost(drone.x(), drone.y(), drone.orientation(), x, y))
+        .thenComparing(DroneView::id);
+    return readCache.drones(candidates).stream()
+        .sorted(closest)
+        .limit(count)
+        .toList();
+  }
+
+  /**
+   * Up to {@code limit} matrices with an ID above {@code afterId}, by ID,
+   * read as projections; a null limit returns them all. Costs one query, or
+   * two with drones: the page, then the drones of every matrix in it.
+   */
+  @Transactional(readOnly = true)
+  public List<MatrixView> listMatrices(Long afterId, Integer limit, boolean withDrones) {
+    if (limit != null && (limit < 1 || limit > MAX_PAGE_SIZE)) {
+      throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE + " (got " + limit + ")");
+    }
+    Long after = afterId != null ? afterId : 0L;
+    Limit page = limit != null ? Limit.of(limit) : Limit.unlimited();
+    List<MatrixView> matrices = matrixRepository.findViewsAfter(after, page);
+    if (!withDrones || matrices.isEmpty()) {
+      return matrices;
+    }
+    Map<Long, List<DroneView>> drones = overlay(
+        droneRepository.findViewsByMatrixIdIn(matrices.stream().map(MatrixView::id).toList())).stream()
+        .collect(Collectors.groupingBy(DroneView::matrixId));
+    return matrices.stream()
+        .map(matrix -> matrix.withDrones(drones.getOrDefault(matrix.id(), List.of())))
+        .toList();
+  }
+
+  private MatrixView matrixView(Long matrixId) {
+    return readCache.matrix(matrixId).orElseThrow(() -> new NotFoundException(MATRIX_ID + matrixId + NOT_FOUND));
+  }
+
+  private List<DroneView> overlay(List<DroneView> drones) {
+    return positions.isEnabled() ? drones.stream().map(positions::overlay).toList() : drones;
   }
 
-  public List<Matrix> listMatrices() {
-    return matrixRepository.findAll();
+  private void validateDimensions(int maxX, int maxY, MatrixMode mode) {
+    if (maxX <= 0 || maxY <= 0) {
+      throw new ConflictException("Matrix dimensions must be positive (maxX: " + maxX + ", maxY: " + maxY + ")");
+    }
+    int maxSize = mode == MatrixMode.SPARSE ? MAX_SPARSE_SIZE : MAX_DENSE_SIZE;
+    if (maxX > maxSize || maxY > maxSize) {
+      throw new ConflictException("Matrix dimensions exceed maximum allowed size (" + maxSize + ")"
+          + (mode == MatrixMode.DENSE ? "; use a SPARSE matrix for larger regions." : "."));
+    }
   }
 
 }
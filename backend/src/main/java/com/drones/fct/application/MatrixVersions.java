@@ -0,0 +1,74 @@
+package com.drones.fct.application;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.drones.fct.domain.events.DroneEvent;
+
+/**
+ * Per-matrix change counters behind the matrix ETag. A matrix's counter
+ * moves once after every committed transaction that changed the matrix or
+ * one of its drones, so the tag tells whether the matrix and its drones are
+ * unchanged without writing the matrix row. The counters live in memory, so
+ * the tag also carries when this instance started; like {@link OccupancyIndex}
+ * they assume one instance serves every write.
+ */
+@Component
+public class MatrixVersions {
+
+  private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+  private final ConcurrentMap<Long, AtomicLong> counters = new ConcurrentHashMap<>();
+
+  @EventListener
+  public void onChanged(DroneEvent event) {
+    touch(event.matrixId());
+  }
+
+  /** Moves the matrix's tag once the current transaction commits, or right away outside one. */
+  public void touch(Long matrixId) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      bump(matrixId);
+      return;
+    }
+    @SuppressWarnings("unchecked")
+    Set<Long> touched = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+    if (touched == null) {
+      Set<Long> pending = new HashSet<>();
+      TransactionSynchronizationManager.bindResource(this, pending);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          pending.forEach(MatrixVersions.this::bump);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+          TransactionSynchronizationManager.unbindResource(MatrixVersions.this);
+        }
+      });
+      touched = pending;
+    }
+    touched.add(matrixId);
+  }
+
+  /**
+   * The matrix's current tag. It moves only after a change commits, so one
+   * read before the body is never newer than the body it goes out with.
+   */
+  public String eTag(Long matrixId) {
+    AtomicLong counter = counters.get(matrixId);
+    return epoch + "-" + (counter != null ? counter.get() : 0);
+  }
+
+  private void bump(Long matrixId) {
+    counters.computeIfAbsent(matrixId, id -> new AtomicLong()).incrementAndGet();
+  }
+}
@@ -0,0 +1,255 @@
+package com.drones.fct.application;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.drones.fct.domain.model.Drone;
+import com.drones.fct.domain.model.Matrix;
+import com.drones.fct.domain.model.MatrixView;
+import com.drones.fct.domain.spatial.LongHashSet;
+import com.drones.fct.domain.spatial.OccupancyGrid;
+
+/**
+ * In-memory occupancy and drone names and models of every matrix touched so
+ * far. Both are built from one load of the matrix's drones, either lazily or
+ * at startup, and dropped together when a transaction that changed them rolls
+ * back, so the next access reloads the committed state.
+ *
+ * <p>A flight takes its target cell at once but keeps its source cell until
+ * its transaction commits, and a rollback gives the target back. Other
+ * transactions may therefore be refused a cell because of a flight that
+ * later rolls back, but are never granted one a drone may return to.
+ *
+ * <p>A flight is refused as a stale read while another uncommitted flight
+ * moves the same drone, when the drone no longer holds the cell the flight
+ * starts from, or when its target was taken after the flight checked it, so
+ * the caller can retry it against the committed state.
+ */
+@Component
+public class OccupancyIndex {
+
+  private record Entry(OccupancyGrid grid, DroneKeys keys) {
+  }
+
+  private final ConcurrentMap<Long, Entry> entries = new ConcurrentHashMap<>();
+  private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+  // The Matrix overloads read the bounds only to warm a missing entry, so a
+  // drone's lazy matrix is not loaded while its grid is warm.
+
+  public OccupancyGrid grid(Matrix matrix, Function<Long, List<Drone>> loader) {
+    return entry(matrix.getId(), () -> MatrixView.of(matrix), loader).grid();
+  }
+
+  public OccupancyGrid grid(MatrixView matrix, Function<Long, List<Drone>> loader) {
+    return entry(matrix.id(), () -> matrix, loader).grid();
+  }
+
+  public DroneKeys keys(Matrix matrix, Function<Long, List<Drone>> loader) {
+    return entry(matrix.getId(), () -> MatrixView.of(matrix), loader).keys();
+  }
+
+  public DroneKeys keys(MatrixView matrix, Function<Long, List<Drone>> loader) {
+    return entry(matrix.id(), () -> matrix, loader).keys();
+  }
+
+  /** The grid of a matrix if it is already warm, without loading it. */
+  public OccupancyGrid peek(Long matrixId) {
+    Entry entry = entries.get(matrixId);
+    return entry != null ? entry.grid() : null;
+  }
+
+  public void evict(Long matrixId) {
+    entries.remove(matrixId);
+  }
+
+  /**
+   * Frees a deleted drone's cell and keys in the matrix's current grid, if it
+   * is warm. Call it on the matrix's actor once the delete has committed.
+   */
+  public void remove(Long matrixId, long droneId, int x, int y, String name, String model) {
+    Entry entry = entries.get(matrixId);
+    if (entry != null) {
+      entry.grid().remove(droneId, x, y);
+      entry.keys().remove(droneId, name, model);
+    }
+  }
+
+  public void evictOnRollback(Long matrixId) {
+    changes().evict.add(matrixId);
+  }
+
+  /**
+   * The grid changes of the current transaction, which are settled when it
+   * completes. Take it on the transaction's thread; its moves may then run on
+   * the matrix's actor. Outside a transaction moves are applied at once.
+   */
+  public Changes changes() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return new Changes(false);
+    }
+    Changes changes = (Changes) TransactionSynchronizationManager.getResource(this);
+    if (changes == null) {
+      Changes created = new Changes(true);
+      TransactionSynchronizationManager.bindResource(this, created);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          TransactionSynchronizationManager.unbindResourceIfPossible(OccupancyIndex.this);
+          created.complete(status == STATUS_COMMITTED);
+        }
+      });
+      changes = created;
+    }
+    return changes;
+  }
+
+  public record Move(long droneId, int fromX, int fromY, int toX, int toY) {
+
+    boolean moves() {
+      return fromX != toX || fromY != toY;
+    }
+  }
+
+  public final class Changes {
+
+    private final boolean transactional;
+    // Partitions of a batch fill these from the actors of their matrices at the same time.
+    private final Set<Long> evict = ConcurrentHashMap.newKeySet();
+    private final List<Runnable> commit = Collections.synchronizedList(new ArrayList<>());
+    private final List<Runnable> undo = Collections.synchronizedList(new ArrayList<>());
+    private final Set<Long> flying = ConcurrentHashMap.newKeySet();
+
+    private Changes(boolean transactional) {
+      this.transactional = transactional;
+    }
+
+    /**
+     * Takes the target cell now and frees the source cell on commit; a
+     * rollback frees the target instead. Call it on the matrix's actor.
+     */
+    public void move(Long matrixId, OccupancyGrid grid, long droneId, int fromX, int fromY, int toX, int toY) {
+      if (!transactional) {
+        moveNow(grid, droneId, fromX, fromY, toX, toY);
+        return;
+      }
+      claim(grid, droneId, fromX, fromY);
+      take(matrixId, grid, droneId, fromX, fromY, toX, toY);
+    }
+
+    private void take(Long matrixId, OccupancyGrid grid, long droneId, int fromX, int fromY, int toX, int toY) {
+      if (fromX == toX && fromY == toY) {
+        return;
+      }
+      if (!grid.place(droneId, toX, toY)) {
+        // Taken since the flight checked it; a retry plans against the cell's new holder.
+        throw new ObjectOptimisticLockingFailureException(Drone.class, droneId);
+      }
+      undo.add(() -> withGrid(matrixId, current -> current.remove(droneId, toX, toY)));
+      // On the current grid, which a reload may have replaced, so the whole move is re-applied. If
+      // that grid no longer has the target free, it is dropped and reloaded from the committed rows.
+      commit.add(() -> withGrid(matrixId, current -> {
+        if (!current.move(droneId, fromX, fromY, toX, toY)) {
+          evict(matrixId);
+        }
+      }));
+    }
+
+    /**
+     * Same as {@link #move} for drones that move together, so one may take a
+     * cell another of them leaves: such a cell changes hands at once, and a
+     * rollback gives it back. Call it on the matrix's actor.
+     */
+    public void moveAll(Long matrixId, OccupancyGrid grid, Collection<Move> moves) {
+      if (transactional) {
+        for (Move move : moves) {
+          claim(grid, move.droneId(), move.fromX(), move.fromY());
+        }
+      }
+      LongHashSet targets = new LongHashSet(moves.size());
+      for (Move move : moves) {
+        targets.add(cell(move.toX(), move.toY()));
+      }
+      for (Move move : moves) {
+        if (move.moves() && targets.contains(cell(move.fromX(), move.fromY()))) {
+          grid.remove(move.droneId(), move.fromX(), move.fromY());
+          if (transactional) {
+            undo.add(() -> withGrid(matrixId, current -> current.place(move.droneId(), move.fromX(), move.fromY())));
+          }
+        }
+      }
+      for (Move move : moves) {
+        if (transactional) {
+          take(matrixId, grid, move.droneId(), move.fromX(), move.fromY(), move.toX(), move.toY());
+        } else {
+          moveNow(grid, move.droneId(), move.fromX(), move.fromY(), move.toX(), move.toY());
+        }
+      }
+    }
+
+    /** Refuses a flight that started from a stale position; see the class comment. */
+    private void claim(OccupancyGrid grid, long droneId, int fromX, int fromY) {
+      if (grid.occupant(fromX, fromY) != droneId || !flying.contains(droneId) && !inFlight.add(droneId)) {
+        throw new ObjectOptimisticLockingFailureException(Drone.class, droneId);
+      }
+      flying.add(droneId);
+    }
+
+    private void complete(boolean committed) {
+      if (committed) {
+        commit.forEach(Runnable::run);
+      } else {
+        // Newest first, so a cell taken over is free again before it is given back.
+        for (int i = undo.size() - 1; i >= 0; i--) {
+          undo.get(i).run();
+        }
+        evict.forEach(OccupancyIndex.this::evict);
+      }
+      inFlight.removeAll(flying);
+    }
+  }
+
+  private static void moveNow(OccupancyGrid grid, long droneId, int fromX, int fromY, int toX, int toY) {
+    if (!grid.move(droneId, fromX, fromY, toX, toY)) {
+      throw new ObjectOptimisticLockingFailureException(Drone.class, droneId);
+    }
+  }
+
+  private static long cell(int x, int y) {
+    return (long) x << 32 | (y & 0xFFFFFFFFL);
+  }
+
+  private void withGrid(Long matrixId, Consumer<OccupancyGrid> change) {
+    OccupancyGrid current = peek(matrixId);
+    if (current != null) {
+      change.accept(current);
+    }
+  }
+
+  private Entry entry(Long matrixId, Supplier<MatrixView> matrix, Function<Long, List<Drone>> loader) {
+    return entries.computeIfAbsent(matrixId, id -> warm(matrix.get(), loader.apply(id)));
+  }
+
+  private Entry warm(MatrixView matrix, List<Drone> drones) {
+    OccupancyGrid grid = OccupancyGrid.create(matrix.maxX(), matrix.maxY(), matrix.mode());
+    DroneKeys keys = new DroneKeys();
+    for (Drone drone : drones) {
+      grid.place(drone.getId(), drone.getX(), drone.getY());
+      keys.add(drone.getId(), drone.getName(), drone.getModel());
+    }
+    return new Entry(grid, keys);
+  }
+}
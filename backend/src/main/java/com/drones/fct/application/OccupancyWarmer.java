@@ -0,0 +1,42 @@
+package com.drones.fct.application;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.drones.fct.domain.model.Matrix;
+import com.drones.fct.domain.repository.DroneRepository;
+import com.drones.fct.domain.repository.MatrixRepository;
+
+/**
+ * Loads the occupancy grid and name/model index of every matrix once the
+ * application is up, so the first create or update of each matrix is already
+ * checked in memory.
+ */
+@Component
+public class OccupancyWarmer {
+
+  private final MatrixRepository matrixRepository;
+  private final DroneRepository droneRepository;
+  private final OccupancyIndex occupancyIndex;
+  private final boolean enabled;
+
+  public OccupancyWarmer(MatrixRepository matrixRepository, DroneRepository droneRepository,
+      OccupancyIndex occupancyIndex, @Value("${occupancy.warm-on-startup:true}") boolean enabled) {
+    this.matrixRepository = matrixRepository;
+    this.droneRepository = droneRepository;
+    this.occupancyIndex = occupancyIndex;
+    this.enabled = enabled;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void warm() {
+    if (!enabled) {
+      return;
+    }
+    for (Matrix matrix : matrixRepository.findAll()) {
+      occupancyIndex.grid(matrix, droneRepository::findByMatrixId);
+    }
+  }
+}
@@ -0,0 +1,257 @@
+package com.drones.fct.application;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.drones.fct.domain.events.DroneEvent;
+import com.drones.fct.domain.events.DroneEventType;
+import com.drones.fct.domain.flight.FlightState;
+import com.drones.fct.domain.model.Drone;
+import com.drones.fct.domain.model.DroneView;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Optional write-behind store for drone positions. When enabled, flights no
+ * longer write x, y and orientation through Hibernate: the committed position
+ * of every flown drone is kept here, overlaid on each drone loaded from the
+ * database, and written to the drones table in JDBC batches at most
+ * {@code max-staleness-ms} later and once more on shutdown. When disabled,
+ * every method is a no-op and flights write through as before.
+ *
+ * A flight's position is taken in just before its transaction commits and
+ * dropped again if the commit fails, so a transaction that starts once the
+ * commit returns always loads the new position. It is queued for writing
+ * only after the commit.
+ *
+ * A held drone is read-only, so its flight does not bump the drone's
+ * {@code @Version}; the version moves when the position is written. Two
+ * flights of one drone are kept apart by {@link OccupancyIndex} instead,
+ * which refuses a flight while an earlier one of the same drone is
+ * uncommitted or when the drone no longer holds the cell the flight starts
+ * from.
+ */
+@Component
+public class PositionBuffer implements InitializingBean, DisposableBean {
+
+  // Moves the drone's version too, which its held flights left alone.
+  private static final String UPDATE_POSITION = "UPDATE drones "
+      + "SET pos_x = ?, pos_y = ?, orientation = ?, version = version + 1 WHERE id = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final EntityManager entityManager;
+  private final boolean enabled;
+  private final Map<Long, FlightState> latest = new ConcurrentHashMap<>();
+  private final Map<Long, FlightState> dirty = new ConcurrentHashMap<>();
+  private final Object flushLock = new Object();
+  private final ScheduledExecutorService flusher;
+
+  public PositionBuffer(JdbcTemplate jdbcTemplate, EntityManager entityManager,
+      @Value("${flights.write-behind.enabled:false}") boolean enabled,
+      @Value("${flights.write-behind.max-staleness-ms:200}") long maxStalenessMs) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.entityManager = entityManager;
+    this.enabled = enabled;
+    if (enabled) {
+      this.flusher = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("position-flush-"));
+      flusher.scheduleWithFixedDelay(this::flushOrRetry, maxStalenessMs, maxStalenessMs, TimeUnit.MILLISECONDS);
+    } else {
+      this.flusher = null;
+    }
+  }
+
+  /** Lays buffered positions over drones as Hibernate loads them, however they are queried. */
+  @Override
+  public void afterPropertiesSet() {
+    if (enabled) {
+      entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class).getServiceRegistry()
+          .requireService(EventListenerRegistry.class)
+          .appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> {
+            if (event.getEntity() instanceof Drone drone) {
+              overlayLoaded(event, drone);
+            }
+          });
+    }
+  }
+
+  /**
+   * Overlays the drone and its loaded state alike, so dirty checking sees a
+   * drone that is only read as unchanged and issues no UPDATE for it.
+   */
+  private void overlayLoaded(PostLoadEvent event, Drone drone) {
+    FlightState state = latest.get(drone.getId());
+    if (state == null) {
+      return;
+    }
+    state.applyTo(drone);
+    EntityEntry entry = event.getSession().getPersistenceContextInternal().getEntry(drone);
+    Object[] loaded = entry != null ? entry.getLoadedState() : null;
+    if (loaded != null) {
+      EntityPersister persister = entry.getPersister();
+      loaded[persister.getPropertyIndex("x")] = state.getX();
+      loaded[persister.getPropertyIndex("y")] = state.getY();
+      loaded[persister.getPropertyIndex("orientation")] = state.getOrientation();
+    }
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Keeps Hibernate from writing the position a flight just gave this managed
+   * drone; the committed flight event brings it here instead.
+   */
+  public void hold(Drone drone) {
+    if (enabled && entityManager.contains(drone)) {
+      entityManager.unwrap(Session.class).setReadOnly(drone, true);
+    }
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+  public void onCommitting(DroneEvent event) {
+    if (!enabled || (event.type() != DroneEventType.MOVE && event.type() != DroneEventType.TURN)) {
+      return;
+    }
+    Long droneId = event.droneId();
+    FlightState state = new FlightState(droneId, event.x(), event.y(), event.orientation());
+    FlightState previous = latest.put(droneId, state);
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      dirty.put(droneId, state);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        if (status == STATUS_COMMITTED) {
+          dirty.put(droneId, state);
+        } else if (previous != null) {
+          latest.replace(droneId, state, previous);
+        } else {
+          latest.remove(droneId, state);
+        }
+      }
+    });
+  }
+
+  /** Replaces the stored position of a freshly loaded drone with the buffered one. */
+  public void overlay(Drone drone) {
+    FlightState state = drone.getId() != null ? latest.get(drone.getId()) : null;
+    if (state != null) {
+      state.applyTo(drone);
+    }
+  }
+
+  /** The view with the buffered position, if any, in place of the stored one. */
+  public DroneView overlay(DroneView view) {
+    FlightState state = latest.get(view.id());
+    if (state == null) {
+      return view;
+    }
+    return new DroneView(view.id(), view.name(), view.model(), state.getX(), state.getY(), state.getOrientation(),
+        view.matrixId());
+  }
+
+  /**
+   * Drops the buffered position of a drone whose row is about to be written or
+   * deleted directly, waiting for a flush in progress so it cannot land after
+   * that write.
+   */
+  public void discard(Long droneId) {
+    if (!enabled) {
+      return;
+    }
+    synchronized (flushLock) {
+      dirty.remove(droneId);
+      latest.remove(droneId);
+    }
+  }
+
+  /** Writes every buffered position in one JDBC batch. */
+  public int flush() {
+    synchronized (flushLock) {
+      List<FlightState> pending = new ArrayList<>(dirty.values());
+      if (pending.isEmpty()) {
+        return 0;
+      }
+      jdbcTemplate.batchUpdate(UPDATE_POSITION, pending, pending.size(), (statement, state) -> {
+        statement.setInt(1, state.getX());
+        statement.setInt(2, state.getY());
+        statement.setString(3, state.getOrientation().name());
+        statement.setLong(4, state.getDroneId());
+      });
+      // A drone flown again meanwhile keeps its newer position for the next flush.
+      for (FlightState state : pending) {
+        dirty.remove(state.getDroneId(), state);
+        latest.remove(state.getDroneId(), state);
+      }
+      return pending.size();
+    }
+  }
+
+  /**
+   * Writes the buffered positions before a query filters on the position
+   * columns, on the flusher's thread so the caller's read-only transaction is
+   * left alone. A failed write leaves them buffered; callers still check
+   * what they read against {@link #overlay(DroneView)}.
+   */
+  public void flushBeforeQuery() {
+    if (!enabled || dirty.isEmpty()) {
+      return;
+    }
+    try {
+      flusher.submit(this::flushOrRetry).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      // Only a rejected or failed flush gets here; the positions stay buffered.
+    }
+  }
+
+  private void flushOrRetry() {
+    try {
+      flush();
+    } catch (DataAccessException e) {
+      // Positions stay buffered and the next run retries them; a thrown
+      // exception would cancel the schedule.
+    }
+  }
+
+  public int pending() {
+    return dirty.size();
+  }
+
+  @Override
+  public void destroy() {
+    if (flusher != null) {
+      flusher.shutdown();
+      flush();
+    }
+  }
+}
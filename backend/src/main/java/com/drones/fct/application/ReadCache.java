@@ -0,0 +1,150 @@
+package com.drones.fct.application;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.drones.fct.domain.events.DroneEvent;
+import com.drones.fct.domain.model.DroneView;
+import com.drones.fct.domain.model.MatrixView;
+import com.drones.fct.domain.repository.DroneRepository;
+import com.drones.fct.domain.repository.MatrixRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Bounded, expiring caches of matrix bounds and single-drone views in front
+ * of the repositories. Entries are evicted once the transaction that changed
+ * them commits: drones on their committed {@link DroneEvent}, matrices through
+ * {@link #evictMatrix(Long)} from the matrix mutations. Evicting after the
+ * commit, not before, keeps a read racing the change from caching the old row.
+ * Bulk loads are not tied to their keys while they run, so each eviction
+ * also moves a generation counter, and a bulk load caches only the drones
+ * whose counter it saw unchanged.
+ */
+@Component
+public class ReadCache {
+
+  private static final int GENERATION_STRIPES = 64;
+
+  private final MatrixRepository matrixRepository;
+  private final DroneRepository droneRepository;
+  private final PositionBuffer positions;
+  private final Cache<Long, MatrixView> matrices;
+  private final Cache<Long, DroneView> drones;
+  private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+  public ReadCache(MatrixRepository matrixRepository, DroneRepository droneRepository, PositionBuffer positions,
+      @Value("${cache.matrices.max-size:10000}") long matrixMaxSize,
+      @Value("${cache.matrices.ttl:PT10M}") Duration matrixTtl,
+      @Value("${cache.drones.max-size:100000}") long droneMaxSize,
+      @Value("${cache.drones.ttl:PT1M}") Duration droneTtl) {
+    this.matrixRepository = matrixRepository;
+    this.droneRepository = droneRepository;
+    this.positions = positions;
+    this.matrices = Caffeine.newBuilder()
+        .maximumSize(matrixMaxSize)
+        .expireAfterWrite(matrixTtl)
+        .recordStats()
+        .build();
+    this.drones = Caffeine.newBuilder()
+        .maximumSize(droneMaxSize)
+        .expireAfterWrite(droneTtl)
+        .recordStats()
+        .build();
+  }
+
+  /** The matrix's ID, bounds and mode, without its drones. Missing matrices are not cached. */
+  public Optional<MatrixView> matrix(Long matrixId) {
+    return Optional.ofNullable(matrices.get(matrixId, id -> matrixRepository.findViewById(id).orElse(null)));
+  }
+
+  /**
+   * The drone with its write-behind position applied. The position is cached
+   * as read; the drone's next flight evicts it.
+   */
+  public Optional<DroneView> drone(Long droneId) {
+    return Optional.ofNullable(drones.get(droneId, id -> droneRepository.findViewById(id)
+        .map(positions::overlay)
+        .orElse(null)));
+  }
+
+  /** The drones among {@code droneIds} that exist, in no particular order, loading the missing ones in one query. */
+  public List<DroneView> drones(Collection<Long> droneIds) {
+    Map<Long, DroneView> cached = drones.getAllPresent(droneIds);
+    Set<Long> missing = new LinkedHashSet<>(droneIds);
+    missing.removeAll(cached.keySet());
+    List<DroneView> found = new ArrayList<>(cached.values());
+    if (missing.isEmpty()) {
+      return found;
+    }
+    Map<Long, Long> seen = new LinkedHashMap<>();
+    for (Long droneId : missing) {
+      seen.put(droneId, generations.get(stripe(droneId)));
+    }
+    for (DroneView view : droneRepository.findViewsByIdIn(List.copyOf(missing))) {
+      DroneView overlaid = positions.overlay(view);
+      found.add(overlaid);
+      // Checked under the entry's lock, which an eviction waits for after moving the counter.
+      drones.asMap().compute(view.id(), (id, current) -> current != null
+          || generations.get(stripe(id)) != seen.get(id) ? current : overlaid);
+    }
+    return found;
+  }
+
+  public void evictMatrix(Long matrixId) {
+    matrices.invalidate(matrixId);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          matrices.invalidate(matrixId);
+        }
+      });
+    }
+  }
+
+  // Last after commit; PositionBuffer took the new position in before the commit, so a reload sees it.
+  @TransactionalEventListener
+  @Order(Ordered.LOWEST_PRECEDENCE)
+  public void onCommitted(DroneEvent event) {
+    generations.incrementAndGet(stripe(event.droneId()));
+    drones.invalidate(event.droneId());
+  }
+
+  /** Hit, miss and eviction counts of each cache, by name. */
+  public Map<String, CacheStats> stats() {
+    Map<String, CacheStats> stats = new LinkedHashMap<>();
+    stats.put("matrices", matrices.stats());
+    stats.put("drones", drones.stats());
+    return stats;
+  }
+
+  /** Entries currently held by each cache, by name. */
+  public Map<String, Long> sizes() {
+    Map<String, Long> sizes = new LinkedHashMap<>();
+    sizes.put("matrices", matrices.estimatedSize());
+    sizes.put("drones", drones.estimatedSize());
+    return sizes;
+  }
+
+  private static int stripe(Long droneId) {
+    return Long.hashCode(droneId) & (GENERATION_STRIPES - 1);
+  }
+}
@@ -0,0 +1,96 @@
+package com.drones.fct.application;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.drones.fct.api.exception.ConflictException;
+import com.drones.fct.api.exception.NotFoundException;
+import com.drones.fct.domain.model.Drone;
+import com.drones.fct.domain.model.MatrixMode;
+import com.drones.fct.domain.model.MovementCommand;
+import com.drones.fct.domain.repository.DroneRepository;
+import com.drones.fct.domain.spatial.DistanceField;
+import com.drones.fct.domain.spatial.OccupancyGrid;
+
+/**
+ * Plans the shortest command list that takes a drone to a target cell around
+ * the drones currently in its matrix. Distance fields are kept per matrix and
+ * target in a small LRU cache and rebuilt as soon as the matrix occupancy has
+ * changed since they were computed.
+ */
+@Service
+@Transactional(readOnly = true)
+public class RoutePlanner {
+
+  private final DroneRepository droneRepository;
+  private final OccupancyIndex occupancyIndex;
+  private final Map<FieldKey, DistanceField> fields;
+
+  public RoutePlanner(DroneRepository droneRepository, OccupancyIndex occupancyIndex,
+      @Value("${flights.routes.cache-size:256}") int cacheSize) {
+    this.droneRepository = droneRepository;
+    this.occupancyIndex = occupancyIndex;
+    this.fields = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<FieldKey, DistanceField> eldest) {
+        return size() > cacheSize;
+      }
+    };
+  }
+
+  public List<MovementCommand> routeTo(Long droneId, int targetX, int targetY) {
+    Drone drone = droneRepository.findById(droneId)
+        .orElseThrow(() -> new NotFoundException("Drone ID " + droneId + " not found"));
+    OccupancyGrid grid = occupancyIndex.grid(drone.getMatrix(), droneRepository::findByMatrixId);
+    if (!grid.contains(targetX, targetY)) {
+      throw new IllegalArgumentException("Target (" + targetX + "," + targetY + ") is outside the matrix. "
+          + "Matrix limits: (0-" + grid.getMaxX() + ", 0-" + grid.getMaxY() + ")");
+    }
+    long occupant = grid.occupant(targetX, targetY);
+    if (occupant == droneId) {
+      return List.of();
+    }
+    if (occupant != OccupancyGrid.EMPTY) {
+      throw new ConflictException("Target (" + targetX + "," + targetY + ") is occupied by drone " + occupant);
+    }
+
+    if (drone.getMatrix().getMode() == MatrixMode.SPARSE) {
+      throw new IllegalArgumentException("Route planning is only available for DENSE matrices; matrix "
+          + drone.getMatrix().getId() + " is SPARSE.");
+    }
+
+    List<MovementCommand> route = field(drone.getMatrix().getId(), grid, targetX, targetY)
+        .route(drone.getX(), drone.getY(), drone.getOrientation());
+    if (route == null) {
+      throw new ConflictException("No route for drone " + droneId + " from (" + drone.getX() + "," + drone.getY()
+          + ") to (" + targetX + "," + targetY + ")");
+    }
+    return route;
+  }
+
+  private DistanceField field(Long matrixId, OccupancyGrid grid, int targetX, int targetY) {
+    FieldKey key = new FieldKey(matrixId, targetX, targetY);
+    DistanceField field;
+    synchronized (fields) {
+      field = fields.get(key);
+    }
+    if (field != null && field.isCurrentFor(grid)) {
+      return field;
+    }
+    // Built outside the cache lock; two requests racing on a stale field both
+    // compute it, which is cheaper than serialising every planner call.
+    field = DistanceField.compute(grid, targetX, targetY);
+    synchronized (fields) {
+      fields.put(key, field);
+    }
+    return field;
+  }
+
+  private record FieldKey(long matrixId, int x, int y) {
+  }
+}
@@ -0,0 +1,38 @@
+package com.drones.fct.application;
+
+import java.util.List;
+
+import com.drones.fct.domain.model.Orientation;
+
+/**
+ * Outcome of a dry run: where every known drone would end up and every entry
+ * that would be rejected, in request order.
+ */
+public record SimulationReport(List<Prediction> drones, List<PlanFailure> failures) {
+
+  public boolean feasible() {
+    return failures.isEmpty();
+  }
+
+  public PlanFailure firstFailure() {
+    return failures.isEmpty() ? null : failures.get(0);
+  }
+
+  public record Prediction(long droneId, long matrixId, int x, int y, Orientation orientation) {
+  }
+
+  /**
+   * {@code commandIndex}, position and blocker are only known for failures
+   * found while flying, not for entries rejected up front.
+   */
+  public record PlanFailure(int entry, Long droneId, Reason reason, Integer commandIndex, Integer x, Integer y,
+      Long blockerId, String message) {
+  }
+
+  public enum Reason {
+    COLLISION,
+    OUT_OF_BOUNDS,
+    NOT_FOUND,
+    INVALID_COMMANDS
+  }
+}
@@ -0,0 +1,172 @@
+package com.drones.fct.application;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.drones.fct.api.dto.BatchDroneCommandRequest;
+import com.drones.fct.api.exception.ConflictException;
+import com.drones.fct.api.exception.NotFoundException;
+import com.drones.fct.api.exception.UnsupportedCommandException;
+import com.drones.fct.domain.events.DroneEvent;
+import com.drones.fct.domain.flight.FleetSimulation;
+import com.drones.fct.domain.flight.PlannedStep;
+import com.drones.fct.domain.flight.TickConflict;
+import com.drones.fct.domain.model.Drone;
+import com.drones.fct.domain.model.MatrixView;
+import com.drones.fct.domain.model.MovementCommand;
+import com.drones.fct.domain.model.Orientation;
+import com.drones.fct.domain.repository.DroneRepository;
+import com.drones.fct.domain.spatial.OccupancyGrid;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Runs the drones of one matrix in lockstep ticks with {@link FleetSimulation}
+ * and writes the final positions back once. Drones of the matrix that are not
+ * part of the request stay in place but still block the others, and so do
+ * cells their uncommitted flights already took. The ticks run in the
+ * matrix's actor, so no other flight can move a drone of the matrix while
+ * they are checked and applied.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class SimultaneousFlightService {
+
+  private final ReadCache readCache;
+  private final DroneRepository droneRepository;
+  private final OccupancyIndex occupancyIndex;
+  private final MatrixActors matrixActors;
+  private final ApplicationEventPublisher events;
+  private final PositionBuffer positions;
+
+  public List<Drone> executeSimultaneous(Long matrixId, List<BatchDroneCommandRequest.DroneCommand> commands) {
+    if (commands.isEmpty()) {
+      throw new IllegalArgumentException("Command list must not be empty.");
+    }
+    Map<Long, List<PlannedStep>> routes = new LinkedHashMap<>();
+    for (BatchDroneCommandRequest.DroneCommand command : commands) {
+      List<PlannedStep> steps = new ArrayList<>(command.getCommands().size());
+      for (MovementCommand movement : command.getCommands()) {
+        if (movement == null) {
+          throw new UnsupportedCommandException("Unsupported command: null");
+        }
+        steps.add(PlannedStep.of(movement));
+      }
+      if (routes.put(command.getDroneId(), steps) != null) {
+        throw new IllegalArgumentException("Drone " + command.getDroneId() + " appears more than once.");
+      }
+    }
+    return executeRoutes(matrixId, routes);
+  }
+
+  /** Flies planned routes, such as those of {@link SwarmPlanningService}, waits included. */
+  public List<Drone> executeRoutes(Long matrixId, Map<Long, List<PlannedStep>> routes) {
+    MatrixView matrix = readCache.matrix(matrixId)
+        .orElseThrow(() -> new NotFoundException("Matrix ID " + matrixId + " not found"));
+
+    List<Drone> drones = droneRepository.findByMatrixId(matrixId);
+    Map<Long, Drone> byId = new HashMap<>();
+    FleetSimulation.Builder builder = FleetSimulation.builder(matrix.maxX(), matrix.maxY());
+    for (Drone drone : drones) {
+      byId.put(drone.getId(), drone);
+      builder.planned(drone.getId(), drone.getX(), drone.getY(), drone.getOrientation(),
+          routes.getOrDefault(drone.getId(), List.of()));
+    }
+    for (Long droneId : routes.keySet()) {
+      if (!byId.containsKey(droneId)) {
+        throw new NotFoundException("Drone ID " + droneId + " not found in matrix " + matrixId);
+      }
+    }
+
+    OccupancyGrid grid = occupancyIndex.grid(matrix, droneRepository::findByMatrixId);
+    OccupancyIndex.Changes changes = occupancyIndex.changes();
+    Outcome outcome = matrixActors.call(matrixId, () -> {
+      blockHeldCells(builder, grid, routes, byId);
+      FleetSimulation result = builder.build();
+      TickConflict tickConflict = result.run();
+      if (tickConflict != null) {
+        return new Outcome(result, tickConflict);
+      }
+      List<OccupancyIndex.Move> moves = new ArrayList<>(routes.size());
+      for (int i = 0; i < result.size(); i++) {
+        if (routes.containsKey(result.id(i))) {
+          Drone drone = byId.get(result.id(i));
+          moves.add(new OccupancyIndex.Move(drone.getId(), drone.getX(), drone.getY(),
+              result.x(i), result.y(i)));
+        }
+      }
+      changes.moveAll(matrixId, grid, moves);
+      return new Outcome(result, null);
+    });
+    FleetSimulation simulation = outcome.simulation();
+    TickConflict conflict = outcome.conflict();
+    if (conflict != null) {
+      throw conflict(conflict, matrix);
+    }
+    List<Drone> moved = new ArrayList<>(routes.size());
+    for (int i = 0; i < simulation.size(); i++) {
+      Drone drone = byId.get(simulation.id(i));
+      if (!routes.containsKey(drone.getId())) {
+        continue;
+      }
+      int fromX = drone.getX();
+      int fromY = drone.getY();
+      drone.setX(simulation.x(i));
+      drone.setY(simulation.y(i));
+      drone.setOrientation(simulation.orientation(i));
+      positions.hold(drone);
+      events.publishEvent(DroneEvent.flown(drone, fromX, fromY));
+      moved.add(drone);
+    }
+    return moved;
+  }
+
+  private record Outcome(FleetSimulation simulation, TickConflict conflict) {
+  }
+
+  /**
+   * Adds the cells other drones hold in the live grid away from their rows,
+   * such as the targets of their uncommitted flights, as drones that stay
+   * put. Call it on the matrix's actor.
+   */
+  private static void blockHeldCells(FleetSimulation.Builder builder, OccupancyGrid grid,
+      Map<Long, List<PlannedStep>> routes, Map<Long, Drone> byId) {
+    for (long cell : grid.occupiedCells()) {
+      int x = (int) (cell >>> 32);
+      int y = (int) cell;
+      long holder = grid.occupant(x, y);
+      Drone drone = byId.get(holder);
+      if (holder == OccupancyGrid.EMPTY || routes.containsKey(holder)
+          || drone != null && drone.getX() == x && drone.getY() == y) {
+        continue;
+      }
+      builder.planned(holder, x, y, Orientation.N, List.of());
+    }
+  }
+
+  private ConflictException conflict(TickConflict conflict, MatrixView matrix) {
+    return switch (conflict.kind()) {
+      case COLLISION -> new ConflictException(
+          "Collision detected between drone " + conflict.droneId()
+              + " and drone " + conflict.otherDroneId()
+              + " at position (" + conflict.x() + "," + conflict.y() + ") on tick " + conflict.tick());
+      case HEAD_ON -> new ConflictException(
+          "Head-on collision between drone " + conflict.droneId()
+              + " and drone " + conflict.otherDroneId()
+              + " swapping through position (" + conflict.x() + "," + conflict.y() + ") on tick "
+              + conflict.tick());
+      case OUT_OF_BOUNDS -> new ConflictException(
+          "Drone " + conflict.droneId() + " would exit matrix boundaries on tick " + conflict.tick() + ". "
+              + "New position: (" + conflict.x() + "," + conflict.y() + "), "
+              + "Matrix limits: (0-" + matrix.maxX() + ", 0-" + matrix.maxY() + ")");
+    };
+  }
+}
@@ -0,0 +1,108 @@
+package com.drones.fct.application;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.drones.fct.api.dto.SwarmPlanRequest;
+import com.drones.fct.api.exception.ConflictException;
+import com.drones.fct.api.exception.NotFoundException;
+import com.drones.fct.domain.flight.SwarmPlanner;
+import com.drones.fct.domain.model.Drone;
+import com.drones.fct.domain.model.Matrix;
+import com.drones.fct.domain.model.MatrixMode;
+import com.drones.fct.domain.repository.DroneRepository;
+import com.drones.fct.domain.repository.MatrixRepository;
+import com.drones.fct.domain.spatial.DenseOccupancyGrid;
+import com.drones.fct.domain.spatial.OccupancyGrid;
+
+/**
+ * Plans collision-free routes for several drones of a matrix at once. Routes
+ * are meant to be run together, one step per drone per tick, through
+ * {@link SimultaneousFlightService#executeRoutes}; drones of the matrix that
+ * are not part of the request are treated as fixed obstacles.
+ */
+@Service
+@Transactional(readOnly = true)
+public class SwarmPlanningService {
+
+  private final MatrixRepository matrixRepository;
+  private final DroneRepository droneRepository;
+  private final long budgetMillis;
+
+  public SwarmPlanningService(MatrixRepository matrixRepository, DroneRepository droneRepository,
+      @Value("${flights.planner.time-budget-ms:2000}") long budgetMillis) {
+    this.matrixRepository = matrixRepository;
+    this.droneRepository = droneRepository;
+    this.budgetMillis = budgetMillis;
+  }
+
+  public SwarmPlanner.Result plan(Long matrixId, List<SwarmPlanRequest.Goal> goals) {
+    Matrix matrix = matrixRepository.findById(matrixId)
+        .orElseThrow(() -> new NotFoundException("Matrix ID " + matrixId + " not found"));
+    if (matrix.getMode() == MatrixMode.SPARSE) {
+      throw new IllegalArgumentException(
+          "Route planning is only available for DENSE matrices; matrix " + matrixId + " is SPARSE.");
+    }
+
+    Map<Long, SwarmPlanRequest.Goal> goalByDrone = new HashMap<>();
+    Map<Long, Long> droneByGoalCell = new HashMap<>();
+    for (SwarmPlanRequest.Goal goal : goals) {
+      if (goal.getX() > matrix.getMaxX() || goal.getY() > matrix.getMaxY()) {
+        throw new IllegalArgumentException("Goal (" + goal.getX() + "," + goal.getY() + ") of drone "
+            + goal.getDroneId() + " is outside the matrix. "
+            + "Matrix limits: (0-" + matrix.getMaxX() + ", 0-" + matrix.getMaxY() + ")");
+      }
+      if (goalByDrone.put(goal.getDroneId(), goal) != null) {
+        throw new IllegalArgumentException("Drone " + goal.getDroneId() + " appears more than once.");
+      }
+      Long other = droneByGoalCell.put((long) goal.getY() * (matrix.getMaxX() + 1) + goal.getX(), goal.getDroneId());
+      if (other != null) {
+        throw new IllegalArgumentException("Drones " + other + " and " + goal.getDroneId()
+            + " have the same goal (" + goal.getX() + "," + goal.getY() + ")");
+      }
+    }
+
+    OccupancyGrid obstacles = new DenseOccupancyGrid(matrix.getMaxX(), matrix.getMaxY());
+    Map<Long, Drone> planned = new HashMap<>();
+    for (Drone drone : droneRepository.findByMatrixId(matrixId)) {
+      if (goalByDrone.containsKey(drone.getId())) {
+        planned.put(drone.getId(), drone);
+      } else {
+        obstacles.place(drone.getId(), drone.getX(), drone.getY());
+      }
+    }
+
+    Set<Long> checked = new HashSet<>();
+    List<SwarmPlanner.Agent> agents = new ArrayList<>(goals.size());
+    for (SwarmPlanRequest.Goal goal : goals) {
+      Drone drone = planned.get(goal.getDroneId());
+      if (drone == null || !checked.add(drone.getId())) {
+        throw new NotFoundException("Drone ID " + goal.getDroneId() + " not found in matrix " + matrixId);
+      }
+      long blocker = obstacles.occupant(goal.getX(), goal.getY());
+      if (blocker != OccupancyGrid.EMPTY) {
+        throw new ConflictException("Goal (" + goal.getX() + "," + goal.getY() + ") of drone " + drone.getId()
+            + " is occupied by drone " + blocker);
+      }
+      agents.add(new SwarmPlanner.Agent(drone.getId(), drone.getX(), drone.getY(), drone.getOrientation(),
+          goal.getX(), goal.getY()));
+    }
+
+    SwarmPlanner.Result result = new SwarmPlanner(obstacles, agents, TimeUnit.MILLISECONDS.toNanos(budgetMillis))
+        .plan();
+    if (!result.planned()) {
+      throw new ConflictException("No collision-free plan found for drone " + result.unplanned().get(0)
+          + " within " + budgetMillis + " ms");
+    }
+    return result;
+  }
+}
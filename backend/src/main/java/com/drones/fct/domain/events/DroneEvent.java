@@ -0,0 +1,51 @@
+package com.drones.fct.domain.events;
+
+import com.drones.fct.domain.model.Drone;
+import com.drones.fct.domain.model.Orientation;
+
+/**
+ * One committed change to a drone, carrying its state afterwards. Name and
+ * model are only set by {@link DroneEventType#CREATE} and
+ * {@link DroneEventType#UPDATE}; flights leave them null to keep the log
+ * compact.
+ */
+public record DroneEvent(DroneEventType type, long timestamp, long droneId, long matrixId, int x, int y,
+    Orientation orientation, String name, String model) {
+
+  public static DroneEvent created(Drone drone) {
+    return full(DroneEventType.CREATE, drone);
+  }
+
+  public static DroneEvent updated(Drone drone) {
+    return full(DroneEventType.UPDATE, drone);
+  }
+
+  public static DroneEvent deleted(Drone drone) {
+    return new DroneEvent(DroneEventType.DELETE, System.currentTimeMillis(), drone.getId(),
+        drone.getMatrix().getId(), drone.getX(), drone.getY(), drone.getOrientation(), null, null);
+  }
+
+  /** A flight that left the drone where it is now, having started at (fromX, fromY). */
+  public static DroneEvent flown(Drone drone, int fromX, int fromY) {
+    DroneEventType type = drone.getX() != fromX || drone.getY() != fromY ? DroneEventType.MOVE : DroneEventType.TURN;
+    return new DroneEvent(type, System.currentTimeMillis(), drone.getId(), drone.getMatrix().getId(),
+        drone.getX(), drone.getY(), drone.getOrientation(), null, null);
+  }
+
+  /**
+   * State after {@code next} is applied on top of this one; flights keep the
+   * name and model recorded earlier.
+   */
+  public DroneEvent then(DroneEvent next) {
+    if (next.name != null) {
+      return next;
+    }
+    return new DroneEvent(next.type, next.timestamp, next.droneId, next.matrixId, next.x, next.y,
+        next.orientation, name, model);
+  }
+
+  private static DroneEvent full(DroneEventType type, Drone drone) {
+    return new DroneEvent(type, System.currentTimeMillis(), drone.getId(), drone.getMatrix().getId(),
+        drone.getX(), drone.getY(), drone.getOrientation(), drone.getName(), drone.getModel());
+  }
+}
@@ -0,0 +1,12 @@
+package com.drones.fct.domain.events;
+
+/** Kinds of drone state change recorded in the event log. */
+public enum DroneEventType {
+  CREATE,
+  UPDATE,
+  DELETE,
+  /** A flight that changed the drone's cell, and possibly its orientation. */
+  MOVE,
+  /** A flight that only changed the drone's orientation. */
+  TURN
+}
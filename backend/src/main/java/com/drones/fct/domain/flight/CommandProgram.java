@@ -0,0 +1,193 @@
+package com.drones.fct.domain.flight;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.drones.fct.domain.model.MovementCommand;
+import com.drones.fct.domain.model.Orientation;
+import com.drones.fct.domain.spatial.OccupancyGrid;
+
+/**
+ * Compiled form of a movement command list. Consecutive turns are folded into
+ * a single net rotation (LLLL -> nothing, LLL -> R) and consecutive
+ * MOVE_FORWARDs become one straight segment, so executing a program costs one
+ * operation per segment instead of one per command.
+ *
+ * Segment {@code i} first rotates by {@link #turn(int)} quarter turns to the
+ * right and then advances {@link #steps(int)} cells. A trailing rotation is
+ * stored as a segment with zero steps.
+ */
+public final class CommandProgram {
+
+  private final byte[] turns;
+  private final int[] steps;
+  private final int[] sources;
+  private final int segmentCount;
+  private final int commandCount;
+
+  private CommandProgram(byte[] turns, int[] steps, int[] sources, int segmentCount, int commandCount) {
+    this.turns = turns;
+    this.steps = steps;
+    this.sources = sources;
+    this.segmentCount = segmentCount;
+    this.commandCount = commandCount;
+  }
+
+  public static CommandProgram compile(List<MovementCommand> commands) {
+    Builder builder = new Builder(commands.size());
+    for (MovementCommand command : commands) {
+      builder.append(command);
+    }
+    return builder.build();
+  }
+
+  public int segments() {
+    return segmentCount;
+  }
+
+  /** Net rotation applied before the segment, in quarter turns to the right (0-3). */
+  public int turn(int segment) {
+    return turns[segment];
+  }
+
+  public int steps(int segment) {
+    return steps[segment];
+  }
+
+  /**
+   * Index in the original command list of the first MOVE_FORWARD of the
+   * segment, so step {@code k} (1-based) of a segment maps back to command
+   * {@code source(segment) + k - 1}.
+   */
+  public int source(int segment) {
+    return sources[segment];
+  }
+
+  public int commandCount() {
+    return commandCount;
+  }
+
+  /**
+   * Runs the program against {@code grid}, which also provides the matrix
+   * bounds. Each segment costs one bounds check and one range scan. On failure
+   * the state is left on the last cell reached and the failing step is
+   * returned; otherwise returns null.
+   */
+  public FlightFailure run(FlightState state, OccupancyGrid grid) {
+    for (int segment = 0; segment < segmentCount; segment++) {
+      state.setOrientation(state.getOrientation().rotate(turns[segment]));
+      FlightFailure failure = advance(state, segment, grid);
+      if (failure != null) {
+        return failure;
+      }
+    }
+    return null;
+  }
+
+  private FlightFailure advance(FlightState state, int segment, OccupancyGrid grid) {
+    int length = steps[segment];
+    if (length == 0) {
+      return null;
+    }
+    int x = state.getX();
+    int y = state.getY();
+    Orientation orientation = state.getOrientation();
+    int dx = orientation.dx();
+    int dy = orientation.dy();
+
+    int reachable = switch (orientation) {
+      case N -> grid.getMaxY() - y;
+      case S -> y;
+      case E -> grid.getMaxX() - x;
+      case O -> x;
+    };
+    int inBounds = Math.max(0, Math.min(length, reachable));
+
+    int blocked = grid.distanceToBlocker(x, y, dx, dy, inBounds, state.getDroneId());
+    if (blocked > 0) {
+      int bx = x + dx * blocked;
+      int by = y + dy * blocked;
+      moveTo(state, x + dx * (blocked - 1), y + dy * (blocked - 1));
+      return new FlightFailure(FlightFailure.Kind.COLLISION, sources[segment] + blocked - 1, bx, by,
+          grid.occupant(bx, by));
+    }
+    if (length > inBounds) {
+      moveTo(state, x + dx * inBounds, y + dy * inBounds);
+      return new FlightFailure(FlightFailure.Kind.OUT_OF_BOUNDS, sources[segment] + inBounds,
+          x + dx * (inBounds + 1), y + dy * (inBounds + 1), OccupancyGrid.EMPTY);
+    }
+    moveTo(state, x + dx * length, y + dy * length);
+    return null;
+  }
+
+  private static void moveTo(FlightState state, int x, int y) {
+    state.setX(x);
+    state.setY(y);
+  }
+
+  public static final class Builder {
+
+    private byte[] turns;
+    private int[] steps;
+    private int[] sources;
+    private int segmentCount;
+    private int commandCount;
+    private int pendingTurn;
+    private boolean turnedSinceMove = true;
+
+    public Builder(int expectedCommands) {
+      int capacity = Math.max(4, Math.min(expectedCommands, 1024));
+      this.turns = new byte[capacity];
+      this.steps = new int[capacity];
+      this.sources = new int[capacity];
+    }
+
+    public Builder append(MovementCommand command) {
+      if (command == null) {
+        throw new IllegalArgumentException("Unsupported command: null");
+      }
+      switch (command) {
+        case TURN_LEFT -> turn(3);
+        case TURN_RIGHT -> turn(1);
+        case MOVE_FORWARD -> move();
+        default -> throw new IllegalArgumentException("Unsupported command: " + command);
+      }
+      commandCount++;
+      return this;
+    }
+
+    public CommandProgram build() {
+      if (pendingTurn != 0) {
+        addSegment(commandCount);
+        steps[segmentCount - 1] = 0;
+      }
+      return new CommandProgram(turns, steps, sources, segmentCount, commandCount);
+    }
+
+    private void turn(int quarterTurnsRight) {
+      pendingTurn = (pendingTurn + quarterTurnsRight) & 3;
+      turnedSinceMove = true;
+    }
+
+    private void move() {
+      if (turnedSinceMove) {
+        addSegment(commandCount);
+        turnedSinceMove = false;
+      }
+      steps[segmentCount - 1]++;
+    }
+
+    private void addSegment(int source) {
+      if (segmentCount == turns.length) {
+        int capacity = segmentCount * 2;
+        turns = Arrays.copyOf(turns, capacity);
+        steps = Arrays.copyOf(steps, capacity);
+        sources = Arrays.copyOf(sources, capacity);
+      }
+      turns[segmentCount] = (byte) pendingTurn;
+      sources[segmentCount] = source;
+      segmentCount++;
+      pendingTurn = 0;
+    }
+  }
+}
@@ -0,0 +1,290 @@
+package com.drones.fct.domain.flight;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.drones.fct.domain.model.MovementCommand;
+import com.drones.fct.domain.model.Orientation;
+import com.drones.fct.domain.spatial.LongLongHashMap;
+
+/**
+ * Moves every drone of a matrix in lockstep: on tick {@code t} each drone
+ * executes its {@code t}-th command, and drones without commands left stay
+ * where they are. State is kept as parallel primitive arrays so a tick over
+ * thousands of drones touches only a few cache lines per drone.
+ *
+ * A tick is rejected when a drone would leave the matrix, when two drones
+ * would end in the same cell (including moving into a drone that stays), or
+ * when two drones would swap cells head-on.
+ */
+public final class FleetSimulation {
+
+  private static final Orientation[] ORIENTATIONS = Orientation.values();
+  private static final PlannedStep[] STEPS = PlannedStep.values();
+  // Larger (sparse) matrices number only the cells drones visit, through a hash.
+  private static final long MAX_DIRECT_CELLS = 1 << 22;
+
+  private final int width;
+  private final int height;
+  private final int size;
+  private final long[] ids;
+  private final int[] x;
+  private final int[] y;
+  private final byte[] orientation;
+  private final int[] programStart;
+  private final int[] programLength;
+  private final byte[] program;
+
+  // packed (x, y) -> cell number + 1, or null when cells are numbered y * width + x
+  private final LongLongHashMap cellNumbers;
+  // cell -> drone index + 1 at the start of the current tick
+  private int[] at;
+  // cell -> tick + 1 of the last mover that claimed it, and who claimed it
+  private int[] claimedTick;
+  private int[] claimedBy;
+  // drone -> tick + 1 when it last moved, and where it was heading
+  private final int[] movingTick;
+  private final int[] targetX;
+  private final int[] targetY;
+
+  private int ticks;
+
+  private FleetSimulation(Builder builder) {
+    this.width = builder.maxX + 1;
+    this.height = builder.maxY + 1;
+    this.size = builder.size;
+    this.ids = Arrays.copyOf(builder.ids, size);
+    this.x = Arrays.copyOf(builder.x, size);
+    this.y = Arrays.copyOf(builder.y, size);
+    this.orientation = Arrays.copyOf(builder.orientation, size);
+    this.programStart = Arrays.copyOf(builder.programStart, size);
+    this.programLength = Arrays.copyOf(builder.programLength, size);
+    this.program = Arrays.copyOf(builder.program, builder.programSize);
+
+    long area = (long) width * height;
+    this.cellNumbers = area > MAX_DIRECT_CELLS ? new LongLongHashMap(size * 2) : null;
+    int cells = cellNumbers != null ? Math.max(16, size * 2) : (int) area;
+    this.at = new int[cells];
+    this.claimedTick = new int[cells];
+    this.claimedBy = new int[cells];
+    this.movingTick = new int[size];
+    this.targetX = new int[size];
+    this.targetY = new int[size];
+    for (int i = 0; i < size; i++) {
+      int cell = cell(x[i], y[i]);
+      if (at[cell] == 0) {
+        at[cell] = i + 1;
+      }
+    }
+  }
+
+  public static Builder builder(int maxX, int maxY) {
+    return new Builder(maxX, maxY);
+  }
+
+  /**
+   * Runs every tick. Returns null when all programs complete, otherwise the
+   * first conflict found; in that case the drones are left as they were at the
+   * start of the conflicting tick, except for turns already applied in it.
+   */
+  public TickConflict run() {
+    int longest = 0;
+    for (int i = 0; i < size; i++) {
+      longest = Math.max(longest, programLength[i]);
+    }
+    int[] active = new int[size];
+    int activeCount = 0;
+    for (int i = 0; i < size; i++) {
+      if (programLength[i] > 0) {
+        active[activeCount++] = i;
+      }
+    }
+    int[] movers = new int[size];
+
+    for (int tick = 0; tick < longest; tick++) {
+      int stamp = tick + 1;
+      int moverCount = 0;
+      int stillActive = 0;
+
+      for (int a = 0; a < activeCount; a++) {
+        int i = active[a];
+        if (tick + 1 < programLength[i]) {
+          active[stillActive++] = i;
+        }
+        switch (STEPS[program[programStart[i] + tick]]) {
+          case TURN_LEFT -> orientation[i] = (byte) ORIENTATIONS[orientation[i]].turnLeft().ordinal();
+          case TURN_RIGHT -> orientation[i] = (byte) ORIENTATIONS[orientation[i]].turnRight().ordinal();
+          case MOVE_FORWARD -> {
+            Orientation facing = ORIENTATIONS[orientation[i]];
+            int tx = x[i] + facing.dx();
+            int ty = y[i] + facing.dy();
+            if (tx < 0 || ty < 0 || tx >= width || ty >= height) {
+              ticks = tick;
+              return new TickConflict(TickConflict.Kind.OUT_OF_BOUNDS, tick, ids[i], 0L, tx, ty);
+            }
+            targetX[i] = tx;
+            targetY[i] = ty;
+            movingTick[i] = stamp;
+            movers[moverCount++] = i;
+          }
+          case WAIT -> {
+          }
+        }
+      }
+      activeCount = stillActive;
+
+      for (int m = 0; m < moverCount; m++) {
+        int i = movers[m];
+        int cell = cell(targetX[i], targetY[i]);
+        if (claimedTick[cell] == stamp) {
+          ticks = tick;
+          return new TickConflict(TickConflict.Kind.COLLISION, tick, ids[claimedBy[cell]], ids[i],
+              targetX[i], targetY[i]);
+        }
+        claimedTick[cell] = stamp;
+        claimedBy[cell] = i;
+      }
+
+      for (int m = 0; m < moverCount; m++) {
+        int i = movers[m];
+        int j = at[cell(targetX[i], targetY[i])] - 1;
+        if (j < 0 || j == i) {
+          continue;
+        }
+        if (movingTick[j] != stamp) {
+          ticks = tick;
+          return new TickConflict(TickConflict.Kind.COLLISION, tick, ids[i], ids[j], targetX[i], targetY[i]);
+        }
+        if (targetX[j] == x[i] && targetY[j] == y[i]) {
+          ticks = tick;
+          return new TickConflict(TickConflict.Kind.HEAD_ON, tick, ids[i], ids[j], targetX[i], targetY[i]);
+        }
+      }
+
+      for (int m = 0; m < moverCount; m++) {
+        int i = movers[m];
+        int cell = cell(x[i], y[i]);
+        if (at[cell] == i + 1) {
+          at[cell] = 0;
+        }
+      }
+      for (int m = 0; m < moverCount; m++) {
+        int i = movers[m];
+        x[i] = targetX[i];
+        y[i] = targetY[i];
+        at[cell(x[i], y[i])] = i + 1;
+      }
+    }
+    ticks = longest;
+    return null;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /** Number of ticks completed by the last {@link #run()}. */
+  public int ticks() {
+    return ticks;
+  }
+
+  public long id(int i) {
+    return ids[i];
+  }
+
+  public int x(int i) {
+    return x[i];
+  }
+
+  public int y(int i) {
+    return y[i];
+  }
+
+  public Orientation orientation(int i) {
+    return ORIENTATIONS[orientation[i]];
+  }
+
+  private int cell(int cx, int cy) {
+    if (cellNumbers == null) {
+      return cy * width + cx;
+    }
+    long key = ((long) cx << 32) | cy;
+    long number = cellNumbers.get(key);
+    if (number == 0) {
+      number = cellNumbers.size() + 1;
+      cellNumbers.put(key, number);
+      if (number > at.length) {
+        int capacity = at.length * 2;
+        at = Arrays.copyOf(at, capacity);
+        claimedTick = Arrays.copyOf(claimedTick, capacity);
+        claimedBy = Arrays.copyOf(claimedBy, capacity);
+      }
+    }
+    return (int) number - 1;
+  }
+
+  public static final class Builder {
+
+    private final int maxX;
+    private final int maxY;
+    private int size;
+    private long[] ids = new long[16];
+    private int[] x = new int[16];
+    private int[] y = new int[16];
+    private byte[] orientation = new byte[16];
+    private int[] programStart = new int[16];
+    private int[] programLength = new int[16];
+    private byte[] program = new byte[64];
+    private int programSize;
+
+    private Builder(int maxX, int maxY) {
+      this.maxX = maxX;
+      this.maxY = maxY;
+    }
+
+    /** Adds a drone; {@code commands} may be empty for drones that only occupy their cell. */
+    public Builder drone(long id, int droneX, int droneY, Orientation droneOrientation,
+        List<MovementCommand> commands) {
+      List<PlannedStep> steps = new ArrayList<>(commands.size());
+      for (MovementCommand command : commands) {
+        if (command == null) {
+          throw new IllegalArgumentException("Unsupported command: null");
+        }
+        steps.add(PlannedStep.of(command));
+      }
+      return planned(id, droneX, droneY, droneOrientation, steps);
+    }
+
+    /** Adds a drone that runs a planned route, waits included. */
+    public Builder planned(long id, int droneX, int droneY, Orientation droneOrientation, List<PlannedStep> steps) {
+      if (size == ids.length) {
+        int capacity = size * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        orientation = Arrays.copyOf(orientation, capacity);
+        programStart = Arrays.copyOf(programStart, capacity);
+        programLength = Arrays.copyOf(programLength, capacity);
+      }
+      if (programSize + steps.size() > program.length) {
+        program = Arrays.copyOf(program, Math.max(program.length * 2, programSize + steps.size()));
+      }
+      ids[size] = id;
+      x[size] = droneX;
+      y[size] = droneY;
+      orientation[size] = (byte) droneOrientation.ordinal();
+      programStart[size] = programSize;
+      programLength[size] = steps.size();
+      for (PlannedStep step : steps) {
+        program[programSize++] = (byte) step.ordinal();
+      }
+      size++;
+      return this;
+    }
+
+    public FleetSimulation build() {
+      return new FleetSimulation(this);
+    }
+  }
+}
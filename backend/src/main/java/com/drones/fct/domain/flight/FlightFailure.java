@@ -0,0 +1,13 @@
+package com.drones.fct.domain.flight;
+
+/**
+ * First step of a program that could not be executed. {@code commandIndex}
+ * points into the original command list and (x, y) is the offending cell.
+ */
+public record FlightFailure(Kind kind, int commandIndex, int x, int y, long blockerId) {
+
+  public enum Kind {
+    COLLISION,
+    OUT_OF_BOUNDS
+  }
+}
@@ -0,0 +1,33 @@
+package com.drones.fct.domain.flight;
+
+import com.drones.fct.domain.model.Drone;
+import com.drones.fct.domain.model.Orientation;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Detached, mutable position of a drone. Lets programs run off the request
+ * thread and against snapshots without touching managed entities.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class FlightState {
+
+  private final long droneId;
+  private int x;
+  private int y;
+  private Orientation orientation;
+
+  public static FlightState of(Drone drone) {
+    return new FlightState(drone.getId(), drone.getX(), drone.getY(), drone.getOrientation());
+  }
+
+  public void applyTo(Drone drone) {
+    drone.setX(x);
+    drone.setY(y);
+    drone.setOrientation(orientation);
+  }
+}
@@ -0,0 +1,104 @@
+package com.drones.fct.domain.flight;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.RandomAccess;
+
+import com.drones.fct.domain.model.MovementCommand;
+
+/**
+ * Movement commands stored two bits each, four to a byte, lowest bits first,
+ * as 0 (TURN_LEFT), 1 (TURN_RIGHT) or 2 (MOVE_FORWARD). The codes are part of
+ * the request format, so they are fixed here rather than taken from the
+ * {@link MovementCommand} ordinals. Decoded
+ * straight from the compact request forms, so a survey route of 10k commands
+ * is a 2.5 KB array instead of a list of enum names. It is also a read-only
+ * {@code List}, so code that takes a command list can use it unchanged.
+ */
+public final class PackedCommands extends AbstractList<MovementCommand> implements RandomAccess {
+
+  /** Command of each 2-bit code; code 3 is unused. */
+  private static final MovementCommand[] COMMANDS = {
+      MovementCommand.TURN_LEFT, MovementCommand.TURN_RIGHT, MovementCommand.MOVE_FORWARD };
+
+  private final byte[] packed;
+  private final int size;
+
+  private PackedCommands(byte[] packed, int size) {
+    this.packed = packed;
+    this.size = size;
+  }
+
+  /**
+   * Parses one letter per command: L (TURN_LEFT), R (TURN_RIGHT),
+   * M (MOVE_FORWARD).
+   */
+  public static PackedCommands parse(CharSequence text) {
+    int length = text.length();
+    byte[] packed = new byte[(length + 3) >>> 2];
+    for (int i = 0; i < length; i++) {
+      int code = switch (text.charAt(i)) {
+        case 'L' -> 0;
+        case 'R' -> 1;
+        case 'M' -> 2;
+        default -> throw new IllegalArgumentException(
+            "Unsupported command '" + text.charAt(i) + "' at position " + i + ". Use L, R or M.");
+      };
+      packed[i >>> 2] |= (byte) (code << ((i & 3) << 1));
+    }
+    return new PackedCommands(packed, length);
+  }
+
+  /** Decodes {@code count} commands from a base64 string of 2-bit codes. */
+  public static PackedCommands fromBase64(String base64, int count) {
+    byte[] packed;
+    try {
+      packed = Base64.getDecoder().decode(base64);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Packed commands are not valid base64: " + e.getMessage());
+    }
+    if (count < 0 || count > packed.length * 4L) {
+      throw new IllegalArgumentException(
+          "Packed command count " + count + " does not fit in " + packed.length + " bytes.");
+    }
+    PackedCommands commands = new PackedCommands(packed, count);
+    for (int i = 0; i < count; i++) {
+      if (commands.code(i) >= COMMANDS.length) {
+        throw new IllegalArgumentException("Unsupported packed command code " + commands.code(i)
+            + " at position " + i + ". Use 0 (L), 1 (R) or 2 (M).");
+      }
+    }
+    return commands;
+  }
+
+  public String toBase64() {
+    return Base64.getEncoder().encodeToString(Arrays.copyOf(packed, (size + 3) >>> 2));
+  }
+
+  @Override
+  public MovementCommand get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+    }
+    return COMMANDS[code(index)];
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /** Compiles straight from the packed codes, without going through the list. */
+  public CommandProgram compile() {
+    CommandProgram.Builder builder = new CommandProgram.Builder(size);
+    for (int i = 0; i < size; i++) {
+      builder.append(COMMANDS[code(i)]);
+    }
+    return builder.build();
+  }
+
+  private int code(int index) {
+    return (packed[index >>> 2] >>> ((index & 3) << 1)) & 3;
+  }
+}
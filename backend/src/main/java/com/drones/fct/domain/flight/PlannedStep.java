@@ -0,0 +1,23 @@
+package com.drones.fct.domain.flight;
+
+import com.drones.fct.domain.model.MovementCommand;
+
+/**
+ * One tick of a planned route: a movement command, or {@link #WAIT} to stay
+ * put while another drone passes. Waiting only makes sense when drones move
+ * in lockstep, so it is not a {@link MovementCommand} clients can send.
+ */
+public enum PlannedStep {
+  TURN_LEFT,
+  TURN_RIGHT,
+  MOVE_FORWARD,
+  WAIT;
+
+  public static PlannedStep of(MovementCommand command) {
+    return switch (command) {
+      case TURN_LEFT -> TURN_LEFT;
+      case TURN_RIGHT -> TURN_RIGHT;
+      case MOVE_FORWARD -> MOVE_FORWARD;
+    };
+  }
+}
@@ -0,0 +1,309 @@
+package com.drones.fct.domain.flight;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import com.drones.fct.domain.model.Orientation;
+import com.drones.fct.domain.spatial.DistanceField;
+import com.drones.fct.domain.spatial.LongHashSet;
+import com.drones.fct.domain.spatial.OccupancyGrid;
+import com.drones.fct.domain.spatial.ReservationTable;
+
+/**
+ * Prioritized planning for many drones of one matrix. Drones are planned one
+ * at a time with A* over (x, y, orientation, tick); each plan is written into
+ * a {@link ReservationTable} that later drones must respect, so the resulting
+ * routes never collide when run together by {@link FleetSimulation}.
+ * The heuristic is the exact turn-aware distance around the static drones
+ * from a {@link DistanceField}, which keeps the search close to the optimal
+ * path and only widens where drones have to wait or detour.
+ *
+ * Drones that cannot be planned are moved to the front of the priority order
+ * and the round is repeated until everything fits or the time budget runs out.
+ */
+public final class SwarmPlanner {
+
+  public record Agent(long droneId, int x, int y, Orientation orientation, int goalX, int goalY) {
+  }
+
+  /** {@code routes} follow the agent order; {@code unplanned} is empty on success. */
+  public record Result(List<List<PlannedStep>> routes, List<Long> unplanned, int ticks) {
+
+    public boolean planned() {
+      return unplanned.isEmpty();
+    }
+  }
+
+  private static final Orientation[] ORIENTATIONS = Orientation.values();
+  private static final int MAX_EXPANSIONS = 1 << 20;
+
+  private final OccupancyGrid obstacles;
+  private final List<Agent> agents;
+  private final long deadline;
+  private final DistanceField[] fields;
+  private final long[] blocked;
+
+  /**
+   * @param obstacles drones that are not being planned and stay where they are
+   * @param budgetNanos wall-clock budget for the whole run
+   */
+  public SwarmPlanner(OccupancyGrid obstacles, List<Agent> agents, long budgetNanos) {
+    this.obstacles = obstacles;
+    this.agents = agents;
+    this.deadline = System.nanoTime() + budgetNanos;
+    this.fields = new DistanceField[agents.size()];
+    this.blocked = obstacles.occupiedCells();
+  }
+
+  public Result plan() {
+    if (agents.isEmpty()) {
+      return new Result(List.of(), List.of(), 0);
+    }
+    Integer[] order = new Integer[agents.size()];
+    int[] estimate = new int[agents.size()];
+    for (int i = 0; i < agents.size(); i++) {
+      Agent agent = agents.get(i);
+      fields[i] = DistanceField.compute(obstacles, agent.goalX(), agent.goalY());
+      estimate[i] = fields[i].distance(agent.x(), agent.y(), agent.orientation());
+      if (estimate[i] == DistanceField.UNREACHABLE) {
+        return failed(List.of(agent.droneId()));
+      }
+      order[i] = i;
+    }
+    // Longest trips first: they have the fewest alternatives.
+    Arrays.sort(order, Comparator.comparingInt((Integer i) -> estimate[i]).reversed());
+    List<Integer> priority = new ArrayList<>(Arrays.asList(order));
+
+    int lastFailed = priority.get(0);
+    while (System.nanoTime() < deadline) {
+      ReservationTable table = table();
+      List<List<PlannedStep>> routes = new ArrayList<>(Collections.nCopies(agents.size(), null));
+      int failedAt = -1;
+      int ticks = 0;
+      for (int p = 0; p < priority.size(); p++) {
+        int i = priority.get(p);
+        List<PlannedStep> route = search(agents.get(i), fields[i], table);
+        if (route == null) {
+          failedAt = p;
+          break;
+        }
+        routes.set(i, route);
+        ticks = Math.max(ticks, route.size());
+      }
+      if (failedAt < 0) {
+        return new Result(routes, List.of(), ticks);
+      }
+      lastFailed = priority.get(failedAt);
+      if (failedAt == 0) {
+        break;
+      }
+      priority.add(0, priority.remove(failedAt));
+    }
+    return failed(List.of(agents.get(lastFailed).droneId()));
+  }
+
+  private Result failed(List<Long> unplanned) {
+    return new Result(List.of(), unplanned, 0);
+  }
+
+  private ReservationTable table() {
+    ReservationTable table = new ReservationTable(obstacles.getMaxX(), obstacles.getMaxY());
+    for (long cell : blocked) {
+      table.block(table.cell((int) (cell >>> 32), (int) cell));
+    }
+    return table;
+  }
+
+  /**
+   * A* from the agent's start at tick 0 to any tick at which its goal can be
+   * held for good. Every step takes one tick, so g is the tick itself and a
+   * (cell, orientation, tick) state is final once it is first reached. No
+   * route can park before the goal's last reservation has passed, so f never
+   * drops below that tick; otherwise the search would fill the whole space-time cone around the
+   * goal while waiting for the last drone to pass through.
+   */
+  private List<PlannedStep> search(Agent agent, DistanceField field, ReservationTable table) {
+    int goal = table.cell(agent.goalX(), agent.goalY());
+    int arrival = table.lastReserved(goal) + 1;
+    int horizon = Math.max(field.distance(agent.x(), agent.y(), agent.orientation()), arrival)
+        + 2 * (obstacles.getMaxX() + obstacles.getMaxY() + 2) + agents.size();
+
+    Nodes nodes = new Nodes();
+    LongHeap open = new LongHeap();
+    LongHashSet seen = new LongHashSet(1024);
+    int start = nodes.add(agent.x(), agent.y(), agent.orientation().ordinal(), 0, -1, null);
+    seen.add(key(table.cell(agent.x(), agent.y()), agent.orientation().ordinal(), 0));
+    open.push(priority(Math.max(field.distance(agent.x(), agent.y(), agent.orientation()), arrival), 0, start));
+
+    int expansions = 0;
+    while (!open.isEmpty()) {
+      int n = (int) (open.pop() & 0x3FFFFFF);
+      int x = nodes.x[n];
+      int y = nodes.y[n];
+      int o = nodes.o[n];
+      int t = nodes.t[n];
+      int cell = table.cell(x, y);
+      if (cell == goal && table.canPark(cell, t)) {
+        List<PlannedStep> route = nodes.route(n);
+        reserve(agent, route, table);
+        return route;
+      }
+      if (++expansions > MAX_EXPANSIONS || ((expansions & 1023) == 0 && System.nanoTime() > deadline)) {
+        return null;
+      }
+      if (t >= horizon) {
+        continue;
+      }
+
+      Orientation facing = ORIENTATIONS[o];
+      int next = t + 1;
+      if (table.isFree(cell, next)) {
+        expand(nodes, open, seen, field, arrival, table, n, x, y, facing, next, PlannedStep.WAIT);
+        expand(nodes, open, seen, field, arrival, table, n, x, y, facing.turnLeft(), next,
+            PlannedStep.TURN_LEFT);
+        expand(nodes, open, seen, field, arrival, table, n, x, y, facing.turnRight(), next,
+            PlannedStep.TURN_RIGHT);
+      }
+      int nx = x + facing.dx();
+      int ny = y + facing.dy();
+      if (table.contains(nx, ny)) {
+        int target = table.cell(nx, ny);
+        int back = facing.turnLeft().turnLeft().ordinal();
+        if (table.isFree(target, next) && !table.isMoveReserved(target, back, t)) {
+          expand(nodes, open, seen, field, arrival, table, n, nx, ny, facing, next, PlannedStep.MOVE_FORWARD);
+        }
+      }
+    }
+    return null;
+  }
+
+  private static void expand(Nodes nodes, LongHeap open, LongHashSet seen, DistanceField field, int arrival,
+      ReservationTable table, int parent, int x, int y, Orientation orientation, int t, PlannedStep action) {
+    int h = field.distance(x, y, orientation);
+    if (h == DistanceField.UNREACHABLE || !seen.add(key(table.cell(x, y), orientation.ordinal(), t))) {
+      return;
+    }
+    int n = nodes.add(x, y, orientation.ordinal(), t, parent, action);
+    open.push(priority(Math.max(t + h, arrival), t, n));
+  }
+
+  private static void reserve(Agent agent, List<PlannedStep> route, ReservationTable table) {
+    int x = agent.x();
+    int y = agent.y();
+    Orientation orientation = agent.orientation();
+    table.reserve(table.cell(x, y), 0);
+    for (int t = 0; t < route.size(); t++) {
+      switch (route.get(t)) {
+        case TURN_LEFT -> orientation = orientation.turnLeft();
+        case TURN_RIGHT -> orientation = orientation.turnRight();
+        case MOVE_FORWARD -> {
+          table.reserveMove(table.cell(x, y), orientation.ordinal(), t);
+          x += orientation.dx();
+          y += orientation.dy();
+        }
+        case WAIT -> {
+        }
+      }
+      table.reserve(table.cell(x, y), t + 1);
+    }
+    table.park(table.cell(x, y), route.size());
+  }
+
+  private static long key(int cell, int orientation, int t) {
+    return ((long) t << 34) | ((long) cell << 2) | orientation;
+  }
+
+  // Lowest f first; among equal f, the deepest node, which is closest to the goal.
+  private static long priority(int f, int t, int node) {
+    return ((long) f << 42) | ((long) (0xFFFF - Math.min(t, 0xFFFF)) << 26) | node;
+  }
+
+  private static final class Nodes {
+
+    private int[] x = new int[256];
+    private int[] y = new int[256];
+    private byte[] o = new byte[256];
+    private int[] t = new int[256];
+    private int[] parent = new int[256];
+    private PlannedStep[] action = new PlannedStep[256];
+    private int size;
+
+    private int add(int nx, int ny, int no, int nt, int nparent, PlannedStep naction) {
+      if (size == x.length) {
+        int capacity = size * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        o = Arrays.copyOf(o, capacity);
+        t = Arrays.copyOf(t, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        action = Arrays.copyOf(action, capacity);
+      }
+      x[size] = nx;
+      y[size] = ny;
+      o[size] = (byte) no;
+      t[size] = nt;
+      parent[size] = nparent;
+      action[size] = naction;
+      return size++;
+    }
+
+    private List<PlannedStep> route(int node) {
+      PlannedStep[] steps = new PlannedStep[t[node]];
+      for (int n = node; parent[n] >= 0; n = parent[n]) {
+        steps[t[n] - 1] = action[n];
+      }
+      return Arrays.asList(steps);
+    }
+  }
+
+  private static final class LongHeap {
+
+    private long[] heap = new long[256];
+    private int size;
+
+    private boolean isEmpty() {
+      return size == 0;
+    }
+
+    private void push(long value) {
+      if (size == heap.length) {
+        heap = Arrays.copyOf(heap, size * 2);
+      }
+      int i = size++;
+      while (i > 0) {
+        int up = (i - 1) >>> 1;
+        if (heap[up] <= value) {
+          break;
+        }
+        heap[i] = heap[up];
+        i = up;
+      }
+      heap[i] = value;
+    }
+
+    private long pop() {
+      long top = heap[0];
+      long last = heap[--size];
+      int i = 0;
+      while (true) {
+        int child = 2 * i + 1;
+        if (child >= size) {
+          break;
+        }
+        if (child + 1 < size && heap[child + 1] < heap[child]) {
+          child++;
+        }
+        if (heap[child] >= last) {
+          break;
+        }
+        heap[i] = heap[child];
+        i = child;
+      }
+      heap[i] = last;
+      return top;
+    }
+  }
+}
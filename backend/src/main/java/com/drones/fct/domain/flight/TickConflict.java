@@ -0,0 +1,15 @@
+package com.drones.fct.domain.flight;
+
+/**
+ * Why a {@link FleetSimulation} tick could not be applied. (x, y) is the cell
+ * {@code droneId} tried to enter; {@code otherDroneId} is 0 for
+ * OUT_OF_BOUNDS.
+ */
+public record TickConflict(Kind kind, int tick, long droneId, long otherDroneId, int x, int y) {
+
+  public enum Kind {
+    COLLISION,
+    HEAD_ON,
+    OUT_OF_BOUNDS
+  }
+}
@@ -8,9 +8,12 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -18,7 +21,10 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "drones")
+@Table(name = "drones", indexes = @Index(name = "idx_drones_matrix_position", columnList = "matrix_id, pos_x, pos_y"),
+    uniqueConstraints = {
+        @UniqueConstraint(name = Drone.UNIQUE_NAME, columnNames = { "matrix_id", "name" }),
+        @UniqueConstraint(name = Drone.UNIQUE_MODEL, columnNames = { "matrix_id", "model" }) })
 @Getter
 @Setter
 
@@ -28,6 +34,9 @@ import lombok.Setter;
 @Builder
 public class Drone {
 
+  public static final String UNIQUE_NAME = "uk_drones_matrix_name";
+  public static final String UNIQUE_MODEL = "uk_drones_matrix_model";
+
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
@@ -53,6 +62,10 @@ public class Drone {
   @JoinColumn(name = "matrix_id")
   private Matrix matrix;
 
+  @Version
+  @Column(nullable = false)
+  private long version;
+
   public void move(char command, Matrix matrix) {
     switch (command) {
       case 'L':
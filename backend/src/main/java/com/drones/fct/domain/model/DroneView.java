@@ -0,0 +1,8 @@
+package com.drones.fct.domain.model;
+
+/**
+ * Read-only copy of a drone's columns, selected straight from the drones
+ * table for listings that never modify what they read.
+ */
+public record DroneView(Long id, String name, String model, int x, int y, Orientation orientation, Long matrixId) {
+}
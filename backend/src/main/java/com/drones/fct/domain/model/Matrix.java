@@ -5,12 +5,15 @@ import java.util.List;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -37,13 +40,28 @@ public class Matrix {
   @Column(name = "max_y", nullable = false)
   private int maxY;
 
+  @Enumerated(EnumType.STRING)
+  @Column(name = "mode", length = 8)
+  @Builder.Default
+  private MatrixMode mode = MatrixMode.DENSE;
+
   @OneToMany(mappedBy = "matrix", fetch = FetchType.LAZY)
   @Builder.Default
   private List<Drone> drones = new ArrayList<>();
 
+  @Version
+  @Column(nullable = false)
+  private long version;
+
   public Matrix(int maxX, int maxY) {
     this.maxX = maxX;
     this.maxY = maxY;
+    this.mode = MatrixMode.DENSE;
+  }
+
+  /** Rows created before matrices had a mode are dense. */
+  public MatrixMode getMode() {
+    return mode != null ? mode : MatrixMode.DENSE;
   }
 
 }
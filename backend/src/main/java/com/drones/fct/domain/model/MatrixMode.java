@@ -0,0 +1,11 @@
+package com.drones.fct.domain.model;
+
+/**
+ * How a matrix keeps its occupancy in memory. DENSE allocates every cell and
+ * is limited to small matrices; SPARSE only stores occupied cells and allows
+ * matrices of up to a million cells per side.
+ */
+public enum MatrixMode {
+  DENSE,
+  SPARSE
+}
@@ -0,0 +1,28 @@
+package com.drones.fct.domain.model;
+
+import java.util.List;
+
+/**
+ * Read-only copy of a matrix's columns, optionally with its drones, for
+ * listings that never modify what they read. {@code drones} is null when
+ * they were not asked for.
+ */
+public record MatrixView(Long id, int maxX, int maxY, MatrixMode mode, List<DroneView> drones) {
+
+  public MatrixView {
+    // Rows created before matrices had a mode are dense.
+    mode = mode != null ? mode : MatrixMode.DENSE;
+  }
+
+  public MatrixView(Long id, int maxX, int maxY, MatrixMode mode) {
+    this(id, maxX, maxY, mode, null);
+  }
+
+  public static MatrixView of(Matrix matrix) {
+    return new MatrixView(matrix.getId(), matrix.getMaxX(), matrix.getMaxY(), matrix.getMode());
+  }
+
+  public MatrixView withDrones(List<DroneView> drones) {
+    return new MatrixView(id, maxX, maxY, mode, drones);
+  }
+}
@@ -20,4 +20,28 @@ public enum Orientation {
       case O -> N;
     };
   }
+
+  public Orientation rotate(int quarterTurnsRight) {
+    Orientation result = this;
+    for (int i = Math.floorMod(quarterTurnsRight, 4); i > 0; i--) {
+      result = result.turnRight();
+    }
+    return result;
+  }
+
+  public int dx() {
+    return switch (this) {
+      case E -> 1;
+      case O -> -1;
+      default -> 0;
+    };
+  }
+
+  public int dy() {
+    return switch (this) {
+      case N -> 1;
+      case S -> -1;
+      default -> 0;
+    };
+  }
 }
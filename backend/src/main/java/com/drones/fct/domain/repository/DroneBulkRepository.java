@@ -0,0 +1,15 @@
+package com.drones.fct.domain.repository;
+
+import java.util.List;
+
+import com.drones.fct.domain.model.Drone;
+
+/** Bulk writes that bypass the persistence context. */
+public interface DroneBulkRepository {
+
+  /**
+   * Inserts new drones with JDBC batches and sets the generated IDs on them.
+   * The drones are not managed afterwards.
+   */
+  List<Drone> insertAll(List<Drone> drones);
+}
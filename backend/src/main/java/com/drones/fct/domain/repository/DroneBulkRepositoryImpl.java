@@ -0,0 +1,60 @@
+package com.drones.fct.domain.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import org.hibernate.Session;
+
+import com.drones.fct.domain.model.Drone;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Hibernate cannot batch inserts into an IDENTITY column, since it needs each
+ * generated key before the next row. Plain JDBC can: every chunk goes out as
+ * one batch, which the driver rewrites into a multi-row INSERT, and the keys
+ * come back together. The batch runs on the session's connection, so a failure
+ * is read by Hibernate like any other write's, unique key included.
+ */
+@RequiredArgsConstructor
+class DroneBulkRepositoryImpl implements DroneBulkRepository {
+
+  private static final String INSERT =
+      "INSERT INTO drones (name, model, pos_x, pos_y, orientation, matrix_id, version) VALUES (?, ?, ?, ?, ?, ?, 0)";
+  private static final int CHUNK = 1_000;
+
+  private final EntityManager entityManager;
+
+  @Override
+  public List<Drone> insertAll(List<Drone> drones) {
+    return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+      try (PreparedStatement statement = connection.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+        for (int from = 0; from < drones.size(); from += CHUNK) {
+          List<Drone> chunk = drones.subList(from, Math.min(from + CHUNK, drones.size()));
+          for (Drone drone : chunk) {
+            statement.setString(1, drone.getName());
+            statement.setString(2, drone.getModel());
+            statement.setInt(3, drone.getX());
+            statement.setInt(4, drone.getY());
+            statement.setString(5, drone.getOrientation().name());
+            statement.setLong(6, drone.getMatrix().getId());
+            statement.addBatch();
+          }
+          statement.executeBatch();
+          try (ResultSet keys = statement.getGeneratedKeys()) {
+            for (Drone drone : chunk) {
+              if (!keys.next()) {
+                throw new IllegalStateException("Missing generated key for drone " + drone.getName());
+              }
+              drone.setId(keys.getLong(1));
+            }
+          }
+        }
+      }
+      return drones;
+    });
+  }
+}
@@ -1,21 +1,56 @@
 package com.drones.fct.domain.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import com.drones.fct.domain.model.Drone;
+import com.drones.fct.domain.model.DroneView;
+import com.drones.fct.domain.model.Orientation;
+
+import jakarta.persistence.QueryHint;
+
+public interface DroneRepository extends JpaRepository<Drone, Long>, DroneBulkRepository {
+  String SELECT_VIEW = "SELECT new com.drones.fct.domain.model.DroneView(d.id, d.name, d.model, d.x, d.y, "
+      + "d.orientation, d.matrix.id) FROM Drone d ";
+  String SELECT_VIEWS_AFTER = SELECT_VIEW + "WHERE d.id > :afterId "
+      + "AND (:matrixId IS NULL OR d.matrix.id = :matrixId) "
+      + "AND (:orientation IS NULL OR d.orientation = :orientation) ORDER BY d.id";
 
-public interface DroneRepository extends JpaRepository<Drone, Long> {
   List<Drone> findByXAndYAndMatrixId(int x, int y, Long matrixId);
 
   List<Drone> findByMatrixId(Long matrixId);
 
-  boolean existsByModelAndMatrixId(String model, Long matrixId);
-
-  @Query("SELECT CASE WHEN COUNT(d) > 0 THEN true ELSE false END FROM Drone d WHERE d.name = :name AND d.matrix.id = :matrixId")
-  boolean existsByNameAndMatrixId(@Param("name") String name, @Param("matrixId") Long matrixId);
+  @Query(SELECT_VIEW + "WHERE d.id = :id")
+  Optional<DroneView> findViewById(@Param("id") Long id);
+
+  @Query(SELECT_VIEW + "WHERE d.id IN :ids")
+  List<DroneView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+  @Query(SELECT_VIEW + "WHERE d.matrix.id IN :matrixIds ORDER BY d.id")
+  List<DroneView> findViewsByMatrixIdIn(@Param("matrixIds") Collection<Long> matrixIds);
+
+  /** Drones after {@code afterId} by ID; a null filter matches every drone. */
+  @Query(SELECT_VIEWS_AFTER)
+  List<DroneView> findViewsAfter(@Param("afterId") Long afterId, @Param("matrixId") Long matrixId,
+      @Param("orientation") Orientation orientation, Limit limit);
+
+  /**
+   * Same rows as {@link #findViewsAfter}, read one at a time as the stream is
+   * consumed: MySQL Connector/J streams a result set instead of buffering it
+   * when the fetch size is Integer.MIN_VALUE. Must be consumed and closed
+   * inside a transaction.
+   */
+  @Query(SELECT_VIEWS_AFTER)
+  @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "" + Integer.MIN_VALUE))
+  Stream<DroneView> streamViewsAfter(@Param("afterId") Long afterId, @Param("matrixId") Long matrixId,
+      @Param("orientation") Orientation orientation);
 
 }
\ No newline at end of file
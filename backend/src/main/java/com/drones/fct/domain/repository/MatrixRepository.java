@@ -1,11 +1,24 @@
 package com.drones.fct.domain.repository;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.drones.fct.domain.model.Matrix;
+import com.drones.fct.domain.model.MatrixView;
 
 public interface MatrixRepository extends JpaRepository<Matrix, Long> {
+  String SELECT_VIEW = "SELECT new com.drones.fct.domain.model.MatrixView(m.id, m.maxX, m.maxY, m.mode) FROM Matrix m ";
+
   List<Matrix> findByMaxXAndMaxY(int maxX, int maxY);
-}
\ No newline at end of file
+
+  @Query(SELECT_VIEW + "WHERE m.id = :id")
+  Optional<MatrixView> findViewById(@Param("id") Long id);
+
+  @Query(SELECT_VIEW + "WHERE m.id > :afterId ORDER BY m.id")
+  List<MatrixView> findViewsAfter(@Param("afterId") Long afterId, Limit limit);
+}
@@ -0,0 +1,168 @@
+package com.drones.fct.domain.spatial;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * One slot per cell, for matrices small enough to allocate in full. Per-row
+ * and per-column bitsets let straight-line path checks skip empty stretches a
+ * word at a time.
+ */
+public class DenseOccupancyGrid extends OccupancyGrid {
+
+  private final long[] cells;
+  private final BitSet[] rows;
+  private final BitSet[] columns;
+  private int occupied;
+
+  public DenseOccupancyGrid(int maxX, int maxY) {
+    super(maxX, maxY);
+    this.cells = new long[width * height];
+    this.rows = new BitSet[height];
+    this.columns = new BitSet[width];
+    for (int y = 0; y < height; y++) {
+      rows[y] = new BitSet(width);
+    }
+    for (int x = 0; x < width; x++) {
+      columns[x] = new BitSet(height);
+    }
+  }
+
+  private DenseOccupancyGrid(DenseOccupancyGrid source) {
+    super(source);
+    this.cells = source.cells.clone();
+    this.rows = new BitSet[height];
+    this.columns = new BitSet[width];
+    for (int y = 0; y < height; y++) {
+      rows[y] = (BitSet) source.rows[y].clone();
+    }
+    for (int x = 0; x < width; x++) {
+      columns[x] = (BitSet) source.columns[x].clone();
+    }
+    this.occupied = source.occupied;
+  }
+
+  @Override
+  public synchronized OccupancyGrid copy() {
+    return new DenseOccupancyGrid(this);
+  }
+
+  @Override
+  public synchronized int size() {
+    return occupied;
+  }
+
+  @Override
+  public synchronized long occupant(int x, int y) {
+    if (!contains(x, y)) {
+      return EMPTY;
+    }
+    return cells[index(x, y)];
+  }
+
+  @Override
+  public synchronized boolean place(long droneId, int x, int y) {
+    if (!contains(x, y)) {
+      return false;
+    }
+    int i = index(x, y);
+    if (cells[i] != EMPTY) {
+      return cells[i] == droneId;
+    }
+    cells[i] = droneId;
+    rows[y].set(x);
+    columns[x].set(y);
+    occupied++;
+    changed();
+    return true;
+  }
+
+  @Override
+  public synchronized void remove(long droneId, int x, int y) {
+    if (!contains(x, y)) {
+      return;
+    }
+    int i = index(x, y);
+    if (cells[i] == droneId) {
+      cells[i] = EMPTY;
+      rows[y].clear(x);
+      columns[x].clear(y);
+      occupied--;
+      changed();
+    }
+  }
+
+  @Override
+  public synchronized int distanceToBlocker(int x, int y, int dx, int dy, int steps, long selfId) {
+    if (steps <= 0 || (dx == 0 && dy == 0)) {
+      return 0;
+    }
+    BitSet line = dx != 0 ? rowOrNull(y) : columnOrNull(x);
+    if (line == null) {
+      return 0;
+    }
+    int start = dx != 0 ? x : y;
+    int direction = dx != 0 ? dx : dy;
+    for (int distance = 1; distance <= steps;) {
+      int from = start + direction * distance;
+      if (from < 0) {
+        return 0;
+      }
+      int hit = direction > 0 ? line.nextSetBit(Math.max(from, 0)) : line.previousSetBit(from);
+      if (hit < 0) {
+        return 0;
+      }
+      distance = Math.abs(hit - start);
+      if (distance > steps) {
+        return 0;
+      }
+      long current = dx != 0 ? cells[index(hit, y)] : cells[index(x, hit)];
+      if (current != selfId) {
+        return distance;
+      }
+      distance++;
+    }
+    return 0;
+  }
+
+  @Override
+  public synchronized long[] occupantsIn(int x1, int y1, int x2, int y2) {
+    int fromX = Math.max(x1, 0);
+    int toX = Math.min(x2, width - 1);
+    long[] found = new long[Math.min(occupied, 16)];
+    int count = 0;
+    for (int y = Math.max(y1, 0); y <= Math.min(y2, height - 1) && count < occupied; y++) {
+      for (int x = rows[y].nextSetBit(fromX); x >= 0 && x <= toX; x = rows[y].nextSetBit(x + 1)) {
+        if (count == found.length) {
+          found = Arrays.copyOf(found, Math.min(occupied, count * 2));
+        }
+        found[count++] = cells[index(x, y)];
+      }
+    }
+    return Arrays.copyOf(found, count);
+  }
+
+  @Override
+  public synchronized long[] occupiedCells() {
+    long[] found = new long[occupied];
+    int count = 0;
+    for (int y = 0; y < height && count < occupied; y++) {
+      for (int x = rows[y].nextSetBit(0); x >= 0 && count < found.length; x = rows[y].nextSetBit(x + 1)) {
+        found[count++] = ((long) x << 32) | y;
+      }
+    }
+    return found;
+  }
+
+  private BitSet rowOrNull(int y) {
+    return y >= 0 && y < height ? rows[y] : null;
+  }
+
+  private BitSet columnOrNull(int x) {
+    return x >= 0 && x < width ? columns[x] : null;
+  }
+
+  private int index(int x, int y) {
+    return y * width + x;
+  }
+}
@@ -0,0 +1,154 @@
+package com.drones.fct.domain.spatial;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import com.drones.fct.domain.model.MovementCommand;
+import com.drones.fct.domain.model.Orientation;
+
+/**
+ * Fewest commands from every (x, y, orientation) state of a matrix to one
+ * target cell, where turning and moving each cost one command and a move may
+ * only enter a free cell. Built by a backwards breadth-first search from the
+ * target, so one field answers routes for any drone and start position until
+ * the grid it was built from changes.
+ */
+public final class DistanceField {
+
+  public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+  private static final Orientation[] ORIENTATIONS = Orientation.values();
+
+  private final OccupancyGrid grid;
+  private final long version;
+  private final int width;
+  private final int height;
+  private final int targetX;
+  private final int targetY;
+  private final BitSet blocked;
+  private final int[] distance;
+
+  private DistanceField(OccupancyGrid grid, long version, int targetX, int targetY, BitSet blocked) {
+    this.grid = grid;
+    this.version = version;
+    this.width = grid.getMaxX() + 1;
+    this.height = grid.getMaxY() + 1;
+    this.targetX = targetX;
+    this.targetY = targetY;
+    this.blocked = blocked;
+    this.distance = new int[width * height * ORIENTATIONS.length];
+    Arrays.fill(distance, UNREACHABLE);
+  }
+
+  /**
+   * Builds the field for the current state of {@code grid}. Every occupied
+   * cell, including the target's, blocks moves into it; a drone already inside
+   * one can still turn and leave.
+   */
+  public static DistanceField compute(OccupancyGrid grid, int targetX, int targetY) {
+    if (!grid.contains(targetX, targetY)) {
+      throw new IllegalArgumentException("Target (" + targetX + "," + targetY + ") is outside the matrix");
+    }
+    DistanceField field;
+    synchronized (grid) {
+      int width = grid.getMaxX() + 1;
+      int height = grid.getMaxY() + 1;
+      BitSet blocked = new BitSet(width * height);
+      for (int y = 0; y < height; y++) {
+        for (int x = 0; x < width; x++) {
+          if (grid.occupant(x, y) != OccupancyGrid.EMPTY) {
+            blocked.set(y * width + x);
+          }
+        }
+      }
+      field = new DistanceField(grid, grid.version(), targetX, targetY, blocked);
+    }
+    field.search();
+    return field;
+  }
+
+  private void search() {
+    int[] queue = new int[distance.length];
+    int head = 0;
+    int tail = 0;
+    for (int o = 0; o < ORIENTATIONS.length; o++) {
+      int state = state(targetX, targetY, o);
+      distance[state] = 0;
+      queue[tail++] = state;
+    }
+    while (head < tail) {
+      int state = queue[head++];
+      int next = distance[state] + 1;
+      int o = state % ORIENTATIONS.length;
+      int cell = state / ORIENTATIONS.length;
+      int x = cell % width;
+      int y = cell / width;
+      Orientation orientation = ORIENTATIONS[o];
+
+      // A turn in place leads here from the neighbouring orientations.
+      tail = relax(state(x, y, orientation.turnRight().ordinal()), next, queue, tail);
+      tail = relax(state(x, y, orientation.turnLeft().ordinal()), next, queue, tail);
+
+      // A forward move leads here from the cell behind, but only into a free cell.
+      if (!blocked.get(cell)) {
+        int px = x - orientation.dx();
+        int py = y - orientation.dy();
+        if (px >= 0 && py >= 0 && px < width && py < height) {
+          tail = relax(state(px, py, o), next, queue, tail);
+        }
+      }
+    }
+  }
+
+  private int relax(int state, int value, int[] queue, int tail) {
+    if (distance[state] == UNREACHABLE) {
+      distance[state] = value;
+      queue[tail++] = state;
+    }
+    return tail;
+  }
+
+  /** True while the grid has not changed since this field was built. */
+  public boolean isCurrentFor(OccupancyGrid current) {
+    return current == grid && current.version() == version;
+  }
+
+  public int distance(int x, int y, Orientation orientation) {
+    if (x < 0 || y < 0 || x >= width || y >= height) {
+      return UNREACHABLE;
+    }
+    return distance[state(x, y, orientation.ordinal())];
+  }
+
+  /** Shortest command list from the given state, or null if the target cannot be reached. */
+  public List<MovementCommand> route(int x, int y, Orientation orientation) {
+    int remaining = distance(x, y, orientation);
+    if (remaining == UNREACHABLE) {
+      return null;
+    }
+    List<MovementCommand> commands = new ArrayList<>(remaining);
+    while (remaining > 0) {
+      int nx = x + orientation.dx();
+      int ny = y + orientation.dy();
+      if (distance(nx, ny, orientation) == remaining - 1 && !blocked.get(ny * width + nx)) {
+        commands.add(MovementCommand.MOVE_FORWARD);
+        x = nx;
+        y = ny;
+      } else if (distance(x, y, orientation.turnLeft()) == remaining - 1) {
+        commands.add(MovementCommand.TURN_LEFT);
+        orientation = orientation.turnLeft();
+      } else {
+        commands.add(MovementCommand.TURN_RIGHT);
+        orientation = orientation.turnRight();
+      }
+      remaining--;
+    }
+    return commands;
+  }
+
+  private int state(int x, int y, int orientation) {
+    return (y * width + x) * ORIENTATIONS.length + orientation;
+  }
+}
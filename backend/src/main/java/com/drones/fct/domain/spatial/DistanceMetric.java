@@ -0,0 +1,43 @@
+package com.drones.fct.domain.spatial;
+
+import com.drones.fct.domain.model.Orientation;
+
+/**
+ * How far a drone is from a cell. {@link #MANHATTAN} counts cells;
+ * {@link #TRAVEL} counts the commands of the shortest obstacle-free route, so
+ * it adds the turns needed to face the cell, which is never more than two.
+ */
+public enum DistanceMetric {
+  MANHATTAN,
+  TRAVEL;
+
+  private static final int MAX_TURNS = 2;
+
+  public int cost(int fromX, int fromY, Orientation facing, int toX, int toY) {
+    int distance = Math.abs(toX - fromX) + Math.abs(toY - fromY);
+    return this == TRAVEL ? distance + turns(fromX, fromY, facing, toX, toY) : distance;
+  }
+
+  /** How many rings beyond the Manhattan radius can still hold a closer drone. */
+  public int slack() {
+    return this == TRAVEL ? MAX_TURNS : 0;
+  }
+
+  private static int turns(int fromX, int fromY, Orientation facing, int toX, int toY) {
+    int dx = Integer.signum(toX - fromX);
+    int dy = Integer.signum(toY - fromY);
+    if (dx == 0 && dy == 0) {
+      return 0;
+    }
+    boolean facesX = dx != 0 && facing.dx() == dx;
+    boolean facesY = dy != 0 && facing.dy() == dy;
+    boolean backwards = facing.dx() == -dx && dx != 0 || facing.dy() == -dy && dy != 0;
+    if (dx != 0 && dy != 0) {
+      return facesX || facesY ? 1 : 2;
+    }
+    if (facesX || facesY) {
+      return 0;
+    }
+    return backwards ? 2 : 1;
+  }
+}
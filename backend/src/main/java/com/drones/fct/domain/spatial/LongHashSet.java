@@ -0,0 +1,81 @@
+package com.drones.fct.domain.spatial;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing set of non-negative longs with linear probing. Avoids a
+ * boxed {@code Long} per entry for the millions of keys a planning run can
+ * produce.
+ */
+public final class LongHashSet {
+
+  private static final long FREE = -1L;
+
+  private long[] slots;
+  private int size;
+
+  public LongHashSet(int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(8, expectedSize * 2 - 1)) << 1;
+    this.slots = new long[capacity];
+    Arrays.fill(slots, FREE);
+  }
+
+  /** Adds {@code key}; returns false if it was already present. */
+  public boolean add(long key) {
+    if (key < 0) {
+      throw new IllegalArgumentException("Negative key: " + key);
+    }
+    if ((size + 1) * 2 > slots.length) {
+      grow();
+    }
+    int mask = slots.length - 1;
+    for (int i = mix(key) & mask;; i = (i + 1) & mask) {
+      if (slots[i] == FREE) {
+        slots[i] = key;
+        size++;
+        return true;
+      }
+      if (slots[i] == key) {
+        return false;
+      }
+    }
+  }
+
+  public boolean contains(long key) {
+    int mask = slots.length - 1;
+    for (int i = mix(key) & mask;; i = (i + 1) & mask) {
+      if (slots[i] == FREE) {
+        return false;
+      }
+      if (slots[i] == key) {
+        return true;
+      }
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public void clear() {
+    Arrays.fill(slots, FREE);
+    size = 0;
+  }
+
+  private void grow() {
+    long[] old = slots;
+    slots = new long[old.length * 2];
+    Arrays.fill(slots, FREE);
+    size = 0;
+    for (long key : old) {
+      if (key != FREE) {
+        add(key);
+      }
+    }
+  }
+
+  private static int mix(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+}
@@ -0,0 +1,134 @@
+package com.drones.fct.domain.spatial;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from non-negative long keys to long values, with linear
+ * probing and backward-shift deletion so removals leave no tombstones. A
+ * missing key reads as 0, which callers use as "no value".
+ */
+public final class LongLongHashMap {
+
+  private static final long FREE = -1L;
+
+  /** Receives the entries of {@link #forEach(EntryConsumer)}. */
+  @FunctionalInterface
+  public interface EntryConsumer {
+    void accept(long key, long value);
+  }
+
+  private long[] keys;
+  private long[] values;
+  private int size;
+
+  public LongLongHashMap(int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(8, expectedSize * 2 - 1)) << 1;
+    this.keys = new long[capacity];
+    this.values = new long[capacity];
+    Arrays.fill(keys, FREE);
+  }
+
+  private LongLongHashMap(LongLongHashMap source) {
+    this.keys = source.keys.clone();
+    this.values = source.values.clone();
+    this.size = source.size;
+  }
+
+  public LongLongHashMap copy() {
+    return new LongLongHashMap(this);
+  }
+
+  public long get(long key) {
+    int mask = keys.length - 1;
+    for (int i = mix(key) & mask;; i = (i + 1) & mask) {
+      if (keys[i] == FREE) {
+        return 0L;
+      }
+      if (keys[i] == key) {
+        return values[i];
+      }
+    }
+  }
+
+  /** Stores {@code value} under {@code key}; returns the previous value, or 0. */
+  public long put(long key, long value) {
+    if (key < 0) {
+      throw new IllegalArgumentException("Negative key: " + key);
+    }
+    if ((size + 1) * 2 > keys.length) {
+      grow();
+    }
+    int mask = keys.length - 1;
+    for (int i = mix(key) & mask;; i = (i + 1) & mask) {
+      if (keys[i] == FREE) {
+        keys[i] = key;
+        values[i] = value;
+        size++;
+        return 0L;
+      }
+      if (keys[i] == key) {
+        long previous = values[i];
+        values[i] = value;
+        return previous;
+      }
+    }
+  }
+
+  /** Removes {@code key}; returns its value, or 0 if it was not present. */
+  public long remove(long key) {
+    int mask = keys.length - 1;
+    int i = mix(key) & mask;
+    while (keys[i] != key) {
+      if (keys[i] == FREE) {
+        return 0L;
+      }
+      i = (i + 1) & mask;
+    }
+    long removed = values[i];
+    // Pull later entries of the probe run back into the hole.
+    for (int j = (i + 1) & mask; keys[j] != FREE; j = (j + 1) & mask) {
+      int home = mix(keys[j]) & mask;
+      boolean between = i <= j ? i < home && home <= j : i < home || home <= j;
+      if (!between) {
+        keys[i] = keys[j];
+        values[i] = values[j];
+        i = j;
+      }
+    }
+    keys[i] = FREE;
+    values[i] = 0L;
+    size--;
+    return removed;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public void forEach(EntryConsumer consumer) {
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != FREE) {
+        consumer.accept(keys[i], values[i]);
+      }
+    }
+  }
+
+  private void grow() {
+    long[] oldKeys = keys;
+    long[] oldValues = values;
+    keys = new long[oldKeys.length * 2];
+    values = new long[oldValues.length * 2];
+    Arrays.fill(keys, FREE);
+    size = 0;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != FREE) {
+        put(oldKeys[i], oldValues[i]);
+      }
+    }
+  }
+
+  private static int mix(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+}
@@ -0,0 +1,154 @@
+package com.drones.fct.domain.spatial;
+
+import java.util.Arrays;
+
+import com.drones.fct.domain.model.MatrixMode;
+
+/**
+ * Cell -> drone ID map for a single matrix. Coordinates are inclusive, so a
+ * matrix with maxX = 10 has 11 columns. A value of {@link #EMPTY} means the
+ * cell is free. {@link DenseOccupancyGrid} keeps a slot per cell;
+ * {@link SparseOccupancyGrid} keeps an entry per drone, so very large and
+ * mostly empty matrices cost memory in proportion to their drones.
+ * {@link OverlayOccupancyGrid} stacks private changes on top of another grid.
+ */
+public abstract class OccupancyGrid {
+
+  public static final long EMPTY = 0L;
+
+  protected final int width;
+  protected final int height;
+  private long version;
+
+  protected OccupancyGrid(int maxX, int maxY) {
+    this.width = maxX + 1;
+    this.height = maxY + 1;
+  }
+
+  protected OccupancyGrid(OccupancyGrid source) {
+    this.width = source.width;
+    this.height = source.height;
+    this.version = source.version;
+  }
+
+  public static OccupancyGrid create(int maxX, int maxY, MatrixMode mode) {
+    return mode == MatrixMode.SPARSE ? new SparseOccupancyGrid(maxX, maxY) : new DenseOccupancyGrid(maxX, maxY);
+  }
+
+  /** Independent copy, used to run plans against a snapshot. */
+  public abstract OccupancyGrid copy();
+
+  public int getMaxX() {
+    return width - 1;
+  }
+
+  public int getMaxY() {
+    return height - 1;
+  }
+
+  public boolean contains(int x, int y) {
+    return x >= 0 && x < width && y >= 0 && y < height;
+  }
+
+  public abstract int size();
+
+  /** Incremented on every change, so derived data can tell when it is stale. */
+  public synchronized long version() {
+    return version;
+  }
+
+  public abstract long occupant(int x, int y);
+
+  public synchronized boolean isFree(int x, int y, long selfId) {
+    long current = occupant(x, y);
+    return current == EMPTY || current == selfId;
+  }
+
+  /** Puts the drone in a free cell; true if it is there afterwards. */
+  public abstract boolean place(long droneId, int x, int y);
+
+  /** Frees the cell if the drone holds it. */
+  public abstract void remove(long droneId, int x, int y);
+
+  /**
+   * Moves the drone if the target is free or already its own. Otherwise
+   * returns false and leaves the drone where it was.
+   */
+  public synchronized boolean move(long droneId, int fromX, int fromY, int toX, int toY) {
+    if (fromX == toX && fromY == toY) {
+      return true;
+    }
+    if (!place(droneId, toX, toY)) {
+      return false;
+    }
+    remove(droneId, fromX, fromY);
+    return true;
+  }
+
+  /**
+   * Walks at most {@code steps} cells from (x, y) along the unit direction
+   * (dx, dy), excluding the start cell, and returns how many steps it takes to
+   * reach the first cell held by a drone other than {@code selfId}, or 0 if the
+   * path is clear. Cells outside the grid are treated as free.
+   */
+  public abstract int distanceToBlocker(int x, int y, int dx, int dy, int steps, long selfId);
+
+  /**
+   * IDs of the drones inside the inclusive rectangle (x1, y1)-(x2, y2), in no
+   * particular order. The rectangle is clipped to the grid.
+   */
+  public abstract long[] occupantsIn(int x1, int y1, int x2, int y2);
+
+  /**
+   * Every occupied cell packed as {@code (long) x << 32 | y}, in no particular
+   * order, found without visiting the free cells.
+   */
+  public abstract long[] occupiedCells();
+
+  /**
+   * IDs of the drones nearest (x, y) by Manhattan distance, in order of
+   * distance: every drone up to the distance of the {@code count}-th nearest,
+   * plus every drone up to {@code slack} cells farther than that.
+   */
+  public synchronized long[] nearest(int x, int y, int count, int slack) {
+    return nearestByRings(x, y, count, slack, Long.MAX_VALUE);
+  }
+
+  /**
+   * Walks rings of growing Manhattan radius around (x, y). Returns null once
+   * more than {@code budget} cells have been probed.
+   */
+  protected long[] nearestByRings(int x, int y, int count, int slack, long budget) {
+    int total = size();
+    long[] found = new long[Math.min(total, count * 4)];
+    int size = 0;
+    int lastRing = Math.max(x, width - 1 - x) + Math.max(y, height - 1 - y);
+    long probes = 0;
+    for (int ring = 0; ring <= lastRing && size < total; ring++) {
+      for (int dy = -ring; dy <= ring; dy++) {
+        int rest = ring - Math.abs(dy);
+        for (int dx = -rest; dx <= rest; dx += Math.max(1, 2 * rest)) {
+          if (++probes > budget) {
+            return null;
+          }
+          long droneId = occupant(x + dx, y + dy);
+          if (droneId != EMPTY) {
+            if (size == found.length) {
+              found = Arrays.copyOf(found, Math.min(total, size * 2));
+            }
+            found[size++] = droneId;
+          }
+        }
+      }
+      if (size >= count) {
+        lastRing = Math.min(lastRing, ring + slack);
+      }
+    }
+    return Arrays.copyOf(found, size);
+  }
+
+  /** Called by implementations, holding the grid's lock, after every change. */
+  protected void changed() {
+    version++;
+  }
+}
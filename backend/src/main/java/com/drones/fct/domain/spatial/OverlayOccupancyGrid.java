@@ -0,0 +1,163 @@
+package com.drones.fct.domain.spatial;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A grid that reads through to another one and keeps its own changes to
+ * itself, so a plan can run against what looks like a private snapshot while
+ * only the cells it changes are stored. The underlying grid is read live.
+ */
+public class OverlayOccupancyGrid extends OccupancyGrid {
+
+  private final OccupancyGrid base;
+  private final Map<Long, Long> changes = new HashMap<>();
+  private int sizeDelta;
+
+  public OverlayOccupancyGrid(OccupancyGrid base) {
+    super(base.getMaxX(), base.getMaxY());
+    this.base = base;
+  }
+
+  @Override
+  public synchronized OccupancyGrid copy() {
+    OccupancyGrid copy = base.copy();
+    changes.forEach((key, droneId) -> {
+      int x = (int) (key >>> 32);
+      int y = (int) (long) key;
+      copy.remove(copy.occupant(x, y), x, y);
+      if (droneId != EMPTY) {
+        copy.place(droneId, x, y);
+      }
+    });
+    return copy;
+  }
+
+  @Override
+  public synchronized int size() {
+    return base.size() + sizeDelta;
+  }
+
+  @Override
+  public synchronized long occupant(int x, int y) {
+    if (!contains(x, y)) {
+      return EMPTY;
+    }
+    Long changed = changes.get(key(x, y));
+    return changed != null ? changed : base.occupant(x, y);
+  }
+
+  @Override
+  public synchronized boolean place(long droneId, int x, int y) {
+    if (!contains(x, y)) {
+      return false;
+    }
+    long current = occupant(x, y);
+    if (current != EMPTY) {
+      return current == droneId;
+    }
+    changes.put(key(x, y), droneId);
+    sizeDelta++;
+    changed();
+    return true;
+  }
+
+  @Override
+  public synchronized void remove(long droneId, int x, int y) {
+    if (droneId != EMPTY && contains(x, y) && occupant(x, y) == droneId) {
+      changes.put(key(x, y), EMPTY);
+      sizeDelta--;
+      changed();
+    }
+  }
+
+  @Override
+  public synchronized int distanceToBlocker(int x, int y, int dx, int dy, int steps, long selfId) {
+    if (steps <= 0 || (dx == 0 && dy == 0)) {
+      return 0;
+    }
+    int nearest = 0;
+    for (Map.Entry<Long, Long> change : changes.entrySet()) {
+      long droneId = change.getValue();
+      int distance = distanceAlong(x, y, dx, dy, change.getKey());
+      if (droneId != EMPTY && droneId != selfId && distance > 0 && distance <= steps
+          && (nearest == 0 || distance < nearest)) {
+        nearest = distance;
+      }
+    }
+    // Blockers of the underlying grid count unless this grid changed their cell,
+    // whose content was already checked above.
+    int limit = nearest != 0 ? nearest - 1 : steps;
+    for (int walked = 0; walked < limit;) {
+      int distance = base.distanceToBlocker(x + dx * walked, y + dy * walked, dx, dy, limit - walked, selfId);
+      if (distance == 0) {
+        break;
+      }
+      walked += distance;
+      if (!changes.containsKey(key(x + dx * walked, y + dy * walked))) {
+        return walked;
+      }
+    }
+    return nearest;
+  }
+
+  @Override
+  public synchronized long[] occupantsIn(int x1, int y1, int x2, int y2) {
+    long[] found = base.occupantsIn(x1, y1, x2, y2);
+    int size = found.length;
+    for (Map.Entry<Long, Long> change : changes.entrySet()) {
+      int x = (int) (change.getKey() >>> 32);
+      int y = (int) (long) change.getKey();
+      if (x < x1 || x > x2 || y < y1 || y > y2) {
+        continue;
+      }
+      long previous = base.occupant(x, y);
+      for (int i = 0; previous != EMPTY && i < size; i++) {
+        if (found[i] == previous) {
+          found[i] = found[--size];
+          break;
+        }
+      }
+      if (change.getValue() != EMPTY) {
+        if (size == found.length) {
+          found = Arrays.copyOf(found, size + 8);
+        }
+        found[size++] = change.getValue();
+      }
+    }
+    return Arrays.copyOf(found, size);
+  }
+
+  @Override
+  public synchronized long[] occupiedCells() {
+    long[] found = base.occupiedCells();
+    int size = 0;
+    for (long key : found) {
+      if (!changes.containsKey(key)) {
+        found[size++] = key;
+      }
+    }
+    found = Arrays.copyOf(found, size + changes.size());
+    for (Map.Entry<Long, Long> change : changes.entrySet()) {
+      if (change.getValue() != EMPTY) {
+        found[size++] = change.getKey();
+      }
+    }
+    return Arrays.copyOf(found, size);
+  }
+
+  /** Steps from (x, y) along (dx, dy) to the packed cell, or 0 if it is not ahead on that line. */
+  private static int distanceAlong(int x, int y, int dx, int dy, long key) {
+    int cellX = (int) (key >>> 32);
+    int cellY = (int) key;
+    if (dx != 0) {
+      return cellY == y && (cellX - x) * dx > 0 ? (cellX - x) * dx : 0;
+    }
+    return cellX == x && (cellY - y) * dy > 0 ? (cellY - y) * dy : 0;
+  }
+
+  private static long key(int x, int y) {
+    return ((long) x << 32) | y;
+  }
+}
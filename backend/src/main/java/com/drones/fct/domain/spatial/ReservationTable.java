@@ -0,0 +1,89 @@
+package com.drones.fct.domain.spatial;
+
+import java.util.Arrays;
+
+/**
+ * Space-time occupancy for planning drones that move in lockstep ticks. Time
+ * {@code t} is the state before tick {@code t}; a move during tick {@code t}
+ * goes from the cell held at {@code t} to the cell held at {@code t + 1}.
+ *
+ * Cells can be reserved at single instants, parked from an instant on (a
+ * drone that has finished its commands stays there), or blocked for good (a
+ * drone that is not being planned). Moves are reserved per tick and direction
+ * so two drones never swap cells head-on.
+ */
+public final class ReservationTable {
+
+  private static final int NEVER = Integer.MAX_VALUE;
+
+  private final int width;
+  private final int height;
+  private final LongHashSet cells;
+  private final LongHashSet moves;
+  private final int[] parkedFrom;
+  private final int[] lastReserved;
+
+  public ReservationTable(int maxX, int maxY) {
+    this.width = maxX + 1;
+    this.height = maxY + 1;
+    this.cells = new LongHashSet(1024);
+    this.moves = new LongHashSet(1024);
+    this.parkedFrom = new int[width * height];
+    this.lastReserved = new int[width * height];
+    Arrays.fill(parkedFrom, NEVER);
+    Arrays.fill(lastReserved, -1);
+  }
+
+  public int cell(int x, int y) {
+    return y * width + x;
+  }
+
+  public boolean contains(int x, int y) {
+    return x >= 0 && y >= 0 && x < width && y < height;
+  }
+
+  public void block(int cell) {
+    parkedFrom[cell] = 0;
+  }
+
+  public void reserve(int cell, int t) {
+    cells.add(vertex(cell, t));
+    lastReserved[cell] = Math.max(lastReserved[cell], t);
+  }
+
+  /** Reserves a move out of {@code cell} in {@code direction} (an orientation ordinal) during tick {@code t}. */
+  public void reserveMove(int cell, int direction, int t) {
+    moves.add(edge(cell, direction, t));
+  }
+
+  public void park(int cell, int from) {
+    parkedFrom[cell] = Math.min(parkedFrom[cell], from);
+    lastReserved[cell] = Math.max(lastReserved[cell], from);
+  }
+
+  public boolean isFree(int cell, int t) {
+    return parkedFrom[cell] > t && !cells.contains(vertex(cell, t));
+  }
+
+  public boolean isMoveReserved(int cell, int direction, int t) {
+    return moves.contains(edge(cell, direction, t));
+  }
+
+  /** True if a drone arriving at {@code t} can stay in {@code cell} for good. */
+  public boolean canPark(int cell, int t) {
+    return parkedFrom[cell] == NEVER && lastReserved[cell] <= t;
+  }
+
+  /** Last instant a drone holds {@code cell}, or -1; a drone parking there has to arrive later. */
+  public int lastReserved(int cell) {
+    return lastReserved[cell];
+  }
+
+  private static long vertex(int cell, int t) {
+    return ((long) t << 32) | cell;
+  }
+
+  private static long edge(int cell, int direction, int t) {
+    return ((long) t << 34) | ((long) cell << 2) | direction;
+  }
+}
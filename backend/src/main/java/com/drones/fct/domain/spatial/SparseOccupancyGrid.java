@@ -0,0 +1,190 @@
+package com.drones.fct.domain.spatial;
+
+import java.util.Arrays;
+
+/**
+ * Occupied cells only, keyed by packed (x, y) in a primitive hash map, for
+ * matrices far too large to allocate cell by cell. Path checks probe the cells
+ * ahead when the path is short, and otherwise scan the drones once, so they
+ * never cost more than the smaller of the two; rectangle and nearest-drone
+ * queries do the same.
+ */
+public class SparseOccupancyGrid extends OccupancyGrid {
+
+  private final LongLongHashMap cells;
+
+  public SparseOccupancyGrid(int maxX, int maxY) {
+    super(maxX, maxY);
+    this.cells = new LongLongHashMap(16);
+  }
+
+  private SparseOccupancyGrid(SparseOccupancyGrid source) {
+    super(source);
+    this.cells = source.cells.copy();
+  }
+
+  @Override
+  public synchronized OccupancyGrid copy() {
+    return new SparseOccupancyGrid(this);
+  }
+
+  @Override
+  public synchronized int size() {
+    return cells.size();
+  }
+
+  @Override
+  public synchronized long occupant(int x, int y) {
+    if (!contains(x, y)) {
+      return EMPTY;
+    }
+    return cells.get(key(x, y));
+  }
+
+  @Override
+  public synchronized boolean place(long droneId, int x, int y) {
+    if (!contains(x, y)) {
+      return false;
+    }
+    long key = key(x, y);
+    long current = cells.get(key);
+    if (current != EMPTY) {
+      return current == droneId;
+    }
+    cells.put(key, droneId);
+    changed();
+    return true;
+  }
+
+  @Override
+  public synchronized void remove(long droneId, int x, int y) {
+    if (!contains(x, y)) {
+      return;
+    }
+    long key = key(x, y);
+    if (cells.get(key) == droneId) {
+      cells.remove(key);
+      changed();
+    }
+  }
+
+  @Override
+  public synchronized int distanceToBlocker(int x, int y, int dx, int dy, int steps, long selfId) {
+    if (steps <= 0 || (dx == 0 && dy == 0)) {
+      return 0;
+    }
+    if (steps <= cells.size()) {
+      for (int distance = 1; distance <= steps; distance++) {
+        int cx = x + dx * distance;
+        int cy = y + dy * distance;
+        if (!contains(cx, cy)) {
+          return 0;
+        }
+        long current = cells.get(key(cx, cy));
+        if (current != EMPTY && current != selfId) {
+          return distance;
+        }
+      }
+      return 0;
+    }
+    int[] nearest = new int[1];
+    cells.forEach((key, droneId) -> {
+      if (droneId == selfId) {
+        return;
+      }
+      int cx = (int) (key >>> 32);
+      int cy = (int) key;
+      int distance;
+      if (dx != 0) {
+        distance = cy == y ? (cx - x) * dx : 0;
+      } else {
+        distance = cx == x ? (cy - y) * dy : 0;
+      }
+      if (distance >= 1 && distance <= steps && (nearest[0] == 0 || distance < nearest[0])) {
+        nearest[0] = distance;
+      }
+    });
+    return nearest[0];
+  }
+
+  @Override
+  public synchronized long[] occupantsIn(int x1, int y1, int x2, int y2) {
+    int fromX = Math.max(x1, 0);
+    int toX = Math.min(x2, width - 1);
+    int fromY = Math.max(y1, 0);
+    int toY = Math.min(y2, height - 1);
+    if (fromX > toX || fromY > toY || cells.size() == 0) {
+      return new long[0];
+    }
+    long area = (long) (toX - fromX + 1) * (toY - fromY + 1);
+    if (area <= cells.size()) {
+      long[] found = new long[(int) area];
+      int count = 0;
+      for (int y = fromY; y <= toY; y++) {
+        for (int x = fromX; x <= toX; x++) {
+          long droneId = cells.get(key(x, y));
+          if (droneId != EMPTY) {
+            found[count++] = droneId;
+          }
+        }
+      }
+      return Arrays.copyOf(found, count);
+    }
+    long[] found = new long[cells.size()];
+    int[] count = new int[1];
+    cells.forEach((key, droneId) -> {
+      int x = (int) (key >>> 32);
+      int y = (int) key;
+      if (x >= fromX && x <= toX && y >= fromY && y <= toY) {
+        found[count[0]++] = droneId;
+      }
+    });
+    return Arrays.copyOf(found, count[0]);
+  }
+
+  @Override
+  public synchronized long[] occupiedCells() {
+    long[] found = new long[cells.size()];
+    int[] count = new int[1];
+    cells.forEach((key, droneId) -> found[count[0]++] = key);
+    return found;
+  }
+
+  @Override
+  public synchronized long[] nearest(int x, int y, int count, int slack) {
+    long[] found = nearestByRings(x, y, count, slack, 4L * cells.size());
+    return found != null ? found : nearestByScan(x, y, count, slack);
+  }
+
+  private long[] nearestByScan(int x, int y, int count, int slack) {
+    // Distance in the high bits and position in the entry order in the low bits,
+    // so one primitive sort orders the drones by distance.
+    long[] ranked = new long[cells.size()];
+    long[] droneIds = new long[cells.size()];
+    int[] size = new int[1];
+    cells.forEach((key, droneId) -> {
+      long distance = Math.abs((int) (key >>> 32) - (long) x) + Math.abs((int) key - (long) y);
+      ranked[size[0]] = distance << 32 | size[0];
+      droneIds[size[0]] = droneId;
+      size[0]++;
+    });
+    Arrays.sort(ranked);
+    int limit = ranked.length;
+    if (count < ranked.length) {
+      long cutoff = (ranked[count - 1] >>> 32) + slack;
+      limit = count;
+      while (limit < ranked.length && ranked[limit] >>> 32 <= cutoff) {
+        limit++;
+      }
+    }
+    long[] found = new long[limit];
+    for (int i = 0; i < limit; i++) {
+      found[i] = droneIds[(int) ranked[i]];
+    }
+    return found;
+  }
+
+  private static long key(int x, int y) {
+    return ((long) x << 32) | y;
+  }
+}
@@ -0,0 +1,238 @@
+package com.drones.fct.infrastructure.events;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import com.drones.fct.domain.events.DroneEvent;
+import com.drones.fct.domain.events.DroneEventType;
+import com.drones.fct.domain.model.Orientation;
+
+/**
+ * Append-only log of {@link DroneEvent}s in fixed-size, memory-mapped segment
+ * files. An append is a copy into the mapped page cache, so it never waits for
+ * the disk; {@link #sync()} forces everything appended since the previous sync
+ * with a single fsync, which lets one background flush commit a whole group of
+ * appends.
+ *
+ * Each record is its payload length, a CRC32C of the payload and the payload.
+ * Names and models carry a 2-byte length. Their columns hold at most 50
+ * characters, up to 200 bytes in UTF-8, so a committed value always fits and
+ * the log does not cap them if the columns grow.
+ * A zero length marks the end of a segment, and reopening the log stops at
+ * the first record whose checksum does not match, so a write torn by a crash
+ * is dropped instead of replayed.
+ */
+public final class EventLog implements Closeable {
+
+  private static final String SUFFIX = ".log";
+  private static final int HEADER = 2 * Integer.BYTES;
+  private static final int MIN_SEGMENT_SIZE = 4096;
+  private static final int MAX_TEXT = 0xFFFF;
+  private static final DroneEventType[] TYPES = DroneEventType.values();
+  private static final Orientation[] ORIENTATIONS = Orientation.values();
+
+  private final Path directory;
+  private final int segmentSize;
+  private long segment;
+  private FileChannel channel;
+  private MappedByteBuffer buffer;
+  private int synced;
+
+  public EventLog(Path directory, int segmentSize) throws IOException {
+    if (segmentSize < MIN_SEGMENT_SIZE) {
+      throw new IllegalArgumentException("Segment size must be at least " + MIN_SEGMENT_SIZE + " bytes");
+    }
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    Files.createDirectories(directory);
+    List<Path> segments = segments();
+    segment = segments.isEmpty() ? 0 : index(segments.get(segments.size() - 1));
+    open(segment);
+    recoverTail();
+  }
+
+  /** Appends the event; it is durable once a later {@link #sync()} returns. */
+  public synchronized void append(DroneEvent event) {
+    ByteBuffer payload = encode(event);
+    int length = payload.remaining();
+    if (buffer.remaining() < HEADER + length) {
+      roll();
+    }
+    CRC32C crc = new CRC32C();
+    crc.update(payload.duplicate());
+    int start = buffer.position();
+    // Payload before header, so a reader never sees a length whose bytes are not written yet.
+    buffer.position(start + HEADER);
+    buffer.put(payload);
+    buffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+    buffer.putInt(start, length);
+  }
+
+  /** Forces every appended record to disk with one fsync. */
+  public void sync() {
+    MappedByteBuffer target;
+    int from;
+    int to;
+    synchronized (this) {
+      target = buffer;
+      from = synced;
+      to = buffer.position();
+      synced = to;
+    }
+    if (to > from) {
+      target.force(from, to - from);
+    }
+  }
+
+  /** Feeds every valid record, oldest first, to {@code consumer}. */
+  public synchronized void replay(Consumer<DroneEvent> consumer) {
+    try {
+      for (Path path : segments()) {
+        if (index(path) == segment) {
+          read(buffer.duplicate().flip(), consumer);
+        } else {
+          try (FileChannel readOnly = FileChannel.open(path, StandardOpenOption.READ)) {
+            read(readOnly.map(FileChannel.MapMode.READ_ONLY, 0, readOnly.size()), consumer);
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    buffer.force();
+    channel.close();
+  }
+
+  private void roll() {
+    try {
+      buffer.force();
+      channel.close();
+      open(segment + 1);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void open(long index) throws IOException {
+    segment = index;
+    channel = FileChannel.open(directory.resolve(String.format("%020d%s", index, SUFFIX)),
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    synced = 0;
+  }
+
+  private void recoverTail() {
+    ByteBuffer scan = buffer.duplicate();
+    int end = read(scan, event -> { });
+    buffer.position(end);
+    synced = end;
+    if (end + Integer.BYTES <= segmentSize && buffer.getInt(end) != 0) {
+      // A torn record: clear it so appends never run into stale bytes.
+      for (int i = end; i < segmentSize; i++) {
+        buffer.put(i, (byte) 0);
+      }
+      buffer.force();
+    }
+  }
+
+  /** Reads records until the end of the segment and returns where they stop. */
+  private static int read(ByteBuffer segmentBuffer, Consumer<DroneEvent> consumer) {
+    int position = 0;
+    while (position + HEADER <= segmentBuffer.limit()) {
+      int length = segmentBuffer.getInt(position);
+      if (length <= 0 || position + HEADER + length > segmentBuffer.limit()) {
+        break;
+      }
+      ByteBuffer payload = segmentBuffer.slice(position + HEADER, length);
+      CRC32C crc = new CRC32C();
+      crc.update(payload.duplicate());
+      if ((int) crc.getValue() != segmentBuffer.getInt(position + Integer.BYTES)) {
+        break;
+      }
+      consumer.accept(decode(payload));
+      position += HEADER + length;
+    }
+    return position;
+  }
+
+  private List<Path> segments() {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static long index(Path path) {
+    String name = path.getFileName().toString();
+    return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+  }
+
+  private static ByteBuffer encode(DroneEvent event) {
+    byte[] name = text(event.name());
+    byte[] model = text(event.model());
+    boolean full = event.name() != null;
+    ByteBuffer payload = ByteBuffer.allocate(
+        2 + Long.BYTES * 3 + Integer.BYTES * 2 + 1 + (full ? 2 * Short.BYTES + name.length + model.length : 0));
+    payload.put((byte) event.type().ordinal());
+    payload.put((byte) (full ? 1 : 0));
+    payload.putLong(event.timestamp());
+    payload.putLong(event.droneId());
+    payload.putLong(event.matrixId());
+    payload.putInt(event.x());
+    payload.putInt(event.y());
+    payload.put((byte) event.orientation().ordinal());
+    if (full) {
+      payload.putShort((short) name.length).put(name);
+      payload.putShort((short) model.length).put(model);
+    }
+    return payload.flip();
+  }
+
+  private static DroneEvent decode(ByteBuffer payload) {
+    DroneEventType type = TYPES[payload.get()];
+    boolean full = payload.get() == 1;
+    long timestamp = payload.getLong();
+    long droneId = payload.getLong();
+    long matrixId = payload.getLong();
+    int x = payload.getInt();
+    int y = payload.getInt();
+    Orientation orientation = ORIENTATIONS[payload.get()];
+    String name = full ? text(payload) : null;
+    String model = full ? text(payload) : null;
+    return new DroneEvent(type, timestamp, droneId, matrixId, x, y, orientation, name, model);
+  }
+
+  private static byte[] text(String value) {
+    if (value == null) {
+      return new byte[0];
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    if (bytes.length > MAX_TEXT) {
+      throw new IllegalArgumentException("Text longer than " + MAX_TEXT + " bytes: " + value);
+    }
+    return bytes;
+  }
+
+  private static String text(ByteBuffer payload) {
+    byte[] bytes = new byte[Short.toUnsignedInt(payload.getShort())];
+    payload.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
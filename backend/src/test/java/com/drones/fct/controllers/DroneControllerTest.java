@@ -19,6 +19,7 @@ import com.drones.fct.api.controller.DroneController;
 import com.drones.fct.api.dto.CreateDroneRequest;
 import com.drones.fct.application.DroneService;
 import com.drones.fct.domain.model.Drone;
+import com.drones.fct.domain.model.DroneView;
 import com.drones.fct.domain.model.Matrix;
 import com.drones.fct.domain.model.Orientation;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -71,16 +72,7 @@ class DroneControllerTest {
 
     @Test
     void getDrone_ReturnsDrone() throws Exception {
-        Matrix matrix = Matrix.builder().id(1L).maxX(10).maxY(10).build();
-        Drone drone = Drone.builder()
-                .id(20L)
-                .name("Drone Get")
-                .model("Model G")
-                .x(3)
-                .y(4)
-                .orientation(Orientation.N)
-                .matrix(matrix)
-                .build();
+        DroneView drone = new DroneView(20L, "Drone Get", "Model G", 3, 4, Orientation.N, 1L);
 
         when(droneService.getDrone(20L)).thenReturn(drone);
 
@@ -6,7 +6,9 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.UUID;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,7 +19,14 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import com.drones.fct.api.controller.FlightController;
 import com.drones.fct.api.dto.CommandsRequest;
+import com.drones.fct.application.FleetCommandService;
+import com.drones.fct.application.FlightJob;
+import com.drones.fct.application.FlightJobService;
 import com.drones.fct.application.FlightService;
+import com.drones.fct.application.FlightSimulationService;
+import com.drones.fct.application.RoutePlanner;
+import com.drones.fct.application.SimultaneousFlightService;
+import com.drones.fct.application.SwarmPlanningService;
 import com.drones.fct.domain.model.Drone;
 import com.drones.fct.domain.model.Matrix;
 import com.drones.fct.domain.model.MovementCommand;
@@ -33,6 +42,24 @@ class FlightControllerTest {
   @MockBean
   private FlightService flightService;
 
+  @MockBean
+  private FleetCommandService fleetCommandService;
+
+  @MockBean
+  private SimultaneousFlightService simultaneousFlightService;
+
+  @MockBean
+  private FlightJobService flightJobService;
+
+  @MockBean
+  private FlightSimulationService flightSimulationService;
+
+  @MockBean
+  private RoutePlanner routePlanner;
+
+  @MockBean
+  private SwarmPlanningService swarmPlanningService;
+
   @Autowired
   private ObjectMapper objectMapper;
 
@@ -89,10 +116,14 @@ class FlightControllerTest {
           ]
         }
         """;
+    FlightJob job = new FlightJob(UUID.randomUUID(), 2, Instant.now());
+    when(flightJobService.submit(any())).thenReturn(job);
 
     mockMvc.perform(post("/api/flights/batch-commands")
         .contentType(MediaType.APPLICATION_JSON)
         .content(batchJson))
-        .andExpect(status().isAccepted());
+        .andExpect(status().isAccepted())
+        .andExpect(jsonPath("$.id").value(job.getId().toString()))
+        .andExpect(jsonPath("$.status").value("QUEUED"));
   }
 }
@@ -21,6 +21,8 @@ import com.drones.fct.api.controller.MatrixController;
 import com.drones.fct.api.dto.CreateMatrixRequest;
 import com.drones.fct.application.MatrixService;
 import com.drones.fct.domain.model.Matrix;
+import com.drones.fct.domain.model.MatrixMode;
+import com.drones.fct.domain.model.MatrixView;
 import com.drones.fct.domain.repository.DroneRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -59,8 +61,8 @@ class MatrixControllerTest {
 
   @Test
   void getMatrix_ReturnsMatrix() throws Exception {
-    Matrix matrix = Matrix.builder().id(2L).maxX(15).maxY(15).build();
-    when(matrixService.getMatrix(2L)).thenReturn(matrix);
+    MatrixView matrix = new MatrixView(2L, 15, 15, MatrixMode.DENSE, List.of());
+    when(matrixService.getMatrixView(2L)).thenReturn(matrix);
 
     mockMvc.perform(get("/api/matrices/2"))
         .andExpect(status().isOk())
@@ -77,9 +79,9 @@ class MatrixControllerTest {
 
   @Test
   void listMatrices_ReturnsList() throws Exception {
-    Matrix matrix1 = Matrix.builder().id(1L).maxX(10).maxY(10).build();
-    Matrix matrix2 = Matrix.builder().id(2L).maxX(15).maxY(15).build();
-    when(matrixService.listMatrices()).thenReturn(List.of(matrix1, matrix2));
+    MatrixView matrix1 = new MatrixView(1L, 10, 10, MatrixMode.DENSE, List.of());
+    MatrixView matrix2 = new MatrixView(2L, 15, 15, MatrixMode.DENSE, List.of());
+    when(matrixService.listMatrices(null, null, true)).thenReturn(List.of(matrix1, matrix2));
 
     mockMvc.perform(get("/api/matrices"))
         .andExpect(status().isOk())
@@ -0,0 +1,74 @@
+package com.drones.fct.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.drones.fct.domain.flight.CommandProgram;
+import com.drones.fct.domain.model.MovementCommand;
+import com.drones.fct.domain.model.Orientation;
+
+class CommandProgramTest {
+
+  private static final MovementCommand L = MovementCommand.TURN_LEFT;
+  private static final MovementCommand R = MovementCommand.TURN_RIGHT;
+  private static final MovementCommand M = MovementCommand.MOVE_FORWARD;
+
+  @Test
+  void fullTurnFoldsAway() {
+    CommandProgram program = CommandProgram.compile(List.of(L, L, L, L));
+
+    assertEquals(0, program.segments());
+    assertEquals(4, program.commandCount());
+  }
+
+  @Test
+  void threeLeftsBecomeOneRight() {
+    CommandProgram program = CommandProgram.compile(List.of(L, L, L));
+
+    assertEquals(1, program.segments());
+    assertEquals(1, program.turn(0));
+    assertEquals(0, program.steps(0));
+    assertEquals(Orientation.E, Orientation.N.rotate(program.turn(0)));
+  }
+
+  @Test
+  void consecutiveMovesCollapseIntoSegments() {
+    CommandProgram program = CommandProgram.compile(List.of(M, M, M, R, M, M, L, L, M));
+
+    assertEquals(3, program.segments());
+    assertEquals(0, program.turn(0));
+    assertEquals(3, program.steps(0));
+    assertEquals(0, program.source(0));
+    assertEquals(1, program.turn(1));
+    assertEquals(2, program.steps(1));
+    assertEquals(4, program.source(1));
+    assertEquals(2, program.turn(2));
+    assertEquals(1, program.steps(2));
+    assertEquals(8, program.source(2));
+  }
+
+  @Test
+  void longSequenceCompilesToFewSegments() {
+    List<MovementCommand> commands = new ArrayList<>(Collections.nCopies(5000, M));
+    commands.add(R);
+    commands.addAll(Collections.nCopies(5000, M));
+
+    CommandProgram program = CommandProgram.compile(commands);
+
+    assertEquals(2, program.segments());
+    assertEquals(5000, program.steps(0));
+    assertEquals(5000, program.steps(1));
+  }
+
+  @Test
+  void nullCommandIsRejected() {
+    assertThrows(IllegalArgumentException.class,
+        () -> CommandProgram.compile(Collections.singletonList(null)));
+  }
+}
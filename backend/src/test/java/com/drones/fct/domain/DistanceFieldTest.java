@@ -0,0 +1,76 @@
+package com.drones.fct.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.drones.fct.domain.flight.CommandProgram;
+import com.drones.fct.domain.flight.FlightState;
+import com.drones.fct.domain.model.MovementCommand;
+import com.drones.fct.domain.model.Orientation;
+import com.drones.fct.domain.spatial.DistanceField;
+import com.drones.fct.domain.spatial.DenseOccupancyGrid;
+import com.drones.fct.domain.spatial.OccupancyGrid;
+
+class DistanceFieldTest {
+
+  private static final MovementCommand L = MovementCommand.TURN_LEFT;
+  private static final MovementCommand R = MovementCommand.TURN_RIGHT;
+  private static final MovementCommand M = MovementCommand.MOVE_FORWARD;
+
+  @Test
+  void turnsCountAsCommands() {
+    OccupancyGrid grid = new DenseOccupancyGrid(5, 5);
+
+    DistanceField field = DistanceField.compute(grid, 2, 0);
+
+    assertEquals(List.of(M, M), field.route(0, 0, Orientation.E));
+    assertEquals(List.of(R, M, M), field.route(0, 0, Orientation.N));
+    assertEquals(3, field.distance(0, 0, Orientation.S));
+  }
+
+  @Test
+  void routeGoesAroundOccupiedCellsAndLeavesItsOwnCell() {
+    OccupancyGrid grid = new DenseOccupancyGrid(4, 4);
+    grid.place(1L, 0, 0);
+    grid.place(2L, 0, 1);
+
+    DistanceField field = DistanceField.compute(grid, 0, 2);
+    List<MovementCommand> route = field.route(0, 0, Orientation.N);
+
+    assertEquals(List.of(R, M, L, M, M, L, M), route);
+    FlightState state = new FlightState(1L, 0, 0, Orientation.N);
+    assertNull(CommandProgram.compile(route).run(state, grid));
+    assertEquals(0, state.getX());
+    assertEquals(2, state.getY());
+  }
+
+  @Test
+  void walledOffTargetIsUnreachable() {
+    OccupancyGrid grid = new DenseOccupancyGrid(2, 2);
+    grid.place(1L, 1, 0);
+    grid.place(2L, 0, 1);
+    grid.place(3L, 1, 1);
+
+    DistanceField field = DistanceField.compute(grid, 2, 2);
+
+    assertNull(field.route(0, 0, Orientation.N));
+    assertEquals(DistanceField.UNREACHABLE, field.distance(0, 0, Orientation.E));
+  }
+
+  @Test
+  void fieldGoesStaleWhenGridChanges() {
+    OccupancyGrid grid = new DenseOccupancyGrid(3, 3);
+    DistanceField field = DistanceField.compute(grid, 3, 3);
+
+    assertTrue(field.isCurrentFor(grid));
+    grid.place(1L, 1, 1);
+    assertFalse(field.isCurrentFor(grid));
+    assertFalse(field.isCurrentFor(grid.copy()));
+  }
+}
@@ -0,0 +1,27 @@
+package com.drones.fct.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import com.drones.fct.domain.model.Orientation;
+import com.drones.fct.domain.spatial.DistanceMetric;
+
+class DistanceMetricTest {
+
+  @Test
+  void manhattanIgnoresOrientation() {
+    assertEquals(7, DistanceMetric.MANHATTAN.cost(1, 1, Orientation.S, 4, 5));
+    assertEquals(0, DistanceMetric.MANHATTAN.cost(2, 2, Orientation.N, 2, 2));
+  }
+
+  @Test
+  void travelAddsTheTurnsNeededToFaceTheCell() {
+    assertEquals(3, DistanceMetric.TRAVEL.cost(0, 0, Orientation.N, 0, 3));
+    assertEquals(4, DistanceMetric.TRAVEL.cost(0, 0, Orientation.E, 0, 3));
+    assertEquals(5, DistanceMetric.TRAVEL.cost(0, 0, Orientation.S, 0, 3));
+    assertEquals(5, DistanceMetric.TRAVEL.cost(0, 0, Orientation.N, 2, 2));
+    assertEquals(6, DistanceMetric.TRAVEL.cost(0, 0, Orientation.O, 2, 2));
+    assertEquals(0, DistanceMetric.TRAVEL.cost(4, 4, Orientation.O, 4, 4));
+  }
+}
@@ -0,0 +1,120 @@
+package com.drones.fct.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.drones.fct.domain.flight.FleetSimulation;
+import com.drones.fct.domain.flight.TickConflict;
+import com.drones.fct.domain.model.MovementCommand;
+import com.drones.fct.domain.model.Orientation;
+
+class FleetSimulationTest {
+
+  private static final MovementCommand L = MovementCommand.TURN_LEFT;
+  private static final MovementCommand R = MovementCommand.TURN_RIGHT;
+  private static final MovementCommand M = MovementCommand.MOVE_FORWARD;
+
+  @Test
+  void dronesMoveInLockstep() {
+    FleetSimulation simulation = FleetSimulation.builder(5, 5)
+        .drone(1L, 0, 0, Orientation.N, List.of(M, M, R, M))
+        .drone(2L, 5, 5, Orientation.S, List.of(M))
+        .build();
+
+    assertNull(simulation.run());
+    assertEquals(4, simulation.ticks());
+    assertEquals(1, simulation.x(0));
+    assertEquals(2, simulation.y(0));
+    assertEquals(Orientation.E, simulation.orientation(0));
+    assertEquals(5, simulation.x(1));
+    assertEquals(4, simulation.y(1));
+  }
+
+  @Test
+  void followerCanEnterCellVacatedOnTheSameTick() {
+    FleetSimulation simulation = FleetSimulation.builder(5, 5)
+        .drone(1L, 0, 1, Orientation.N, List.of(M, M))
+        .drone(2L, 0, 0, Orientation.N, List.of(M, M))
+        .build();
+
+    assertNull(simulation.run());
+    assertEquals(3, simulation.y(0));
+    assertEquals(2, simulation.y(1));
+  }
+
+  @Test
+  void twoDronesEnteringTheSameCellCollide() {
+    FleetSimulation simulation = FleetSimulation.builder(5, 5)
+        .drone(1L, 0, 1, Orientation.E, List.of(M))
+        .drone(2L, 2, 1, Orientation.O, List.of(M))
+        .build();
+
+    TickConflict conflict = simulation.run();
+
+    assertEquals(TickConflict.Kind.COLLISION, conflict.kind());
+    assertEquals(0, conflict.tick());
+    assertEquals(1L, conflict.droneId());
+    assertEquals(2L, conflict.otherDroneId());
+    assertEquals(1, conflict.x());
+    assertEquals(1, conflict.y());
+  }
+
+  @Test
+  void collisionsAreFoundOnMatricesTooLargeForDirectCells() {
+    FleetSimulation simulation = FleetSimulation.builder(999_999, 999_999)
+        .drone(1L, 999_990, 500_000, Orientation.E, List.of(M, M, M, M))
+        .drone(2L, 999_994, 500_000, Orientation.O, List.of(M, M, M, M))
+        .drone(3L, 0, 0, Orientation.N, List.of(M, M, M, M))
+        .build();
+
+    TickConflict conflict = simulation.run();
+
+    assertEquals(TickConflict.Kind.COLLISION, conflict.kind());
+    assertEquals(1, conflict.tick());
+    assertEquals(999_992, conflict.x());
+  }
+
+  @Test
+  void swappingCellsIsAHeadOnCollision() {
+    FleetSimulation simulation = FleetSimulation.builder(5, 5)
+        .drone(1L, 1, 1, Orientation.E, List.of(L, R, M))
+        .drone(2L, 2, 1, Orientation.O, List.of(R, L, M))
+        .build();
+
+    TickConflict conflict = simulation.run();
+
+    assertEquals(TickConflict.Kind.HEAD_ON, conflict.kind());
+    assertEquals(2, conflict.tick());
+  }
+
+  @Test
+  void stationaryDroneBlocksTheCellItHolds() {
+    FleetSimulation simulation = FleetSimulation.builder(5, 5)
+        .drone(1L, 0, 0, Orientation.N, List.of(M, M))
+        .drone(2L, 0, 2, Orientation.S, List.of())
+        .build();
+
+    TickConflict conflict = simulation.run();
+
+    assertEquals(TickConflict.Kind.COLLISION, conflict.kind());
+    assertEquals(1, conflict.tick());
+    assertEquals(2L, conflict.otherDroneId());
+  }
+
+  @Test
+  void leavingTheMatrixIsReportedWithTheTick() {
+    FleetSimulation simulation = FleetSimulation.builder(2, 2)
+        .drone(1L, 0, 0, Orientation.N, List.of(M, M, M))
+        .build();
+
+    TickConflict conflict = simulation.run();
+
+    assertEquals(TickConflict.Kind.OUT_OF_BOUNDS, conflict.kind());
+    assertEquals(2, conflict.tick());
+    assertEquals(3, conflict.y());
+  }
+}
@@ -0,0 +1,198 @@
+package com.drones.fct.domain;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import com.drones.fct.domain.model.MatrixMode;
+import com.drones.fct.domain.spatial.OccupancyGrid;
+import com.drones.fct.domain.spatial.OverlayOccupancyGrid;
+
+class OccupancyGridTest {
+
+  @ParameterizedTest
+  @EnumSource(MatrixMode.class)
+  void placeMoveAndRemove(MatrixMode mode) {
+    OccupancyGrid grid = OccupancyGrid.create(10, 10, mode);
+
+    assertTrue(grid.place(1L, 0, 0));
+    assertTrue(grid.place(2L, 10, 10));
+    assertFalse(grid.place(3L, 0, 0), "occupied cells must not be overwritten");
+    assertEquals(2, grid.size());
+
+    grid.move(1L, 0, 0, 0, 1);
+    assertEquals(OccupancyGrid.EMPTY, grid.occupant(0, 0));
+    assertEquals(1L, grid.occupant(0, 1));
+
+    grid.remove(2L, 10, 10);
+    assertEquals(1, grid.size());
+    assertTrue(grid.isFree(10, 10, 1L));
+    assertTrue(grid.isFree(0, 1, 1L));
+    assertFalse(grid.isFree(0, 1, 2L));
+  }
+
+  @ParameterizedTest
+  @EnumSource(MatrixMode.class)
+  void moveOntoATakenCellKeepsTheDroneWhereItWas(MatrixMode mode) {
+    OccupancyGrid grid = OccupancyGrid.create(10, 10, mode);
+    grid.place(1L, 0, 0);
+    grid.place(2L, 0, 1);
+
+    assertFalse(grid.move(1L, 0, 0, 0, 1));
+    assertEquals(1L, grid.occupant(0, 0));
+    assertEquals(2L, grid.occupant(0, 1));
+    assertEquals(2, grid.size());
+  }
+
+  @ParameterizedTest
+  @EnumSource(MatrixMode.class)
+  void outOfBoundsCellsAreNeverOccupied(MatrixMode mode) {
+    OccupancyGrid grid = OccupancyGrid.create(3, 3, mode);
+
+    assertFalse(grid.place(1L, 4, 0));
+    assertEquals(OccupancyGrid.EMPTY, grid.occupant(-1, 2));
+    assertEquals(0, grid.size());
+  }
+
+  @ParameterizedTest
+  @EnumSource(MatrixMode.class)
+  void distanceToBlockerSkipsSelfAndStopsAtRange(MatrixMode mode) {
+    OccupancyGrid grid = OccupancyGrid.create(20, 20, mode);
+    grid.place(1L, 2, 5);
+    grid.place(2L, 9, 5);
+    grid.place(3L, 2, 12);
+
+    assertEquals(7, grid.distanceToBlocker(2, 5, 1, 0, 10, 1L));
+    assertEquals(0, grid.distanceToBlocker(2, 5, 1, 0, 6, 1L));
+    assertEquals(0, grid.distanceToBlocker(0, 5, 1, 0, 5, 1L), "own cell must not block");
+    assertEquals(7, grid.distanceToBlocker(2, 5, 0, 1, 20, 1L));
+    assertEquals(7, grid.distanceToBlocker(16, 5, -1, 0, 16, 1L));
+    assertEquals(0, grid.distanceToBlocker(2, 4, 0, -1, 4, 1L));
+  }
+
+  @ParameterizedTest
+  @EnumSource(MatrixMode.class)
+  void occupantsInReturnsDronesInsideTheClippedRectangle(MatrixMode mode) {
+    OccupancyGrid grid = OccupancyGrid.create(20, 20, mode);
+    grid.place(1L, 2, 2);
+    grid.place(2L, 5, 5);
+    grid.place(3L, 6, 2);
+    grid.place(4L, 15, 15);
+
+    assertArrayEquals(new long[] { 1L, 2L, 3L }, sorted(grid.occupantsIn(2, 2, 6, 5)));
+    assertArrayEquals(new long[] { 2L }, sorted(grid.occupantsIn(3, 3, 5, 14)));
+    assertArrayEquals(new long[] { 1L, 2L, 3L, 4L }, sorted(grid.occupantsIn(-5, -5, 100, 100)));
+    assertArrayEquals(new long[0], grid.occupantsIn(7, 0, 14, 20));
+  }
+
+  @ParameterizedTest
+  @EnumSource(MatrixMode.class)
+  void nearestReturnsDronesByRingUpToTheSlack(MatrixMode mode) {
+    OccupancyGrid grid = OccupancyGrid.create(20, 20, mode);
+    grid.place(1L, 10, 10);
+    grid.place(2L, 12, 10);
+    grid.place(3L, 10, 7);
+    grid.place(4L, 10, 5);
+    grid.place(5L, 0, 0);
+
+    assertArrayEquals(new long[] { 1L }, grid.nearest(10, 10, 1, 0));
+    assertArrayEquals(new long[] { 1L, 2L, 3L }, grid.nearest(10, 10, 2, 1));
+    assertArrayEquals(new long[] { 1L, 2L, 3L, 4L, 5L }, grid.nearest(10, 10, 9, 0));
+    assertArrayEquals(new long[] { 5L, 4L }, grid.nearest(0, 3, 2, 0));
+  }
+
+  @Test
+  void sparseGridHandlesAMillionCellsPerSide() {
+    OccupancyGrid grid = OccupancyGrid.create(999_999, 999_999, MatrixMode.SPARSE);
+    grid.place(1L, 0, 500_000);
+    grid.place(2L, 999_999, 500_000);
+    grid.place(3L, 400_000, 999_999);
+
+    assertEquals(999_999, grid.distanceToBlocker(0, 500_000, 1, 0, 999_999, 1L));
+    assertEquals(0, grid.distanceToBlocker(0, 500_000, 1, 0, 999_998, 1L));
+    assertEquals(499_999, grid.distanceToBlocker(400_000, 500_000, 0, 1, 600_000, 4L));
+    assertEquals(3L, grid.occupant(400_000, 999_999));
+    assertArrayEquals(new long[] { 1L, 3L }, sorted(grid.occupantsIn(0, 400_000, 500_000, 999_999)));
+    assertArrayEquals(new long[] { 3L }, grid.occupantsIn(399_999, 999_998, 400_001, 999_999));
+    assertArrayEquals(new long[] { 1L, 3L }, grid.nearest(0, 600_000, 2, 0));
+  }
+
+  @Test
+  void sparseGridMatchesDenseGridUnderRandomChanges() {
+    OccupancyGrid dense = OccupancyGrid.create(15, 15, MatrixMode.DENSE);
+    OccupancyGrid sparse = OccupancyGrid.create(15, 15, MatrixMode.SPARSE);
+    Random random = new Random(11);
+    for (int i = 0; i < 5_000; i++) {
+      long droneId = 1 + random.nextInt(40);
+      int x = random.nextInt(16);
+      int y = random.nextInt(16);
+      if (random.nextBoolean()) {
+        assertEquals(dense.place(droneId, x, y), sparse.place(droneId, x, y));
+      } else {
+        dense.remove(droneId, x, y);
+        sparse.remove(droneId, x, y);
+      }
+    }
+
+    assertEquals(dense.size(), sparse.size());
+    assertArrayEquals(sorted(dense.occupiedCells()), sorted(sparse.occupiedCells()));
+    for (int y = 0; y < 16; y++) {
+      for (int x = 0; x < 16; x++) {
+        assertEquals(dense.occupant(x, y), sparse.occupant(x, y));
+        assertEquals(dense.distanceToBlocker(x, y, 1, 0, 15, 0L), sparse.distanceToBlocker(x, y, 1, 0, 15, 0L));
+        assertEquals(dense.distanceToBlocker(x, y, 0, -1, 15, 0L), sparse.distanceToBlocker(x, y, 0, -1, 15, 0L));
+      }
+    }
+  }
+
+  @Test
+  void overlayMatchesACopyAndLeavesItsBaseAlone() {
+    OccupancyGrid base = OccupancyGrid.create(15, 15, MatrixMode.DENSE);
+    Random random = new Random(13);
+    for (int i = 0; i < 60; i++) {
+      base.place(1 + random.nextInt(40), random.nextInt(16), random.nextInt(16));
+    }
+    OccupancyGrid before = base.copy();
+    OccupancyGrid copy = base.copy();
+    OccupancyGrid overlay = new OverlayOccupancyGrid(base);
+    for (int i = 0; i < 2_000; i++) {
+      long droneId = 1 + random.nextInt(40);
+      int x = random.nextInt(16);
+      int y = random.nextInt(16);
+      if (random.nextBoolean()) {
+        assertEquals(copy.place(droneId, x, y), overlay.place(droneId, x, y));
+      } else if (copy.occupant(x, y) != OccupancyGrid.EMPTY) {
+        copy.remove(copy.occupant(x, y), x, y);
+        overlay.remove(overlay.occupant(x, y), x, y);
+      }
+    }
+
+    assertEquals(copy.size(), overlay.size());
+    assertArrayEquals(sorted(copy.occupantsIn(3, 2, 12, 9)), sorted(overlay.occupantsIn(3, 2, 12, 9)));
+    assertArrayEquals(sorted(copy.occupiedCells()), sorted(overlay.occupiedCells()));
+    for (int y = 0; y < 16; y++) {
+      for (int x = 0; x < 16; x++) {
+        long self = copy.occupant(x, y);
+        assertEquals(copy.occupant(x, y), overlay.occupant(x, y));
+        assertEquals(before.occupant(x, y), base.occupant(x, y));
+        assertEquals(copy.distanceToBlocker(x, y, 1, 0, 15, self), overlay.distanceToBlocker(x, y, 1, 0, 15, self));
+        assertEquals(copy.distanceToBlocker(x, y, -1, 0, 6, 0L), overlay.distanceToBlocker(x, y, -1, 0, 6, 0L));
+        assertEquals(copy.distanceToBlocker(x, y, 0, 1, 15, 0L), overlay.distanceToBlocker(x, y, 0, 1, 15, 0L));
+        assertEquals(copy.distanceToBlocker(x, y, 0, -1, 15, self), overlay.distanceToBlocker(x, y, 0, -1, 15, self));
+      }
+    }
+  }
+
+  private static long[] sorted(long[] values) {
+    Arrays.sort(values);
+    return values;
+  }
+}
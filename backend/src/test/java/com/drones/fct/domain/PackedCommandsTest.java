@@ -0,0 +1,73 @@
+package com.drones.fct.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.drones.fct.domain.flight.CommandProgram;
+import com.drones.fct.domain.flight.PackedCommands;
+import com.drones.fct.domain.model.MovementCommand;
+
+class PackedCommandsTest {
+
+  private static final MovementCommand L = MovementCommand.TURN_LEFT;
+  private static final MovementCommand R = MovementCommand.TURN_RIGHT;
+  private static final MovementCommand M = MovementCommand.MOVE_FORWARD;
+
+  @Test
+  void parsesOneLetterPerCommand() {
+    assertEquals(List.of(M, M, L, M, R, M), PackedCommands.parse("MMLMRM"));
+  }
+
+  @Test
+  void packedCodesAreFixed() {
+    // 0b10_01_00: codes 0, 1 and 2, lowest bits first.
+    assertEquals(List.of(L, R, M), PackedCommands.fromBase64("JA==", 3));
+    assertEquals("JA==", PackedCommands.parse("LRM").toBase64());
+  }
+
+  @Test
+  void base64RoundTripKeepsEveryCommand() {
+    Random random = new Random(7);
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 10_001; i++) {
+      text.append("LRM".charAt(random.nextInt(3)));
+    }
+    PackedCommands parsed = PackedCommands.parse(text);
+
+    PackedCommands decoded = PackedCommands.fromBase64(parsed.toBase64(), parsed.size());
+
+    assertEquals(10_001, decoded.size());
+    assertEquals(parsed, decoded);
+  }
+
+  @Test
+  void compilesLikeTheExpandedList() {
+    PackedCommands packed = PackedCommands.parse("MMMRMMLLMM");
+    CommandProgram expected = CommandProgram.compile(new ArrayList<>(packed));
+
+    CommandProgram program = packed.compile();
+
+    assertEquals(expected.segments(), program.segments());
+    assertEquals(expected.commandCount(), program.commandCount());
+    for (int i = 0; i < program.segments(); i++) {
+      assertEquals(expected.turn(i), program.turn(i));
+      assertEquals(expected.steps(i), program.steps(i));
+      assertEquals(expected.source(i), program.source(i));
+    }
+  }
+
+  @Test
+  void rejectsUnknownLettersCodesAndOversizedCounts() {
+    assertThrows(IllegalArgumentException.class, () -> PackedCommands.parse("MMX"));
+    assertThrows(IllegalArgumentException.class, () -> PackedCommands.parse("MMH"));
+    assertThrows(IllegalArgumentException.class, () -> PackedCommands.fromBase64("Aw==", 1));
+    assertThrows(IllegalArgumentException.class, () -> PackedCommands.fromBase64("AA==", 5));
+    assertThrows(IllegalArgumentException.class, () -> PackedCommands.fromBase64("not base64!", 1));
+  }
+}
@@ -0,0 +1,96 @@
+package com.drones.fct.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.drones.fct.domain.flight.FleetSimulation;
+import com.drones.fct.domain.flight.SwarmPlanner;
+import com.drones.fct.domain.model.Orientation;
+import com.drones.fct.domain.spatial.DenseOccupancyGrid;
+import com.drones.fct.domain.spatial.OccupancyGrid;
+
+class SwarmPlannerTest {
+
+  private static final long BUDGET = TimeUnit.SECONDS.toNanos(10);
+
+  @Test
+  void dronesSwappingPlacesAvoidEachOther() {
+    OccupancyGrid obstacles = new DenseOccupancyGrid(2, 2);
+    List<SwarmPlanner.Agent> agents = List.of(
+        new SwarmPlanner.Agent(1L, 0, 1, Orientation.E, 2, 1),
+        new SwarmPlanner.Agent(2L, 2, 1, Orientation.O, 0, 1));
+
+    SwarmPlanner.Result result = new SwarmPlanner(obstacles, agents, BUDGET).plan();
+
+    assertTrue(result.planned());
+    assertReachGoalsWithoutConflict(obstacles, agents, result);
+  }
+
+  @Test
+  void hundredsOfDronesOnALargeMatrix() {
+    Random random = new Random(42);
+    OccupancyGrid obstacles = new DenseOccupancyGrid(99, 99);
+    Set<Integer> starts = new HashSet<>();
+    Set<Integer> goals = new HashSet<>();
+    List<SwarmPlanner.Agent> agents = new ArrayList<>();
+    Orientation[] orientations = Orientation.values();
+    while (agents.size() < 200) {
+      int start = random.nextInt(100 * 100);
+      int goal = random.nextInt(100 * 100);
+      if (!starts.add(start)) {
+        continue;
+      }
+      if (!goals.add(goal)) {
+        starts.remove(start);
+        continue;
+      }
+      agents.add(new SwarmPlanner.Agent(agents.size() + 1, start % 100, start / 100,
+          orientations[random.nextInt(4)], goal % 100, goal / 100));
+    }
+
+    SwarmPlanner.Result result = new SwarmPlanner(obstacles, agents, BUDGET).plan();
+
+    assertTrue(result.planned());
+    assertReachGoalsWithoutConflict(obstacles, agents, result);
+  }
+
+  @Test
+  void walledOffGoalCannotBePlanned() {
+    OccupancyGrid obstacles = new DenseOccupancyGrid(2, 2);
+    obstacles.place(7L, 1, 2);
+    obstacles.place(8L, 2, 1);
+    List<SwarmPlanner.Agent> agents = List.of(new SwarmPlanner.Agent(1L, 0, 0, Orientation.N, 2, 2));
+
+    SwarmPlanner.Result result = new SwarmPlanner(obstacles, agents, BUDGET).plan();
+
+    assertFalse(result.planned());
+    assertEquals(List.of(1L), result.unplanned());
+  }
+
+  private static void assertReachGoalsWithoutConflict(OccupancyGrid obstacles, List<SwarmPlanner.Agent> agents,
+      SwarmPlanner.Result result) {
+    FleetSimulation.Builder builder = FleetSimulation.builder(obstacles.getMaxX(), obstacles.getMaxY());
+    for (int i = 0; i < agents.size(); i++) {
+      SwarmPlanner.Agent agent = agents.get(i);
+      builder.planned(agent.droneId(), agent.x(), agent.y(), agent.orientation(), result.routes().get(i));
+    }
+    FleetSimulation simulation = builder.build();
+
+    assertNull(simulation.run());
+    for (int i = 0; i < agents.size(); i++) {
+      assertEquals(agents.get(i).goalX(), simulation.x(i));
+      assertEquals(agents.get(i).goalY(), simulation.y(i));
+    }
+  }
+}
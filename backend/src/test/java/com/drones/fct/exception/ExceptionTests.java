@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.core.MethodParameter;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.BindException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
@@ -14,7 +15,9 @@ import com.drones.fct.api.dto.ApiError;
 import com.drones.fct.api.exception.ConflictException;
 import com.drones.fct.api.exception.GlobalExceptionHandler;
 import com.drones.fct.api.exception.NotFoundException;
+import com.drones.fct.api.exception.TooManyRequestsException;
 import com.drones.fct.api.exception.UnsupportedCommandException;
+import com.drones.fct.domain.model.Matrix;
 
 class ExceptionTests {
 
@@ -36,6 +39,18 @@ class ExceptionTests {
     assertEquals("Command not supported", ex.getMessage());
   }
 
+  @Test
+  void testDescribeMatchesTheHandlerResponse() {
+    GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    TooManyRequestsException ex = new TooManyRequestsException("Busy");
+    ResponseEntity<ApiError> response = handler.handleTooManyRequests(ex);
+    ApiError described = GlobalExceptionHandler.describe(ex);
+    assertNotNull(response.getBody());
+    assertEquals(response.getBody().getCode(), described.getCode());
+    assertEquals(response.getBody().getMessage(), described.getMessage());
+    assertEquals("TOO_MANY_REQUESTS", described.getCode());
+  }
+
   @Test
   void testHandleNotFound() {
     GlobalExceptionHandler handler = new GlobalExceptionHandler();
@@ -47,6 +62,16 @@ class ExceptionTests {
     assertEquals("Not found", response.getBody().getMessage());
   }
 
+  @Test
+  void testHandleOptimisticLockingFailure() {
+    GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    ObjectOptimisticLockingFailureException ex = new ObjectOptimisticLockingFailureException(Matrix.class, 1L);
+    ResponseEntity<ApiError> response = handler.handleOptimisticLockingFailure(ex);
+    assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    assertNotNull(response.getBody());
+    assertEquals("CONFLICT", response.getBody().getCode());
+  }
+
   @Test
   void testHandleConflict() {
     GlobalExceptionHandler handler = new GlobalExceptionHandler();
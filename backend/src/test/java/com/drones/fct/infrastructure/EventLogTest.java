@@ -0,0 +1,110 @@
+package com.drones.fct.infrastructure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.drones.fct.domain.events.DroneEvent;
+import com.drones.fct.domain.events.DroneEventType;
+import com.drones.fct.domain.model.Orientation;
+import com.drones.fct.infrastructure.events.EventLog;
+
+class EventLogTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void replaysAppendedEventsAfterReopening() throws IOException {
+    DroneEvent created = new DroneEvent(DroneEventType.CREATE, 1L, 7L, 1L, 2, 3, Orientation.N, "Alpha", "Ñandú");
+    DroneEvent moved = new DroneEvent(DroneEventType.MOVE, 2L, 7L, 1L, 2, 5, Orientation.E, null, null);
+    try (EventLog log = new EventLog(directory, 4096)) {
+      log.append(created);
+      log.append(moved);
+      log.sync();
+    }
+
+    List<DroneEvent> replayed = new ArrayList<>();
+    try (EventLog log = new EventLog(directory, 4096)) {
+      log.replay(replayed::add);
+      log.append(moved);
+      log.replay(replayed::add);
+    }
+
+    assertEquals(List.of(created, moved, created, moved, moved), replayed);
+    assertNull(replayed.get(1).name());
+    assertEquals("Ñandú", created.then(moved).model());
+  }
+
+  @Test
+  void keepsNamesWhoseUtf8FormExceeds255Bytes() throws IOException {
+    // Longer than the 50-character columns allow, and 300 bytes in UTF-8.
+    String name = "€".repeat(100);
+    DroneEvent created = new DroneEvent(DroneEventType.CREATE, 1L, 7L, 1L, 0, 0, Orientation.N, name, "Ñandú");
+    try (EventLog log = new EventLog(directory, 4096)) {
+      log.append(created);
+    }
+
+    List<DroneEvent> replayed = new ArrayList<>();
+    try (EventLog log = new EventLog(directory, 4096)) {
+      log.replay(replayed::add);
+    }
+
+    assertEquals(List.of(created), replayed);
+  }
+
+  @Test
+  void rollsOverToNewSegmentsWhenOneIsFull() throws IOException {
+    try (EventLog log = new EventLog(directory, 4096)) {
+      for (int i = 0; i < 500; i++) {
+        log.append(new DroneEvent(DroneEventType.TURN, i, i, 1L, 0, 0, Orientation.S, null, null));
+      }
+      List<DroneEvent> replayed = new ArrayList<>();
+      log.replay(replayed::add);
+
+      assertEquals(500, replayed.size());
+      assertEquals(499L, replayed.get(499).droneId());
+    }
+    try (Stream<Path> segments = Files.list(directory)) {
+      // 95 flight records of 43 bytes fit in a 4 KiB segment.
+      assertEquals(6, segments.count());
+    }
+  }
+
+  @Test
+  void dropsATornRecordAtTheTail() throws IOException {
+    DroneEvent turned = new DroneEvent(DroneEventType.TURN, 1L, 3L, 1L, 0, 0, Orientation.O, null, null);
+    try (EventLog log = new EventLog(directory, 4096)) {
+      log.append(turned);
+      log.append(turned);
+    }
+    Path segment;
+    try (Stream<Path> segments = Files.list(directory)) {
+      segment = segments.findFirst().orElseThrow();
+    }
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+      // Corrupt the last byte of the second 43-byte record.
+      channel.write(ByteBuffer.wrap(new byte[] { 42 }), 2 * 43 - 1);
+    }
+
+    List<DroneEvent> replayed = new ArrayList<>();
+    try (EventLog log = new EventLog(directory, 4096)) {
+      log.append(turned);
+      log.replay(replayed::add);
+    }
+
+    assertEquals(List.of(turned, turned), replayed);
+  }
+}
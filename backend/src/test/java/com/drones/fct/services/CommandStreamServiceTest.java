@@ -0,0 +1,111 @@
+package com.drones.fct.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.drones.fct.api.exception.ConflictException;
+import com.drones.fct.application.CommandStreamService;
+import com.drones.fct.application.DroneCommandOutcome;
+import com.drones.fct.application.FlightRetry;
+import com.drones.fct.application.FlightService;
+import com.drones.fct.domain.flight.CommandProgram;
+import com.drones.fct.domain.model.Drone;
+import com.drones.fct.domain.model.Matrix;
+import com.drones.fct.domain.model.MovementCommand;
+
+class CommandStreamServiceTest {
+
+  private final FlightService flightService = mock(FlightService.class);
+  private final Matrix matrix = Matrix.builder().id(1L).build();
+  private final FlightRetry flightRetry = new FlightRetry(mock(PlatformTransactionManager.class), 3, 0);
+  private CommandStreamService service;
+
+  @AfterEach
+  void tearDown() {
+    service.destroy();
+  }
+
+  @Test
+  void submit_RunsBurstsOfOneDroneInArrivalOrder() throws InterruptedException {
+    List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+    when(flightService.executeProgram(eq(1L), any())).thenAnswer(invocation -> {
+      executed.add(((CommandProgram) invocation.getArgument(1)).commandCount());
+      return Drone.builder().id(1L).matrix(matrix).build();
+    });
+    service = new CommandStreamService(flightService, flightRetry, 4, 64);
+
+    CountDownLatch done = new CountDownLatch(20);
+    for (int i = 1; i <= 20; i++) {
+      List<MovementCommand> burst = Collections.nCopies(i, MovementCommand.TURN_LEFT);
+      assertTrue(service.submit(1L, burst, outcome -> done.countDown()));
+    }
+
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 1; i <= 20; i++) {
+      expected.add(i);
+    }
+    assertEquals(expected, executed);
+  }
+
+  @Test
+  void submit_ReportsFailureAndKeepsDroneLaneRunning() throws InterruptedException {
+    when(flightService.executeProgram(eq(1L), any()))
+        .thenThrow(new ConflictException("Collision"))
+        .thenReturn(Drone.builder().id(1L).matrix(matrix).build());
+    service = new CommandStreamService(flightService, flightRetry, 2, 8);
+
+    List<DroneCommandOutcome> outcomes = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch done = new CountDownLatch(2);
+    service.submit(1L, List.of(MovementCommand.MOVE_FORWARD), outcome -> {
+      outcomes.add(outcome);
+      done.countDown();
+    });
+    service.submit(1L, List.of(MovementCommand.MOVE_FORWARD), outcome -> {
+      outcomes.add(outcome);
+      done.countDown();
+    });
+
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+    assertFalse(outcomes.get(0).succeeded());
+    assertTrue(outcomes.get(1).succeeded());
+  }
+
+  @Test
+  void submit_RejectsWhenDroneHasTooManyPendingBursts() throws InterruptedException {
+    CountDownLatch release = new CountDownLatch(1);
+    when(flightService.executeProgram(eq(1L), any())).thenAnswer(invocation -> {
+      release.await(5, TimeUnit.SECONDS);
+      return Drone.builder().id(1L).matrix(matrix).build();
+    });
+    service = new CommandStreamService(flightService, flightRetry, 2, 2);
+
+    assertTrue(service.submit(1L, List.of(MovementCommand.MOVE_FORWARD), outcome -> { }));
+    assertTrue(service.submit(1L, List.of(MovementCommand.MOVE_FORWARD), outcome -> { }));
+    assertFalse(service.submit(1L, List.of(MovementCommand.MOVE_FORWARD), outcome -> { }));
+    release.countDown();
+  }
+
+  @Test
+  void submit_RejectsEmptyBurst() {
+    service = new CommandStreamService(flightService, flightRetry, 1, 1);
+
+    assertThrows(IllegalArgumentException.class, () -> service.submit(1L, List.of(), outcome -> { }));
+  }
+}
@@ -0,0 +1,66 @@
+package com.drones.fct.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.drones.fct.application.DroneEventRecorder;
+import com.drones.fct.domain.events.DroneEvent;
+import com.drones.fct.domain.events.DroneEventType;
+import com.drones.fct.domain.model.Orientation;
+
+class DroneEventRecorderTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void rebuildFoldsEventsIntoTheLastStateOfEachLiveDrone() throws IOException {
+    DroneEventRecorder recorder = recorder(false);
+    try {
+      recorder.record(new DroneEvent(DroneEventType.CREATE, 1L, 7L, 1L, 2, 3, Orientation.N, "Alpha", "A-1"));
+      recorder.record(new DroneEvent(DroneEventType.CREATE, 2L, 8L, 1L, 0, 0, Orientation.S, "Beta", "B-1"));
+      recorder.record(new DroneEvent(DroneEventType.MOVE, 3L, 7L, 1L, 2, 4, Orientation.N, null, null));
+      recorder.record(new DroneEvent(DroneEventType.DELETE, 4L, 8L, 1L, 0, 0, Orientation.S, "Beta", "B-1"));
+      recorder.record(new DroneEvent(DroneEventType.CREATE, 5L, 9L, 1L, 5, 5, Orientation.E, "Gamma", "G-1"));
+      recorder.record(new DroneEvent(DroneEventType.TURN, 6L, 7L, 1L, 2, 4, Orientation.E, null, null));
+
+      Map<Long, DroneEvent> drones = recorder.rebuild();
+
+      assertEquals(List.of(7L, 9L), List.copyOf(drones.keySet()));
+      assertEquals(new DroneEvent(DroneEventType.TURN, 6L, 7L, 1L, 2, 4, Orientation.E, "Alpha", "A-1"),
+          drones.get(7L));
+      assertTrue(recorder.lastKnown().isEmpty());
+    } finally {
+      recorder.destroy();
+    }
+  }
+
+  @Test
+  void rebuildsOnStartupWhenEnabled() throws IOException {
+    DroneEventRecorder first = recorder(false);
+    first.record(new DroneEvent(DroneEventType.CREATE, 1L, 7L, 1L, 2, 3, Orientation.N, "Alpha", "A-1"));
+    first.destroy();
+
+    DroneEventRecorder second = recorder(true);
+    try {
+      second.afterPropertiesSet();
+
+      assertEquals(Map.of(7L, new DroneEvent(DroneEventType.CREATE, 1L, 7L, 1L, 2, 3, Orientation.N, "Alpha",
+          "A-1")), second.lastKnown());
+    } finally {
+      second.destroy();
+    }
+  }
+
+  private DroneEventRecorder recorder(boolean rebuildOnStartup) throws IOException {
+    return new DroneEventRecorder(directory.toString(), 4096, 60_000, rebuildOnStartup);
+  }
+}
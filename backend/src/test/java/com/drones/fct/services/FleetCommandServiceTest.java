@@ -0,0 +1,83 @@
+package com.drones.fct.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.drones.fct.api.exception.ConflictException;
+import com.drones.fct.application.DroneCommandOutcome;
+import com.drones.fct.application.FleetCommandService;
+import com.drones.fct.application.FlightRetry;
+import com.drones.fct.application.FlightService;
+import com.drones.fct.domain.model.Drone;
+import com.drones.fct.domain.model.Matrix;
+import com.drones.fct.domain.model.MovementCommand;
+
+class FleetCommandServiceTest {
+
+  private final FlightService flightService = mock(FlightService.class);
+  private final Matrix matrix = Matrix.builder().id(1L).build();
+  private final FlightRetry flightRetry = new FlightRetry(mock(PlatformTransactionManager.class), 3, 0);
+
+  @Test
+  void executeInParallel_ReportsOutcomePerDroneInRequestOrder() {
+    Drone first = Drone.builder().id(1L).matrix(matrix).build();
+    Drone third = Drone.builder().id(3L).matrix(matrix).build();
+    when(flightService.executeProgram(eq(1L), any())).thenReturn(first);
+    when(flightService.executeProgram(eq(2L), any())).thenThrow(new ConflictException("Collision"));
+    when(flightService.executeProgram(eq(3L), any())).thenReturn(third);
+
+    FleetCommandService service = new FleetCommandService(flightService, flightRetry, 4);
+    List<DroneCommandOutcome> outcomes = service.executeInParallel(List.of(1L, 2L, 3L),
+        List.of(MovementCommand.MOVE_FORWARD));
+
+    assertEquals(3, outcomes.size());
+    assertTrue(outcomes.get(0).succeeded());
+    assertEquals(1L, outcomes.get(0).drone().getId());
+    assertFalse(outcomes.get(1).succeeded());
+    assertEquals("Collision", outcomes.get(1).error().getMessage());
+    assertEquals(3L, outcomes.get(2).droneId());
+  }
+
+  @Test
+  void executeInParallel_NeverExceedsConcurrencyCap() throws InterruptedException {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger peak = new AtomicInteger();
+    CountDownLatch started = new CountDownLatch(2);
+    when(flightService.executeProgram(any(), any())).thenAnswer(invocation -> {
+      peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+      started.countDown();
+      started.await(1, TimeUnit.SECONDS);
+      running.decrementAndGet();
+      return Drone.builder().id(invocation.getArgument(0)).matrix(matrix).build();
+    });
+
+    FleetCommandService service = new FleetCommandService(flightService, flightRetry, 2);
+    List<DroneCommandOutcome> outcomes = service.executeInParallel(List.of(1L, 2L, 3L, 4L, 5L, 6L),
+        List.of(MovementCommand.TURN_LEFT));
+
+    assertEquals(6, outcomes.size());
+    assertTrue(outcomes.stream().allMatch(DroneCommandOutcome::succeeded));
+    assertEquals(2, peak.get());
+  }
+
+  @Test
+  void executeInParallel_RejectsEmptyCommandList() {
+    FleetCommandService service = new FleetCommandService(flightService, flightRetry, 2);
+
+    assertThrows(IllegalArgumentException.class, () -> service.executeInParallel(List.of(1L), List.of()));
+  }
+}
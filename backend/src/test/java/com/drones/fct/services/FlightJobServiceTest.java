@@ -0,0 +1,128 @@
+package com.drones.fct.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.drones.fct.api.dto.BatchDroneCommandRequest.DroneCommand;
+import com.drones.fct.api.exception.ConflictException;
+import com.drones.fct.api.exception.NotFoundException;
+import com.drones.fct.api.exception.TooManyRequestsException;
+import com.drones.fct.application.FlightJob;
+import com.drones.fct.application.FlightJobService;
+import com.drones.fct.application.FlightRetry;
+import com.drones.fct.application.FlightService;
+import com.drones.fct.domain.model.Drone;
+import com.drones.fct.domain.model.Matrix;
+import com.drones.fct.domain.model.MovementCommand;
+
+class FlightJobServiceTest {
+
+  private final FlightService flightService = mock(FlightService.class);
+  private final Matrix matrix = Matrix.builder().id(1L).build();
+  private final FlightRetry flightRetry = new FlightRetry(mock(PlatformTransactionManager.class), 3, 0);
+  private final List<DroneCommand> batch = List.of(new DroneCommand(1L, List.of(MovementCommand.MOVE_FORWARD)));
+  private FlightJobService jobService;
+
+  @AfterEach
+  void tearDown() {
+    jobService.destroy();
+  }
+
+  @Test
+  void submit_RunsBatchInBackgroundAndReportsOutcomes() throws InterruptedException {
+    when(flightService.executeBatchCommands(any(), any()))
+        .thenReturn(List.of(Drone.builder().id(1L).matrix(matrix).build()));
+    jobService = new FlightJobService(flightService, flightRetry, 1, 4, Duration.ofMinutes(1));
+
+    FlightJob job = jobService.submit(batch);
+    awaitFinished(job);
+
+    assertEquals(FlightJob.Status.SUCCEEDED, jobService.getJob(job.getId()).getStatus());
+    assertEquals(1, job.getOutcomes().size());
+    assertEquals(1L, job.getOutcomes().get(0).droneId());
+  }
+
+  @Test
+  void submit_RecordsBatchFailure() throws InterruptedException {
+    when(flightService.executeBatchCommands(any(), any())).thenThrow(new ConflictException("Collision"));
+    jobService = new FlightJobService(flightService, flightRetry, 1, 4, Duration.ofMinutes(1));
+
+    FlightJob job = jobService.submit(batch);
+    awaitFinished(job);
+
+    assertEquals(FlightJob.Status.FAILED, job.getStatus());
+    assertEquals("Collision", job.getError().getMessage());
+  }
+
+  @Test
+  void submit_RejectsWhenQueueIsFull() throws InterruptedException {
+    CountDownLatch release = new CountDownLatch(1);
+    when(flightService.executeBatchCommands(any(), any())).thenAnswer(invocation -> {
+      release.await(5, TimeUnit.SECONDS);
+      return List.of();
+    });
+    jobService = new FlightJobService(flightService, flightRetry, 1, 1, Duration.ofMinutes(1));
+
+    FlightJob running = jobService.submit(batch);
+    while (running.getStatus() == FlightJob.Status.QUEUED) {
+      Thread.sleep(5);
+    }
+    jobService.submit(batch);
+
+    assertThrows(TooManyRequestsException.class, () -> jobService.submit(batch));
+    release.countDown();
+  }
+
+  @Test
+  void getJob_UnknownIdIsNotFound() {
+    jobService = new FlightJobService(flightService, flightRetry, 1, 1, Duration.ofMinutes(1));
+
+    assertThrows(NotFoundException.class, () -> jobService.getJob(UUID.randomUUID()));
+  }
+
+  @Test
+  void finishedJobsArePurgedWithoutFurtherSubmissions() throws InterruptedException {
+    when(flightService.executeBatchCommands(any(), any())).thenReturn(List.of());
+    jobService = new FlightJobService(flightService, flightRetry, 1, 4, Duration.ofMillis(20));
+
+    FlightJob job = jobService.submit(batch);
+    awaitFinished(job);
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (isKept(job) && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertThrows(NotFoundException.class, () -> jobService.getJob(job.getId()));
+  }
+
+  private boolean isKept(FlightJob job) {
+    try {
+      jobService.getJob(job.getId());
+      return true;
+    } catch (NotFoundException e) {
+      return false;
+    }
+  }
+
+  private static void awaitFinished(FlightJob job) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!job.isFinished() && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertTrue(job.isFinished());
+  }
+}
@@ -0,0 +1,150 @@
+package com.drones.fct.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.drones.fct.api.exception.ConflictException;
+import com.drones.fct.application.FlightRetry;
+import com.drones.fct.application.OccupancyIndex;
+import com.drones.fct.domain.model.Drone;
+import com.drones.fct.domain.model.MatrixMode;
+import com.drones.fct.domain.model.MatrixView;
+import com.drones.fct.domain.spatial.OccupancyGrid;
+
+@ExtendWith(MockitoExtension.class)
+class FlightRetryTest {
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @AfterEach
+  void tearDown() {
+    TransactionSynchronizationManager.setActualTransactionActive(false);
+  }
+
+  @Test
+  void call_RunsEachAttemptInANewTransactionUntilOneCommits() {
+    FlightRetry retry = new FlightRetry(transactionManager, 3, 1);
+    AtomicInteger attempts = new AtomicInteger();
+
+    String result = retry.call(() -> {
+      if (attempts.incrementAndGet() < 3) {
+        throw new ObjectOptimisticLockingFailureException(Drone.class, 7L);
+      }
+      return "moved";
+    });
+
+    assertEquals("moved", result);
+    verify(transactionManager, times(3)).getTransaction(any());
+  }
+
+  @Test
+  void call_GivesUpWithAConflictAfterTheLastAttempt() {
+    FlightRetry retry = new FlightRetry(transactionManager, 2, 0);
+    AtomicInteger attempts = new AtomicInteger();
+
+    ConflictException e = assertThrows(ConflictException.class, () -> retry.call(() -> {
+      attempts.incrementAndGet();
+      throw new ObjectOptimisticLockingFailureException(Drone.class, 7L);
+    }));
+
+    assertEquals(2, attempts.get());
+    assertEquals("Drone 7 was modified concurrently; gave up after 2 attempts", e.getMessage());
+  }
+
+  @Test
+  void call_DoesNotRetryOtherFailures() {
+    FlightRetry retry = new FlightRetry(transactionManager, 3, 0);
+    AtomicInteger attempts = new AtomicInteger();
+
+    assertThrows(ConflictException.class, () -> retry.call(() -> {
+      attempts.incrementAndGet();
+      throw new ConflictException("Collision");
+    }));
+
+    assertEquals(1, attempts.get());
+  }
+
+  @Test
+  void call_SecondAttemptRereadsTheDroneAfterTheFirstRolledBack() {
+    FlightRetry retry = new FlightRetry(new SynchronizingTransactionManager(), 3, 0);
+    OccupancyIndex index = new OccupancyIndex();
+    OccupancyGrid grid = index.grid(new MatrixView(1L, 10, 10, MatrixMode.DENSE), id -> List.of(
+        Drone.builder().id(7L).x(1).y(2).build(), Drone.builder().id(8L).x(5).y(5).build()));
+    // The row still says (1, 1) when the first attempt reads it; a flight that just committed moved it.
+    int[] row = { 1, 1 };
+    List<Long> seenAtStart = new ArrayList<>();
+
+    retry.run(() -> {
+      seenAtStart.add(grid.occupant(5, 6));
+      OccupancyIndex.Changes changes = index.changes();
+      changes.move(1L, grid, 8L, 5, 5, 5, 6);
+      int fromY = row[1];
+      row[1] = 2;
+      changes.move(1L, grid, 7L, 1, fromY, 1, fromY + 1);
+    });
+
+    assertEquals(List.of(OccupancyGrid.EMPTY, OccupancyGrid.EMPTY), seenAtStart);
+    assertEquals(7L, grid.occupant(1, 3));
+    assertEquals(OccupancyGrid.EMPTY, grid.occupant(1, 2));
+    assertEquals(8L, grid.occupant(5, 6));
+    assertEquals(OccupancyGrid.EMPTY, grid.occupant(5, 5));
+    assertEquals(2, grid.size());
+  }
+
+  @Test
+  void call_InsideTheCallersTransactionRunsOnceAndLetsTheFailureThrough() {
+    FlightRetry retry = new FlightRetry(transactionManager, 3, 0);
+    AtomicInteger attempts = new AtomicInteger();
+    TransactionSynchronizationManager.setActualTransactionActive(true);
+
+    assertThrows(ObjectOptimisticLockingFailureException.class, () -> retry.call(() -> {
+      attempts.incrementAndGet();
+      throw new ObjectOptimisticLockingFailureException(Drone.class, 7L);
+    }));
+
+    assertEquals(1, attempts.get());
+    verify(transactionManager, never()).getTransaction(any());
+  }
+
+  /** Runs synchronizations like a real transaction manager, with nothing behind it. */
+  private static class SynchronizingTransactionManager extends AbstractPlatformTransactionManager {
+
+    @Override
+    protected Object doGetTransaction() {
+      return new Object();
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+    }
+  }
+}
@@ -4,29 +4,47 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
-import static org.mockito.ArgumentMatchers.anyInt;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.drones.fct.api.dto.BatchDroneCommandRequest.DroneCommand;
 import com.drones.fct.api.exception.ConflictException;
 import com.drones.fct.api.exception.UnsupportedCommandException;
+import com.drones.fct.application.FlightBatchExecutor;
 import com.drones.fct.application.FlightService;
+import com.drones.fct.application.MatrixActors;
+import com.drones.fct.application.OccupancyIndex;
+import com.drones.fct.application.PositionBuffer;
 import com.drones.fct.domain.model.Drone;
 import com.drones.fct.domain.model.Matrix;
 import com.drones.fct.domain.model.MovementCommand;
 import com.drones.fct.domain.model.Orientation;
 import com.drones.fct.domain.repository.DroneRepository;
+import com.drones.fct.domain.spatial.OccupancyGrid;
 
 @ExtendWith(MockitoExtension.class)
 class FlightServiceTest {
@@ -34,12 +52,34 @@ class FlightServiceTest {
     @Mock
     private DroneRepository droneRepository;
 
+    @Spy
+    private OccupancyIndex occupancyIndex = new OccupancyIndex();
+
+    @Spy
+    private FlightBatchExecutor batchExecutor = new FlightBatchExecutor(2);
+
+    @Spy
+    private MatrixActors matrixActors = new MatrixActors(2, 64, 256, 5_000);
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    @Mock
+    private PositionBuffer positions;
+
     @InjectMocks
     private FlightService flightService;
 
     private Drone drone;
     private Matrix matrix;
 
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
     @BeforeEach
     void setUp() {
         matrix = Matrix.builder().id(1L).maxX(10).maxY(10).build();
@@ -74,8 +114,6 @@ class FlightServiceTest {
     void executeCommands_MoveForward_Success() {
         when(droneRepository.findById(100L)).thenReturn(Optional.of(drone));
 
-        when(droneRepository.findByXAndYAndMatrixId(5, 6, 1L)).thenReturn(Collections.emptyList());
-
         Drone result = flightService.executeCommands(100L, List.of(MovementCommand.MOVE_FORWARD));
         assertEquals(5, result.getX());
         assertEquals(6, result.getY());
@@ -104,13 +142,264 @@ class FlightServiceTest {
     @Test
     void executeCommandsInSequence_Success() {
         when(droneRepository.findById(100L)).thenReturn(Optional.of(drone));
-        when(droneRepository.findByXAndYAndMatrixId(anyInt(), anyInt(), anyLong()))
-                .thenReturn(Collections.emptyList());
 
         assertDoesNotThrow(() -> flightService.executeCommandsInSequence(List.of(100L),
                 List.of(MovementCommand.TURN_RIGHT, MovementCommand.MOVE_FORWARD)));
     }
 
+    @Test
+    void executeCommands_MoveForward_Collision() {
+        Drone other = Drone.builder().id(101L).x(5).y(6).orientation(Orientation.S).matrix(matrix).build();
+        when(droneRepository.findById(100L)).thenReturn(Optional.of(drone));
+        when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(drone, other));
+
+        ConflictException exception = assertThrows(ConflictException.class,
+                () -> flightService.executeCommands(100L, List.of(MovementCommand.MOVE_FORWARD)));
+        assertTrue(exception.getMessage().contains("Collision detected between drone 100 and drone 101"));
+    }
+
+    @Test
+    void executeCommands_UpdatesOccupancy() {
+        when(droneRepository.findById(100L)).thenReturn(Optional.of(drone));
+        when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(drone));
+
+        flightService.executeCommands(100L, List.of(MovementCommand.MOVE_FORWARD, MovementCommand.MOVE_FORWARD));
+
+        OccupancyGrid grid = occupancyIndex.grid(matrix, droneRepository::findByMatrixId);
+        assertEquals(OccupancyGrid.EMPTY, grid.occupant(5, 5));
+        assertEquals(100L, grid.occupant(5, 7));
+    }
+
+    @Test
+    void executeCommands_KeepsTheSourceCellUntilCommit() {
+        when(droneRepository.findById(100L)).thenReturn(Optional.of(drone));
+        when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(drone));
+        TransactionSynchronizationManager.initSynchronization();
+
+        flightService.executeCommands(100L, List.of(MovementCommand.MOVE_FORWARD));
+
+        OccupancyGrid grid = occupancyIndex.grid(matrix, droneRepository::findByMatrixId);
+        assertEquals(100L, grid.occupant(5, 5));
+        assertEquals(100L, grid.occupant(5, 6));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(OccupancyGrid.EMPTY, grid.occupant(5, 5));
+        assertEquals(100L, grid.occupant(5, 6));
+    }
+
+    @Test
+    void executeCommands_RollbackGivesTheTargetCellBack() {
+        when(droneRepository.findById(100L)).thenReturn(Optional.of(drone));
+        when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(drone));
+        TransactionSynchronizationManager.initSynchronization();
+
+        flightService.executeCommands(100L, List.of(MovementCommand.MOVE_FORWARD));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        OccupancyGrid grid = occupancyIndex.grid(matrix, droneRepository::findByMatrixId);
+        assertEquals(100L, grid.occupant(5, 5));
+        assertEquals(OccupancyGrid.EMPTY, grid.occupant(5, 6));
+    }
+
+    @Test
+    void executeCommands_RefusesAFlightFromACellTheDroneAlreadyLeft() {
+        Drone stale = Drone.builder().id(100L).x(5).y(5).orientation(Orientation.N).matrix(matrix).build();
+        when(droneRepository.findById(100L)).thenReturn(Optional.of(drone), Optional.of(stale));
+        when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(drone));
+        TransactionSynchronizationManager.initSynchronization();
+        flightService.executeCommands(100L, List.of(MovementCommand.MOVE_FORWARD));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> flightService.executeCommands(100L, List.of(MovementCommand.TURN_LEFT)));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+    }
+
+    @Test
+    void executeCommands_RefusesASecondFlightWhileTheFirstIsUncommitted() throws Exception {
+        Drone stale = Drone.builder().id(100L).x(5).y(5).orientation(Orientation.N).matrix(matrix).build();
+        when(droneRepository.findById(100L)).thenReturn(Optional.of(drone), Optional.of(stale));
+        when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(drone));
+        TransactionSynchronizationManager.initSynchronization();
+        flightService.executeCommands(100L, List.of(MovementCommand.MOVE_FORWARD));
+
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> second = other.submit(() -> {
+                TransactionSynchronizationManager.initSynchronization();
+                try {
+                    return flightService.executeCommands(100L, List.of(MovementCommand.TURN_LEFT));
+                } finally {
+                    complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+                }
+            });
+            ExecutionException e = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof ObjectOptimisticLockingFailureException);
+        } finally {
+            other.shutdownNow();
+        }
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        OccupancyGrid grid = occupancyIndex.grid(matrix, droneRepository::findByMatrixId);
+        assertEquals(100L, grid.occupant(5, 6));
+        assertEquals(OccupancyGrid.EMPTY, grid.occupant(5, 5));
+    }
+
+    @Test
+    void executeBatchCommands_RollbackGivesHandedOverCellsBack() {
+        Drone follower = Drone.builder().id(101L).x(5).y(4).orientation(Orientation.N).matrix(matrix).build();
+        when(droneRepository.findAllById(any())).thenReturn(List.of(drone, follower));
+        when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(drone, follower));
+        occupancyIndex.grid(matrix, droneRepository::findByMatrixId);
+        TransactionSynchronizationManager.initSynchronization();
+
+        flightService.executeBatchCommands(List.of(
+                new DroneCommand(100L, List.of(MovementCommand.MOVE_FORWARD)),
+                new DroneCommand(101L, List.of(MovementCommand.MOVE_FORWARD))));
+
+        OccupancyGrid grid = occupancyIndex.grid(matrix, droneRepository::findByMatrixId);
+        assertEquals(101L, grid.occupant(5, 5));
+        assertEquals(101L, grid.occupant(5, 4));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertEquals(100L, grid.occupant(5, 5));
+        assertEquals(101L, grid.occupant(5, 4));
+        assertEquals(OccupancyGrid.EMPTY, grid.occupant(5, 6));
+    }
+
+    @Test
+    void changesRefuseATargetTakenSinceTheFlightCheckedIt() {
+        Drone other = Drone.builder().id(101L).x(5).y(6).orientation(Orientation.N).matrix(matrix).build();
+        when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(drone, other));
+        OccupancyGrid grid = occupancyIndex.grid(matrix, droneRepository::findByMatrixId);
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> occupancyIndex.changes().move(1L, grid, 100L, 5, 5, 5, 6));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertEquals(100L, grid.occupant(5, 5));
+        assertEquals(101L, grid.occupant(5, 6));
+    }
+
+    @Test
+    void executeBatchCommands_FailedPartitionGivesBackTheCellsOthersTook() {
+        Matrix otherMatrix = Matrix.builder().id(2L).maxX(5).maxY(5).build();
+        Drone other = Drone.builder().id(200L).x(5).y(0).orientation(Orientation.E).matrix(otherMatrix).build();
+        when(droneRepository.findAllById(any())).thenReturn(List.of(drone, other));
+        when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(drone));
+        when(droneRepository.findByMatrixId(2L)).thenReturn(List.of(other));
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertThrows(ConflictException.class, () -> flightService.executeBatchCommands(List.of(
+                new DroneCommand(100L, List.of(MovementCommand.MOVE_FORWARD)),
+                new DroneCommand(200L, List.of(MovementCommand.MOVE_FORWARD)))));
+        OccupancyGrid grid = occupancyIndex.grid(matrix, droneRepository::findByMatrixId);
+        assertEquals(100L, grid.occupant(5, 6));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertEquals(100L, grid.occupant(5, 5));
+        assertEquals(OccupancyGrid.EMPTY, grid.occupant(5, 6));
+        assertEquals(5, drone.getY());
+    }
+
+    @Test
+    void executeCommands_LongSegment_StopsAtFirstBlocker() {
+        Drone other = Drone.builder().id(101L).x(5).y(9).orientation(Orientation.S).matrix(matrix).build();
+        when(droneRepository.findById(100L)).thenReturn(Optional.of(drone));
+        when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(drone, other));
+
+        ConflictException exception = assertThrows(ConflictException.class,
+                () -> flightService.executeCommands(100L, Collections.nCopies(5, MovementCommand.MOVE_FORWARD)));
+        assertTrue(exception.getMessage().contains("at position (5,9)"));
+    }
+
+    @Test
+    void executeCommands_PathMayCrossOwnStartCell() {
+        when(droneRepository.findById(100L)).thenReturn(Optional.of(drone));
+        when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(drone));
+
+        List<MovementCommand> commands = new ArrayList<>(Collections.nCopies(2, MovementCommand.MOVE_FORWARD));
+        commands.addAll(List.of(MovementCommand.TURN_LEFT, MovementCommand.TURN_LEFT));
+        commands.addAll(Collections.nCopies(4, MovementCommand.MOVE_FORWARD));
+
+        Drone result = flightService.executeCommands(100L, commands);
+        assertEquals(5, result.getX());
+        assertEquals(3, result.getY());
+        assertEquals(Orientation.S, result.getOrientation());
+    }
+
+    @Test
+    void executeBatchCommands_RunsEachMatrixAndAppliesAll() {
+        Matrix otherMatrix = Matrix.builder().id(2L).maxX(5).maxY(5).build();
+        Drone other = Drone.builder().id(200L).x(0).y(0).orientation(Orientation.E).matrix(otherMatrix).build();
+        when(droneRepository.findAllById(any())).thenReturn(List.of(drone, other));
+
+        flightService.executeBatchCommands(List.of(
+                new DroneCommand(100L, List.of(MovementCommand.MOVE_FORWARD)),
+                new DroneCommand(200L, List.of(MovementCommand.MOVE_FORWARD, MovementCommand.MOVE_FORWARD)),
+                new DroneCommand(100L, List.of(MovementCommand.TURN_RIGHT, MovementCommand.MOVE_FORWARD))));
+
+        assertEquals(6, drone.getX());
+        assertEquals(6, drone.getY());
+        assertEquals(Orientation.E, drone.getOrientation());
+        assertEquals(2, other.getX());
+        assertEquals(0, other.getY());
+        assertEquals(100L, occupancyIndex.grid(matrix, droneRepository::findByMatrixId).occupant(6, 6));
+        assertEquals(200L, occupancyIndex.grid(otherMatrix, droneRepository::findByMatrixId).occupant(2, 0));
+    }
+
+    @Test
+    void executeBatchCommands_ReportsFirstFailureInRequestOrder() {
+        Matrix otherMatrix = Matrix.builder().id(2L).maxX(5).maxY(5).build();
+        Drone other = Drone.builder().id(200L).x(5).y(0).orientation(Orientation.E).matrix(otherMatrix).build();
+        Drone blocker = Drone.builder().id(101L).x(5).y(6).orientation(Orientation.N).matrix(matrix).build();
+        when(droneRepository.findAllById(any())).thenReturn(List.of(drone, other));
+        when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(drone, blocker));
+        when(droneRepository.findByMatrixId(2L)).thenReturn(List.of(other));
+
+        ConflictException exception = assertThrows(ConflictException.class,
+                () -> flightService.executeBatchCommands(List.of(
+                        new DroneCommand(200L, List.of(MovementCommand.MOVE_FORWARD)),
+                        new DroneCommand(100L, List.of(MovementCommand.MOVE_FORWARD)))));
+        assertTrue(exception.getMessage().contains("Drone 200 would exit matrix boundaries"));
+        assertEquals(5, drone.getY());
+    }
+
+    @Test
+    void executeCommands_ConcurrentFlightsIntoTheSameCellLetOnlyOneIn() throws Exception {
+        Drone rival = Drone.builder().id(101L).x(7).y(6).orientation(Orientation.O).matrix(matrix).build();
+        when(droneRepository.findById(100L)).thenReturn(Optional.of(drone));
+        when(droneRepository.findById(101L)).thenReturn(Optional.of(rival));
+        when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(drone, rival));
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<Drone> first = callers.submit(() -> {
+                start.await();
+                return flightService.executeCommands(100L, List.of(MovementCommand.MOVE_FORWARD,
+                        MovementCommand.TURN_RIGHT, MovementCommand.MOVE_FORWARD));
+            });
+            Future<Drone> second = callers.submit(() -> {
+                start.await();
+                return flightService.executeCommands(101L, List.of(MovementCommand.MOVE_FORWARD));
+            });
+            start.countDown();
+
+            int succeeded = 0;
+            for (Future<Drone> result : List.of(first, second)) {
+                try {
+                    result.get(5, TimeUnit.SECONDS);
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof ConflictException);
+                }
+            }
+            assertEquals(1, succeeded);
+        } finally {
+            callers.shutdownNow();
+        }
+        OccupancyGrid grid = occupancyIndex.grid(matrix, droneRepository::findByMatrixId);
+        assertTrue(grid.occupant(6, 6) == 100L || grid.occupant(6, 6) == 101L);
+    }
+
     // @Test
     // void executeBatchCommands_ConcurrencyConflict() {
 
@@ -128,4 +417,10 @@ class FlightServiceTest {
     // List.of(MovementCommand.MOVE_FORWARD)))));
     // assertTrue(exception.getMessage().contains("Concurrency conflict"));
     // }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
 }
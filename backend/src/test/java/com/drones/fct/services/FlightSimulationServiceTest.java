@@ -0,0 +1,97 @@
+package com.drones.fct.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.drones.fct.api.dto.BatchDroneCommandRequest.DroneCommand;
+import com.drones.fct.application.FlightBatchExecutor;
+import com.drones.fct.application.FlightSimulationService;
+import com.drones.fct.application.OccupancyIndex;
+import com.drones.fct.application.SimulationReport;
+import com.drones.fct.domain.model.Drone;
+import com.drones.fct.domain.model.Matrix;
+import com.drones.fct.domain.model.MovementCommand;
+import com.drones.fct.domain.model.Orientation;
+import com.drones.fct.domain.repository.DroneRepository;
+
+@ExtendWith(MockitoExtension.class)
+class FlightSimulationServiceTest {
+
+  private static final MovementCommand M = MovementCommand.MOVE_FORWARD;
+
+  @Mock
+  private DroneRepository droneRepository;
+
+  @Spy
+  private OccupancyIndex occupancyIndex = new OccupancyIndex();
+
+  @Spy
+  private FlightBatchExecutor batchExecutor = new FlightBatchExecutor(2);
+
+  @InjectMocks
+  private FlightSimulationService flightSimulationService;
+
+  private final Matrix matrix = Matrix.builder().id(1L).maxX(5).maxY(5).build();
+
+  @Test
+  void simulate_PredictsPositionsWithoutTouchingDrones() {
+    Drone drone = drone(1L, 0, 0);
+    when(droneRepository.findAllById(any())).thenReturn(List.of(drone));
+    when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(drone));
+
+    SimulationReport report = flightSimulationService.simulate(List.of(new DroneCommand(1L, List.of(M, M))));
+
+    assertTrue(report.feasible());
+    assertEquals(2, report.drones().get(0).y());
+    assertEquals(0, drone.getY());
+  }
+
+  @Test
+  void simulate_ReportsEveryFailureAndKeepsGoing() {
+    Drone first = drone(1L, 0, 0);
+    Drone blocker = drone(2L, 0, 2);
+    Drone third = drone(3L, 5, 0);
+    when(droneRepository.findAllById(any())).thenReturn(List.of(first, third));
+    when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(first, blocker, third));
+
+    SimulationReport report = flightSimulationService.simulate(List.of(
+        new DroneCommand(9L, List.of(M)),
+        new DroneCommand(1L, List.of(M, M, M)),
+        new DroneCommand(3L, List.of(MovementCommand.TURN_RIGHT, M)),
+        new DroneCommand(1L, List.of(M))));
+
+    assertFalse(report.feasible());
+    assertEquals(3, report.failures().size());
+    assertEquals(SimulationReport.Reason.NOT_FOUND, report.firstFailure().reason());
+
+    SimulationReport.PlanFailure collision = report.failures().get(1);
+    assertEquals(1, collision.entry());
+    assertEquals(SimulationReport.Reason.COLLISION, collision.reason());
+    assertEquals(1, collision.commandIndex());
+    assertEquals(2L, collision.blockerId());
+
+    SimulationReport.PlanFailure outOfBounds = report.failures().get(2);
+    assertEquals(2, outOfBounds.entry());
+    assertEquals(SimulationReport.Reason.OUT_OF_BOUNDS, outOfBounds.reason());
+
+    // The rejected entry left drone 1 where it was, so the last entry still moves it one cell.
+    assertEquals(1, report.drones().get(0).y());
+    assertEquals(Orientation.N, report.drones().get(1).orientation());
+  }
+
+  private Drone drone(Long id, int x, int y) {
+    return Drone.builder().id(id).x(x).y(y).orientation(Orientation.N).matrix(matrix).build();
+  }
+}
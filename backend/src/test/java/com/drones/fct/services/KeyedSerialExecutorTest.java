@@ -0,0 +1,44 @@
+package com.drones.fct.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.drones.fct.application.KeyedSerialExecutor;
+
+class KeyedSerialExecutorTest {
+
+  private final ExecutorService workers = Executors.newFixedThreadPool(4);
+  private final ExecutorService submitters = Executors.newFixedThreadPool(8);
+
+  @AfterEach
+  void tearDown() {
+    workers.shutdownNow();
+    submitters.shutdownNow();
+  }
+
+  @Test
+  void submit_RunsEveryTaskWhileOthersAreQueuedConcurrently() throws Exception {
+    int tasks = 20_000;
+    KeyedSerialExecutor<Long> lanes = new KeyedSerialExecutor<>(workers, tasks);
+    AtomicInteger ran = new AtomicInteger();
+    CountDownLatch done = new CountDownLatch(tasks);
+    for (int i = 0; i < tasks; i++) {
+      submitters.execute(() -> lanes.submit(1L, () -> {
+        ran.incrementAndGet();
+        done.countDown();
+      }));
+    }
+
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    assertEquals(tasks, ran.get());
+  }
+}
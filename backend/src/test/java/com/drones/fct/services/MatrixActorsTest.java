@@ -0,0 +1,142 @@
+package com.drones.fct.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.drones.fct.api.exception.ConflictException;
+import com.drones.fct.api.exception.TooManyRequestsException;
+import com.drones.fct.application.MatrixActors;
+
+class MatrixActorsTest {
+
+  private final MatrixActors actors = new MatrixActors(4, 64, 256, 5_000);
+  private final ExecutorService callers = Executors.newFixedThreadPool(8);
+
+  @AfterEach
+  void tearDown() {
+    callers.shutdownNow();
+    actors.destroy();
+  }
+
+  @Test
+  void call_RunsTasksOfOneMatrixOneAtATime() throws Exception {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    List<Future<Integer>> results = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      int value = i;
+      results.add(callers.submit(() -> actors.call(1L, () -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        // Hold the actor until every caller is queued behind it.
+        awaitQuietly(release);
+        running.decrementAndGet();
+        return value;
+      })));
+    }
+    release.countDown();
+
+    for (int i = 0; i < 50; i++) {
+      assertEquals(i, results.get(i).get(5, TimeUnit.SECONDS));
+    }
+    assertEquals(1, maxRunning.get());
+  }
+
+  @Test
+  void call_RunsDifferentMatricesInParallel() throws Exception {
+    CountDownLatch bothStarted = new CountDownLatch(2);
+    Future<Boolean> first = callers.submit(() -> actors.call(1L, () -> arriveAndAwait(bothStarted)));
+    Future<Boolean> second = callers.submit(() -> actors.call(2L, () -> arriveAndAwait(bothStarted)));
+
+    assertTrue(first.get(5, TimeUnit.SECONDS));
+    assertTrue(second.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void call_DropsATaskThatDidNotStartWithinTheWait() throws Exception {
+    MatrixActors impatient = new MatrixActors(1, 64, 256, 50);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger ran = new AtomicInteger();
+    try {
+      Future<Boolean> blocker = callers.submit(() -> impatient.call(1L, () -> {
+        started.countDown();
+        return awaitQuietly(release);
+      }));
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+
+      assertThrows(TooManyRequestsException.class, () -> impatient.run(1L, ran::incrementAndGet));
+      release.countDown();
+      assertTrue(blocker.get(5, TimeUnit.SECONDS));
+      assertEquals(7, impatient.call(1L, () -> 7));
+      assertEquals(0, ran.get());
+      assertEquals(0, impatient.pending());
+    } finally {
+      release.countDown();
+      impatient.destroy();
+    }
+  }
+
+  @Test
+  void call_RefusesTasksBeyondTheTotalLimit() throws Exception {
+    MatrixActors small = new MatrixActors(1, 64, 1, 5_000);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      Future<Boolean> blocker = callers.submit(() -> small.call(1L, () -> {
+        started.countDown();
+        return awaitQuietly(release);
+      }));
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+      Future<Boolean> queued = callers.submit(() -> small.call(2L, () -> true));
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (small.pending() == 0 && System.nanoTime() < deadline) {
+        Thread.sleep(1);
+      }
+
+      assertThrows(TooManyRequestsException.class, () -> small.call(3L, () -> true));
+      release.countDown();
+      assertTrue(blocker.get(5, TimeUnit.SECONDS));
+      assertTrue(queued.get(5, TimeUnit.SECONDS));
+    } finally {
+      release.countDown();
+      small.destroy();
+    }
+  }
+
+  @Test
+  void call_RethrowsTaskFailuresAndRunsNestedCallsInline() {
+    assertThrows(ConflictException.class, () -> actors.call(1L, () -> {
+      throw new ConflictException("occupied");
+    }));
+
+    assertEquals(3, actors.call(1L, () -> actors.call(1L, () -> 3)));
+  }
+
+  private static boolean arriveAndAwait(CountDownLatch latch) {
+    latch.countDown();
+    return awaitQuietly(latch);
+  }
+
+  private static boolean awaitQuietly(CountDownLatch latch) {
+    try {
+      return latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
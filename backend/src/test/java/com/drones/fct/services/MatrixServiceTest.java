@@ -3,10 +3,12 @@ package com.drones.fct.services;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -19,15 +21,28 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import com.drones.fct.api.exception.ConflictException;
 import com.drones.fct.api.exception.NotFoundException;
+import com.drones.fct.application.MatrixActors;
 import com.drones.fct.application.MatrixService;
+import com.drones.fct.application.MatrixVersions;
+import com.drones.fct.application.OccupancyIndex;
+import com.drones.fct.application.PositionBuffer;
+import com.drones.fct.application.ReadCache;
 import com.drones.fct.domain.model.Drone;
+import com.drones.fct.domain.model.DroneView;
 import com.drones.fct.domain.model.Matrix;
+import com.drones.fct.domain.model.MatrixMode;
+import com.drones.fct.domain.model.MatrixView;
+import com.drones.fct.domain.model.Orientation;
 import com.drones.fct.domain.repository.DroneRepository;
 import com.drones.fct.domain.repository.MatrixRepository;
+import com.drones.fct.domain.spatial.DistanceMetric;
+import com.drones.fct.domain.spatial.OccupancyGrid;
 
 @ExtendWith(MockitoExtension.class)
 class MatrixServiceTest {
@@ -38,6 +53,21 @@ class MatrixServiceTest {
   @Mock
   private DroneRepository droneRepository;
 
+  @Mock
+  private OccupancyIndex occupancyIndex;
+
+  @Mock
+  private PositionBuffer positions;
+
+  @Mock
+  private ReadCache readCache;
+
+  @Mock
+  private MatrixVersions matrixVersions;
+
+  @Spy
+  private MatrixActors matrixActors = new MatrixActors(2, 64, 256, 5_000);
+
   @InjectMocks
   private MatrixService matrixService;
 
@@ -65,6 +95,23 @@ class MatrixServiceTest {
     assertTrue(exception.getMessage().contains("Matrix dimensions must be positive"));
   }
 
+  @Test
+  void createMatrix_SparseAllowsLargeRegions() {
+    when(matrixRepository.save(any(Matrix.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+    Matrix result = matrixService.createMatrix(1_000_000, 1_000_000, MatrixMode.SPARSE);
+
+    assertEquals(1_000_000, result.getMaxX());
+    assertEquals(MatrixMode.SPARSE, result.getMode());
+  }
+
+  @Test
+  void createMatrix_DenseRejectsLargeRegions() {
+    ConflictException exception = assertThrows(ConflictException.class,
+        () -> matrixService.createMatrix(1_000, 1_000, MatrixMode.DENSE));
+    assertTrue(exception.getMessage().contains("SPARSE"));
+  }
+
   @Test
   void updateMatrix_Success() {
     when(matrixRepository.findById(1L)).thenReturn(Optional.of(matrix));
@@ -76,6 +123,9 @@ class MatrixServiceTest {
     assertNotNull(result);
     assertEquals(12, result.getMaxX());
     assertEquals(12, result.getMaxY());
+    verify(occupancyIndex).evict(1L);
+    verify(readCache).evictMatrix(1L);
+    verify(matrixVersions).touch(1L);
   }
 
   @Test
@@ -114,6 +164,7 @@ class MatrixServiceTest {
 
     assertDoesNotThrow(() -> matrixService.deleteMatrix(1L));
     verify(matrixRepository).delete(matrix);
+    verify(matrixVersions).touch(1L);
   }
 
   @Test
@@ -126,13 +177,131 @@ class MatrixServiceTest {
     assertTrue(exception.getMessage().contains("Active drones"));
   }
 
+  @Test
+  void findDronesIn_ReadsOnlyTheDronesTheGridFinds() {
+    OccupancyGrid grid = OccupancyGrid.create(10, 10, MatrixMode.DENSE);
+    grid.place(7L, 3, 4);
+    grid.place(8L, 9, 9);
+    grid.place(9L, 1, 1);
+    DroneView seven = view(7L, 3, 4, Orientation.N);
+    DroneView nine = view(9L, 1, 1, Orientation.N);
+    when(readCache.matrix(1L)).thenReturn(Optional.of(MatrixView.of(matrix)));
+    when(occupancyIndex.grid(any(MatrixView.class), any())).thenReturn(grid);
+    when(readCache.drones(List.of(9L, 7L))).thenReturn(List.of(nine, seven));
+
+    List<DroneView> result = matrixService.findDronesIn(1L, 0, 0, 5, 5);
+
+    assertEquals(List.of(seven, nine), result);
+  }
+
+  @Test
+  void findDronesIn_DroneInFlightCountsOnceWhereItCommitted() {
+    OccupancyGrid grid = OccupancyGrid.create(10, 10, MatrixMode.DENSE);
+    // Drone 7 flies from (3, 4) to (8, 4) and keeps its source cell until it commits.
+    grid.place(7L, 3, 4);
+    grid.place(7L, 8, 4);
+    grid.place(9L, 4, 4);
+    DroneView seven = view(7L, 3, 4, Orientation.E);
+    DroneView nine = view(9L, 4, 4, Orientation.N);
+    when(readCache.matrix(1L)).thenReturn(Optional.of(MatrixView.of(matrix)));
+    when(occupancyIndex.grid(any(MatrixView.class), any())).thenReturn(grid);
+    when(readCache.drones(any())).thenReturn(List.of(seven, nine));
+
+    assertEquals(List.of(seven, nine), matrixService.findDronesIn(1L, 0, 0, 9, 9));
+    assertEquals(List.of(nine), matrixService.findDronesIn(1L, 4, 0, 9, 9));
+  }
+
+  @Test
+  void findDronesIn_RejectsUnorderedCorners() {
+    assertThrows(IllegalArgumentException.class, () -> matrixService.findDronesIn(1L, 5, 0, 2, 5));
+  }
+
+  @Test
+  void findNearest_RanksCandidatesByTravelCost() {
+    OccupancyGrid grid = OccupancyGrid.create(10, 10, MatrixMode.DENSE);
+    grid.place(7L, 5, 3);
+    grid.place(8L, 5, 7);
+    grid.place(9L, 9, 9);
+    DroneView facingAway = view(7L, 5, 3, Orientation.S);
+    DroneView facingTarget = view(8L, 5, 7, Orientation.S);
+    when(readCache.matrix(1L)).thenReturn(Optional.of(MatrixView.of(matrix)));
+    when(occupancyIndex.grid(any(MatrixView.class), any())).thenReturn(grid);
+    when(readCache.drones(List.of(7L, 8L))).thenReturn(List.of(facingAway, facingTarget));
+
+    List<DroneView> result = matrixService.findNearest(1L, 5, 5, 1, DistanceMetric.TRAVEL);
+
+    assertEquals(List.of(facingTarget), result);
+  }
+
+  @Test
+  void findNearest_RejectsCellsOutsideTheMatrix() {
+    when(readCache.matrix(1L)).thenReturn(Optional.of(MatrixView.of(matrix)));
+
+    assertThrows(IllegalArgumentException.class,
+        () -> matrixService.findNearest(1L, 11, 0, 1, DistanceMetric.MANHATTAN));
+  }
+
+  @Test
+  void getETag_MatrixNotFound() {
+    when(readCache.matrix(2L)).thenReturn(Optional.empty());
+
+    NotFoundException exception = assertThrows(NotFoundException.class, () -> matrixService.getETag(2L));
+    assertTrue(exception.getMessage().contains("Matrix ID 2 not found"));
+  }
+
+  @Test
+  void getMatrixView_ReadsTheMatrixAndItsDrones() {
+    DroneView drone = view(7L, 3, 4, Orientation.N);
+    when(readCache.matrix(1L)).thenReturn(Optional.of(new MatrixView(1L, 10, 10, null)));
+    when(droneRepository.findViewsByMatrixIdIn(List.of(1L))).thenReturn(List.of(drone));
+
+    MatrixView result = matrixService.getMatrixView(1L);
+
+    assertEquals(MatrixMode.DENSE, result.mode());
+    assertEquals(List.of(drone), result.drones());
+    verify(matrixRepository, never()).findById(any());
+  }
+
   @Test
   void listMatrices_ReturnsList() {
-    when(matrixRepository.findAll()).thenReturn(List.of(matrix));
+    MatrixView first = new MatrixView(1L, 10, 10, MatrixMode.DENSE);
+    MatrixView second = new MatrixView(2L, 10, 10, MatrixMode.DENSE);
+    DroneView drone = view(7L, 3, 4, Orientation.N);
+    when(matrixRepository.findViewsAfter(0L, Limit.unlimited())).thenReturn(List.of(first, second));
+    when(droneRepository.findViewsByMatrixIdIn(List.of(1L, 2L))).thenReturn(List.of(drone));
 
-    List<Matrix> result = matrixService.listMatrices();
+    List<MatrixView> result = matrixService.listMatrices(null, null, true);
 
-    assertNotNull(result);
-    assertEquals(1, result.size());
+    assertEquals(List.of(first.withDrones(List.of(drone)), second.withDrones(List.of())), result);
+  }
+
+  @Test
+  void listMatrices_PagesByIdWithoutDrones() {
+    MatrixView page = new MatrixView(2L, 10, 10, MatrixMode.DENSE);
+    when(matrixRepository.findViewsAfter(1L, Limit.of(2))).thenReturn(List.of(page));
+
+    List<MatrixView> result = matrixService.listMatrices(1L, 2, false);
+
+    assertEquals(List.of(page), result);
+    assertNull(result.get(0).drones());
+    verify(droneRepository, never()).findViewsByMatrixIdIn(any());
+  }
+
+  @Test
+  void listMatrices_SkipsTheDroneQueryForAnEmptyPage() {
+    when(matrixRepository.findViewsAfter(9L, Limit.of(10))).thenReturn(List.of());
+
+    assertTrue(matrixService.listMatrices(9L, 10, true).isEmpty());
+    verify(droneRepository, never()).findViewsByMatrixIdIn(any());
+  }
+
+  @Test
+  void listMatrices_RejectsInvalidLimits() {
+    assertThrows(IllegalArgumentException.class, () -> matrixService.listMatrices(null, 0, true));
+    assertThrows(IllegalArgumentException.class, () -> matrixService.listMatrices(null, 1_001, true));
+  }
+
+  private static DroneView view(Long id, int x, int y, Orientation orientation) {
+    return new DroneView(id, "Drone " + id, "Model " + id, x, y, orientation, 1L);
   }
 }
@@ -0,0 +1,79 @@
+package com.drones.fct.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.drones.fct.application.MatrixVersions;
+import com.drones.fct.domain.events.DroneEvent;
+import com.drones.fct.domain.events.DroneEventType;
+import com.drones.fct.domain.model.Orientation;
+
+class MatrixVersionsTest {
+
+  private final MatrixVersions matrixVersions = new MatrixVersions();
+
+  @AfterEach
+  void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void touch_MovesEachMatrixOnceAfterCommit() {
+    String one = matrixVersions.eTag(1L);
+    String two = matrixVersions.eTag(2L);
+    TransactionSynchronizationManager.initSynchronization();
+
+    matrixVersions.onChanged(flight(7L, 2L));
+    matrixVersions.onChanged(flight(8L, 1L));
+    matrixVersions.touch(2L);
+    assertEquals(two, matrixVersions.eTag(2L));
+
+    complete(TransactionSynchronization.STATUS_COMMITTED);
+
+    String movedOnce = matrixVersions.eTag(2L);
+    assertNotEquals(two, movedOnce);
+    assertNotEquals(one, matrixVersions.eTag(1L));
+    matrixVersions.touch(2L);
+    assertNotEquals(movedOnce, matrixVersions.eTag(2L));
+  }
+
+  @Test
+  void touch_RollbackLeavesTheTagAlone() {
+    String before = matrixVersions.eTag(3L);
+    TransactionSynchronizationManager.initSynchronization();
+
+    matrixVersions.touch(3L);
+    complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+    assertEquals(before, matrixVersions.eTag(3L));
+  }
+
+  @Test
+  void eTag_DiffersBetweenRuns() throws InterruptedException {
+    String before = matrixVersions.eTag(3L);
+    Thread.sleep(2);
+
+    assertNotEquals(before, new MatrixVersions().eTag(3L));
+  }
+
+  private static void complete(int status) {
+    for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+      if (status == TransactionSynchronization.STATUS_COMMITTED) {
+        synchronization.afterCommit();
+      }
+      synchronization.afterCompletion(status);
+    }
+    TransactionSynchronizationManager.clearSynchronization();
+  }
+
+  private static DroneEvent flight(long droneId, long matrixId) {
+    return new DroneEvent(DroneEventType.MOVE, 0L, droneId, matrixId, 1, 1, Orientation.N, null, null);
+  }
+}
@@ -0,0 +1,77 @@
+package com.drones.fct.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.drones.fct.application.PositionBuffer;
+import com.drones.fct.domain.events.DroneEvent;
+import com.drones.fct.domain.model.Drone;
+import com.drones.fct.domain.model.Matrix;
+import com.drones.fct.domain.model.Orientation;
+import com.drones.fct.domain.repository.DroneRepository;
+import com.drones.fct.domain.repository.MatrixRepository;
+
+/** Runs the buffer's load overlay against Hibernate on H2, committing for real. */
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "flights.write-behind.enabled=true",
+    "flights.write-behind.max-staleness-ms=60000" })
+@Import(PositionBuffer.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PositionBufferJpaTest {
+
+  @SpringBootConfiguration
+  @EntityScan("com.drones.fct.domain.model")
+  @EnableJpaRepositories("com.drones.fct.domain.repository")
+  static class Config {
+  }
+
+  @Autowired
+  private MatrixRepository matrixRepository;
+
+  @Autowired
+  private DroneRepository droneRepository;
+
+  @Autowired
+  private PositionBuffer positions;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Test
+  void loadingADroneWithABufferedPositionIssuesNoUpdate() {
+    Matrix matrix = matrixRepository.save(Matrix.builder().maxX(10).maxY(10).build());
+    Drone drone = droneRepository.save(Drone.builder().name("Drone A").model("Model X")
+        .x(1).y(1).orientation(Orientation.N).matrix(matrix).build());
+    Drone flown = Drone.builder().id(drone.getId()).x(1).y(2).orientation(Orientation.E).matrix(matrix).build();
+    positions.onCommitting(DroneEvent.flown(flown, 1, 1));
+
+    List<Drone> loaded = new TransactionTemplate(transactionManager)
+        .execute(status -> droneRepository.findByMatrixId(matrix.getId()));
+
+    assertEquals(2, loaded.get(0).getY());
+    assertEquals(Orientation.E, loaded.get(0).getOrientation());
+    // The row keeps its stored position and version until the buffer writes it.
+    assertEquals(List.of(1, 0L), jdbcTemplate.queryForObject(
+        "SELECT pos_y, version FROM drones WHERE id = ?",
+        (row, i) -> List.of(row.getInt(1), row.getLong(2)), drone.getId()));
+    assertEquals(1, positions.pending());
+  }
+}
@@ -0,0 +1,148 @@
+package com.drones.fct.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.drones.fct.application.PositionBuffer;
+import com.drones.fct.domain.events.DroneEvent;
+import com.drones.fct.domain.events.DroneEventType;
+import com.drones.fct.domain.flight.FlightState;
+import com.drones.fct.domain.model.Drone;
+import com.drones.fct.domain.model.DroneView;
+import com.drones.fct.domain.model.Orientation;
+
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+class PositionBufferTest {
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  @Mock
+  private EntityManager entityManager;
+
+  private PositionBuffer buffer;
+
+  @AfterEach
+  void tearDown() {
+    if (buffer != null) {
+      buffer.destroy();
+    }
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void committedFlightsAreOverlaidAndFlushedInOneBatch() {
+    buffer = new PositionBuffer(jdbcTemplate, entityManager, true, 60_000);
+    buffer.onCommitting(flight(1L, 3, 4, Orientation.E));
+    buffer.onCommitting(flight(2L, 5, 6, Orientation.N));
+    buffer.onCommitting(flight(1L, 3, 5, Orientation.N));
+    Drone loaded = Drone.builder().id(1L).x(0).y(0).orientation(Orientation.S).build();
+
+    buffer.overlay(loaded);
+
+    assertEquals(3, loaded.getX());
+    assertEquals(5, loaded.getY());
+    assertEquals(Orientation.N, loaded.getOrientation());
+    DroneView view = buffer.overlay(new DroneView(2L, "Drone B", "Model B", 0, 0, Orientation.S, 1L));
+    assertEquals(new DroneView(2L, "Drone B", "Model B", 5, 6, Orientation.N, 1L), view);
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<FlightState>> batch = ArgumentCaptor.forClass(List.class);
+    assertEquals(2, buffer.flush());
+    verify(jdbcTemplate).batchUpdate(anyString(), batch.capture(), anyInt(), any());
+    assertEquals(2, batch.getValue().size());
+    assertEquals(0, buffer.pending());
+  }
+
+  @Test
+  void failedFlushKeepsPositionsAndDiscardDropsThem() {
+    buffer = new PositionBuffer(jdbcTemplate, entityManager, true, 60_000);
+    buffer.onCommitting(flight(1L, 1, 1, Orientation.E));
+    buffer.onCommitting(flight(2L, 2, 2, Orientation.E));
+    when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+        .thenThrow(new QueryTimeoutException("timeout"));
+
+    assertThrows(QueryTimeoutException.class, buffer::flush);
+    assertEquals(2, buffer.pending());
+
+    buffer.discard(1L);
+    buffer.discard(2L);
+    assertEquals(0, buffer.pending());
+  }
+
+  @Test
+  void positionIsVisibleBeforeCommitAndQueuedOnlyOnceCommitted() {
+    buffer = new PositionBuffer(jdbcTemplate, entityManager, true, 60_000);
+    TransactionSynchronizationManager.initSynchronization();
+    buffer.onCommitting(flight(1L, 3, 4, Orientation.E));
+    Drone loaded = Drone.builder().id(1L).x(0).y(0).orientation(Orientation.S).build();
+
+    buffer.overlay(loaded);
+
+    assertEquals(3, loaded.getX());
+    assertEquals(0, buffer.pending());
+    complete(TransactionSynchronization.STATUS_COMMITTED);
+    assertEquals(1, buffer.pending());
+  }
+
+  @Test
+  void rolledBackCommitRestoresTheEarlierPosition() {
+    buffer = new PositionBuffer(jdbcTemplate, entityManager, true, 60_000);
+    buffer.onCommitting(flight(1L, 1, 1, Orientation.E));
+    TransactionSynchronizationManager.initSynchronization();
+    buffer.onCommitting(flight(1L, 2, 1, Orientation.E));
+
+    complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+    DroneView view = new DroneView(1L, "Drone A", "Model A", 0, 0, Orientation.S, 1L);
+    assertEquals(1, buffer.overlay(view).x());
+    assertEquals(1, buffer.pending());
+    DroneView unbuffered = new DroneView(2L, "Drone B", "Model B", 0, 0, Orientation.S, 1L);
+    assertSame(unbuffered, buffer.overlay(unbuffered));
+  }
+
+  @Test
+  void disabledBufferIgnoresFlights() {
+    buffer = new PositionBuffer(jdbcTemplate, entityManager, false, 200);
+    buffer.onCommitting(flight(1L, 1, 1, Orientation.E));
+    buffer.hold(Drone.builder().id(1L).build());
+
+    assertEquals(0, buffer.flush());
+    verify(entityManager, never()).contains(any());
+  }
+
+  private static void complete(int status) {
+    TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.afterCompletion(status));
+    TransactionSynchronizationManager.clearSynchronization();
+  }
+
+  private static DroneEvent flight(long droneId, int x, int y, Orientation orientation) {
+    return new DroneEvent(DroneEventType.MOVE, 0L, droneId, 1L, x, y, orientation, null, null);
+  }
+}
@@ -0,0 +1,123 @@
+package com.drones.fct.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.drones.fct.application.PositionBuffer;
+import com.drones.fct.application.ReadCache;
+import com.drones.fct.domain.events.DroneEvent;
+import com.drones.fct.domain.events.DroneEventType;
+import com.drones.fct.domain.model.DroneView;
+import com.drones.fct.domain.model.MatrixView;
+import com.drones.fct.domain.model.Orientation;
+import com.drones.fct.domain.repository.DroneRepository;
+import com.drones.fct.domain.repository.MatrixRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ReadCacheTest {
+
+  @Mock
+  private MatrixRepository matrixRepository;
+
+  @Mock
+  private DroneRepository droneRepository;
+
+  @Mock
+  private PositionBuffer positions;
+
+  private ReadCache cache;
+
+  @BeforeEach
+  void setUp() {
+    cache = new ReadCache(matrixRepository, droneRepository, positions,
+        100, Duration.ofMinutes(10), 100, Duration.ofMinutes(1));
+  }
+
+  @Test
+  void matrix_IsLoadedOnceAndReloadedAfterEviction() {
+    MatrixView matrix = new MatrixView(1L, 10, 10, null);
+    when(matrixRepository.findViewById(1L)).thenReturn(Optional.of(matrix));
+
+    assertEquals(Optional.of(matrix), cache.matrix(1L));
+    assertEquals(Optional.of(matrix), cache.matrix(1L));
+    cache.evictMatrix(1L);
+    cache.matrix(1L);
+
+    verify(matrixRepository, times(2)).findViewById(1L);
+    assertEquals(1, cache.stats().get("matrices").hitCount());
+    assertEquals(2, cache.stats().get("matrices").missCount());
+  }
+
+  @Test
+  void matrix_MissingMatricesAreNotCached() {
+    when(matrixRepository.findViewById(2L)).thenReturn(Optional.empty());
+
+    assertTrue(cache.matrix(2L).isEmpty());
+    assertTrue(cache.matrix(2L).isEmpty());
+
+    verify(matrixRepository, times(2)).findViewById(2L);
+  }
+
+  @Test
+  void drone_CommittedEventEvictsTheCachedView() {
+    DroneView before = new DroneView(7L, "Drone A", "Model X", 3, 4, Orientation.N, 1L);
+    DroneView after = new DroneView(7L, "Drone A", "Model X", 3, 5, Orientation.N, 1L);
+    when(droneRepository.findViewById(7L)).thenReturn(Optional.of(before), Optional.of(after));
+    when(positions.overlay(any(DroneView.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+    assertEquals(Optional.of(before), cache.drone(7L));
+    assertEquals(Optional.of(before), cache.drone(7L));
+    cache.onCommitted(new DroneEvent(DroneEventType.MOVE, 0L, 7L, 1L, 3, 5, Orientation.N, null, null));
+
+    assertEquals(Optional.of(after), cache.drone(7L));
+  }
+
+  @Test
+  void drones_LoadsOnlyTheMissingOnesInOneQuery() {
+    DroneView seven = new DroneView(7L, "Drone A", "Model X", 3, 4, Orientation.N, 1L);
+    DroneView eight = new DroneView(8L, "Drone B", "Model Y", 5, 6, Orientation.S, 1L);
+    when(droneRepository.findViewById(7L)).thenReturn(Optional.of(seven));
+    when(droneRepository.findViewsByIdIn(argThat(ids -> !ids.contains(7L)))).thenReturn(List.of(eight));
+    when(positions.overlay(any(DroneView.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    cache.drone(7L);
+
+    List<DroneView> found = cache.drones(List.of(7L, 8L, 9L)).stream()
+        .sorted(Comparator.comparing(DroneView::id))
+        .toList();
+
+    assertEquals(List.of(seven, eight), found);
+  }
+
+  @Test
+  void drones_DoesNotCacheADroneEvictedWhileTheBulkLoadRan() {
+    DroneView before = new DroneView(7L, "Drone A", "Model X", 3, 4, Orientation.N, 1L);
+    DroneView after = new DroneView(7L, "Drone A", "Model X", 3, 5, Orientation.N, 1L);
+    when(positions.overlay(any(DroneView.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    when(droneRepository.findViewsByIdIn(List.of(7L))).thenAnswer(invocation -> {
+      // The flight commits after the query read the old row.
+      cache.onCommitted(new DroneEvent(DroneEventType.MOVE, 0L, 7L, 1L, 3, 5, Orientation.N, null, null));
+      return List.of(before);
+    });
+    when(droneRepository.findViewById(7L)).thenReturn(Optional.of(after));
+
+    assertEquals(List.of(before), cache.drones(List.of(7L)));
+
+    assertEquals(Optional.of(after), cache.drone(7L));
+  }
+}
@@ -0,0 +1,57 @@
+package com.drones.fct.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.drones.fct.api.exception.ConflictException;
+import com.drones.fct.application.OccupancyIndex;
+import com.drones.fct.application.RoutePlanner;
+import com.drones.fct.domain.model.Drone;
+import com.drones.fct.domain.model.Matrix;
+import com.drones.fct.domain.model.MovementCommand;
+import com.drones.fct.domain.model.Orientation;
+import com.drones.fct.domain.repository.DroneRepository;
+import com.drones.fct.domain.spatial.OccupancyGrid;
+
+class RoutePlannerTest {
+
+  private static final MovementCommand M = MovementCommand.MOVE_FORWARD;
+
+  private final DroneRepository droneRepository = mock(DroneRepository.class);
+  private final OccupancyIndex occupancyIndex = new OccupancyIndex();
+  private final RoutePlanner routePlanner = new RoutePlanner(droneRepository, occupancyIndex, 8);
+  private final Matrix matrix = Matrix.builder().id(1L).maxX(3).maxY(3).build();
+  private final Drone drone = Drone.builder().id(1L).x(0).y(0).orientation(Orientation.N).matrix(matrix).build();
+  private final Drone other = Drone.builder().id(2L).x(3).y(3).orientation(Orientation.S).matrix(matrix).build();
+
+  @Test
+  void routeTo_RebuildsFieldWhenOccupancyChanges() {
+    when(droneRepository.findById(1L)).thenReturn(Optional.of(drone));
+    when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(drone, other));
+
+    assertEquals(List.of(M, M), routePlanner.routeTo(1L, 0, 2));
+
+    OccupancyGrid grid = occupancyIndex.grid(matrix, droneRepository::findByMatrixId);
+    grid.move(2L, 3, 3, 0, 1);
+
+    List<MovementCommand> detour = routePlanner.routeTo(1L, 0, 2);
+    assertEquals(7, detour.size());
+  }
+
+  @Test
+  void routeTo_TargetHeldByAnotherDroneIsAConflict() {
+    when(droneRepository.findById(1L)).thenReturn(Optional.of(drone));
+    when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(drone, other));
+
+    assertThrows(ConflictException.class, () -> routePlanner.routeTo(1L, 3, 3));
+    assertTrue(routePlanner.routeTo(1L, 0, 0).isEmpty());
+  }
+}
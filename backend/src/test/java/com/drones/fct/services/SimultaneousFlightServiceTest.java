@@ -0,0 +1,142 @@
+package com.drones.fct.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.drones.fct.api.dto.BatchDroneCommandRequest.DroneCommand;
+import com.drones.fct.api.exception.ConflictException;
+import com.drones.fct.api.exception.NotFoundException;
+import com.drones.fct.application.MatrixActors;
+import com.drones.fct.application.OccupancyIndex;
+import com.drones.fct.application.PositionBuffer;
+import com.drones.fct.application.ReadCache;
+import com.drones.fct.application.SimultaneousFlightService;
+import com.drones.fct.domain.flight.PlannedStep;
+import com.drones.fct.domain.model.Drone;
+import com.drones.fct.domain.model.Matrix;
+import com.drones.fct.domain.model.MatrixView;
+import com.drones.fct.domain.model.MovementCommand;
+import com.drones.fct.domain.model.Orientation;
+import com.drones.fct.domain.repository.DroneRepository;
+
+@ExtendWith(MockitoExtension.class)
+class SimultaneousFlightServiceTest {
+
+  @Mock
+  private ReadCache readCache;
+
+  @Mock
+  private DroneRepository droneRepository;
+
+  @Spy
+  private OccupancyIndex occupancyIndex = new OccupancyIndex();
+
+  @Spy
+  private MatrixActors matrixActors = new MatrixActors(2, 64, 256, 5_000);
+
+  @Mock
+  private ApplicationEventPublisher events;
+
+  @Mock
+  private PositionBuffer positions;
+
+  @InjectMocks
+  private SimultaneousFlightService simultaneousFlightService;
+
+  private final Matrix matrix = Matrix.builder().id(1L).maxX(5).maxY(5).build();
+
+  @Test
+  void executeSimultaneous_MovesDronesThroughEachOther() {
+    Drone leader = drone(1L, 0, 1, Orientation.N);
+    Drone follower = drone(2L, 0, 0, Orientation.N);
+    Drone bystander = drone(3L, 4, 4, Orientation.S);
+    when(readCache.matrix(1L)).thenReturn(Optional.of(MatrixView.of(matrix)));
+    when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(leader, follower, bystander));
+
+    List<Drone> moved = simultaneousFlightService.executeSimultaneous(1L, List.of(
+        new DroneCommand(1L, List.of(MovementCommand.MOVE_FORWARD, MovementCommand.MOVE_FORWARD)),
+        new DroneCommand(2L, List.of(MovementCommand.MOVE_FORWARD))));
+
+    assertEquals(List.of(leader, follower), moved);
+    assertEquals(3, leader.getY());
+    assertEquals(1, follower.getY());
+    assertEquals(4, bystander.getY());
+  }
+
+  @Test
+  void executeSimultaneous_HeadOnCollisionLeavesDronesUntouched() {
+    Drone east = drone(1L, 1, 1, Orientation.E);
+    Drone west = drone(2L, 2, 1, Orientation.O);
+    when(readCache.matrix(1L)).thenReturn(Optional.of(MatrixView.of(matrix)));
+    when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(east, west));
+
+    ConflictException e = assertThrows(ConflictException.class,
+        () -> simultaneousFlightService.executeSimultaneous(1L, List.of(
+            new DroneCommand(1L, List.of(MovementCommand.MOVE_FORWARD)),
+            new DroneCommand(2L, List.of(MovementCommand.MOVE_FORWARD)))));
+
+    assertEquals("Head-on collision between drone 1 and drone 2 swapping through position (2,1) on tick 0",
+        e.getMessage());
+    assertEquals(1, east.getX());
+    assertEquals(2, west.getX());
+  }
+
+  @Test
+  void executeSimultaneous_CellTakenByAnUncommittedFlightBlocks() {
+    Drone leader = drone(1L, 0, 1, Orientation.N);
+    Drone bystander = drone(3L, 4, 4, Orientation.S);
+    when(readCache.matrix(1L)).thenReturn(Optional.of(MatrixView.of(matrix)));
+    when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(leader, bystander));
+    // The bystander's flight to (0,2) has taken the cell but not committed yet.
+    occupancyIndex.grid(MatrixView.of(matrix), droneRepository::findByMatrixId).place(3L, 0, 2);
+
+    ConflictException e = assertThrows(ConflictException.class,
+        () -> simultaneousFlightService.executeSimultaneous(1L, List.of(
+            new DroneCommand(1L, List.of(MovementCommand.MOVE_FORWARD)))));
+
+    assertEquals("Collision detected between drone 1 and drone 3 at position (0,2) on tick 0", e.getMessage());
+    assertEquals(1, leader.getY());
+  }
+
+  @Test
+  void executeRoutes_WaitKeepsADroneInPlaceForATick() {
+    Drone leader = drone(1L, 0, 1, Orientation.E);
+    Drone follower = drone(2L, 0, 0, Orientation.N);
+    when(readCache.matrix(1L)).thenReturn(Optional.of(MatrixView.of(matrix)));
+    when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(leader, follower));
+
+    List<Drone> moved = simultaneousFlightService.executeRoutes(1L, Map.of(
+        1L, List.of(PlannedStep.MOVE_FORWARD),
+        2L, List.of(PlannedStep.WAIT, PlannedStep.MOVE_FORWARD)));
+
+    assertEquals(2, moved.size());
+    assertEquals(1, leader.getX());
+    assertEquals(1, follower.getY());
+  }
+
+  @Test
+  void executeSimultaneous_DroneOutsideMatrixIsNotFound() {
+    when(readCache.matrix(1L)).thenReturn(Optional.of(MatrixView.of(matrix)));
+    when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(drone(1L, 0, 0, Orientation.N)));
+
+    assertThrows(NotFoundException.class, () -> simultaneousFlightService.executeSimultaneous(1L,
+        List.of(new DroneCommand(9L, List.of(MovementCommand.MOVE_FORWARD)))));
+  }
+
+  private Drone drone(Long id, int x, int y, Orientation orientation) {
+    return Drone.builder().id(id).x(x).y(y).orientation(orientation).matrix(matrix).build();
+  }
+}
@@ -0,0 +1,62 @@
+package com.drones.fct.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.drones.fct.api.dto.SwarmPlanRequest.Goal;
+import com.drones.fct.api.exception.ConflictException;
+import com.drones.fct.application.SwarmPlanningService;
+import com.drones.fct.domain.flight.PlannedStep;
+import com.drones.fct.domain.flight.SwarmPlanner;
+import com.drones.fct.domain.model.Drone;
+import com.drones.fct.domain.model.Matrix;
+import com.drones.fct.domain.model.Orientation;
+import com.drones.fct.domain.repository.DroneRepository;
+import com.drones.fct.domain.repository.MatrixRepository;
+
+class SwarmPlanningServiceTest {
+
+  private final MatrixRepository matrixRepository = mock(MatrixRepository.class);
+  private final DroneRepository droneRepository = mock(DroneRepository.class);
+  private final SwarmPlanningService service = new SwarmPlanningService(matrixRepository, droneRepository, 2000);
+  private final Matrix matrix = Matrix.builder().id(1L).maxX(4).maxY(4).build();
+  private final Drone mover = Drone.builder().id(1L).x(0).y(0).orientation(Orientation.N).matrix(matrix).build();
+  private final Drone parked = Drone.builder().id(2L).x(0).y(2).orientation(Orientation.S).matrix(matrix).build();
+
+  @Test
+  void plan_RoutesAroundDronesThatAreNotPlanned() {
+    when(matrixRepository.findById(1L)).thenReturn(Optional.of(matrix));
+    when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(mover, parked));
+
+    SwarmPlanner.Result result = service.plan(1L, List.of(new Goal(1L, 0, 3)));
+
+    assertTrue(result.planned());
+    assertEquals(1, result.routes().size());
+    assertTrue(result.routes().get(0).contains(PlannedStep.TURN_RIGHT)
+        || result.routes().get(0).contains(PlannedStep.TURN_LEFT));
+  }
+
+  @Test
+  void plan_GoalHeldByUnplannedDroneIsAConflict() {
+    when(matrixRepository.findById(1L)).thenReturn(Optional.of(matrix));
+    when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(mover, parked));
+
+    assertThrows(ConflictException.class, () -> service.plan(1L, List.of(new Goal(1L, 0, 2))));
+  }
+
+  @Test
+  void plan_RejectsSharedGoals() {
+    when(matrixRepository.findById(1L)).thenReturn(Optional.of(matrix));
+
+    assertThrows(IllegalArgumentException.class,
+        () -> service.plan(1L, List.of(new Goal(1L, 3, 3), new Goal(2L, 3, 3))));
+  }
+}
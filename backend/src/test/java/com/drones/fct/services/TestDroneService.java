@@ -3,32 +3,57 @@ package com.drones.fct.services;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.drones.fct.api.dto.CreateDroneRequest;
 import com.drones.fct.api.exception.ConflictException;
 import com.drones.fct.api.exception.NotFoundException;
 import com.drones.fct.application.DroneService;
+import com.drones.fct.application.MatrixActors;
+import com.drones.fct.application.MatrixVersions;
+import com.drones.fct.application.OccupancyIndex;
+import com.drones.fct.application.PositionBuffer;
+import com.drones.fct.application.ReadCache;
+import com.drones.fct.domain.events.DroneEvent;
+import com.drones.fct.domain.events.DroneEventType;
 import com.drones.fct.domain.model.Drone;
+import com.drones.fct.domain.model.DroneView;
 import com.drones.fct.domain.model.Matrix;
+import com.drones.fct.domain.model.MatrixView;
 import com.drones.fct.domain.model.Orientation;
 import com.drones.fct.domain.repository.DroneRepository;
 import com.drones.fct.domain.repository.MatrixRepository;
+import com.drones.fct.domain.spatial.OccupancyGrid;
 
 @ExtendWith(MockitoExtension.class)
 class DroneServiceTest {
@@ -39,6 +64,24 @@ class DroneServiceTest {
   @Mock
   private MatrixRepository matrixRepository;
 
+  @Spy
+  private OccupancyIndex occupancyIndex = new OccupancyIndex();
+
+  @Mock
+  private ApplicationEventPublisher events;
+
+  @Mock
+  private PositionBuffer positions;
+
+  @Mock
+  private ReadCache readCache;
+
+  @Mock
+  private MatrixVersions matrixVersions;
+
+  @Spy
+  private MatrixActors matrixActors = new MatrixActors(2, 64, 256, 5_000);
+
   @InjectMocks
   private DroneService droneService;
 
@@ -63,21 +106,24 @@ class DroneServiceTest {
 
   @Test
   void createDrone_Success() {
-    when(matrixRepository.findById(1L)).thenReturn(Optional.of(matrix));
-    when(droneRepository.findByXAndYAndMatrixId(5, 5, 1L)).thenReturn(Collections.emptyList());
+    when(readCache.matrix(1L)).thenReturn(Optional.of(MatrixView.of(matrix)));
     when(droneRepository.save(any(Drone.class))).thenReturn(drone);
 
     Drone result = droneService.createDrone(1L, "Drone A", "Model X", 5, 5, Orientation.N);
 
     assertNotNull(result);
     assertEquals(100L, result.getId());
-    verify(matrixRepository).findById(1L);
+    verify(readCache).matrix(1L);
     verify(droneRepository).save(any(Drone.class));
+    ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+    verify(events).publishEvent(event.capture());
+    assertEquals(DroneEventType.CREATE, ((DroneEvent) event.getValue()).type());
+    assertEquals(100L, ((DroneEvent) event.getValue()).droneId());
   }
 
   @Test
   void createDrone_MatrixNotFound() {
-    when(matrixRepository.findById(2L)).thenReturn(Optional.empty());
+    when(readCache.matrix(2L)).thenReturn(Optional.empty());
 
     NotFoundException exception = assertThrows(NotFoundException.class,
         () -> droneService.createDrone(2L, "Drone B", "Model Y", 3, 3, Orientation.E));
@@ -86,16 +132,48 @@ class DroneServiceTest {
 
   @Test
   void createDrone_PositionConflict() {
-    when(matrixRepository.findById(1L)).thenReturn(Optional.of(matrix));
+    when(readCache.matrix(1L)).thenReturn(Optional.of(MatrixView.of(matrix)));
 
-    when(droneRepository.findByXAndYAndMatrixId(5, 5, 1L))
-        .thenReturn(Collections.singletonList(new Drone()));
+    when(droneRepository.findByMatrixId(1L))
+        .thenReturn(Collections.singletonList(Drone.builder().id(101L).x(5).y(5).build()));
 
     ConflictException exception = assertThrows(ConflictException.class,
         () -> droneService.createDrone(1L, "Drone C", "Model Z", 5, 5, Orientation.S));
     assertTrue(exception.getMessage().contains("Position conflict"));
   }
 
+  @Test
+  void createDrone_RejectsNameTakenInTheMatrix() {
+    when(readCache.matrix(1L)).thenReturn(Optional.of(MatrixView.of(matrix)));
+    when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(drone));
+
+    ConflictException exception = assertThrows(ConflictException.class,
+        () -> droneService.createDrone(1L, "Drone A", "Model Z", 1, 1, Orientation.S));
+    assertEquals("A drone with the name 'Drone A' already exists in matrix 1", exception.getMessage());
+    verify(droneRepository, never()).save(any());
+  }
+
+  @Test
+  void createDrone_ComparesNamesAndModelsWithoutCase() {
+    when(readCache.matrix(1L)).thenReturn(Optional.of(MatrixView.of(matrix)));
+    when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(drone));
+
+    ConflictException exception = assertThrows(ConflictException.class,
+        () -> droneService.createDrone(1L, "DRONE a", "Model Z", 1, 1, Orientation.S));
+    assertEquals("A drone with the name 'DRONE a' already exists in matrix 1", exception.getMessage());
+  }
+
+  @Test
+  void createDrone_TranslatesUniqueKeyViolations() {
+    when(readCache.matrix(1L)).thenReturn(Optional.of(MatrixView.of(matrix)));
+    when(droneRepository.save(any(Drone.class))).thenThrow(violation(Drone.UNIQUE_MODEL));
+
+    ConflictException exception = assertThrows(ConflictException.class,
+        () -> droneService.createDrone(1L, "Drone C", "Model Z", 1, 1, Orientation.S));
+    assertEquals("A drone with the model 'Model Z' already exists in matrix 1", exception.getMessage());
+    assertNull(occupancyIndex.peek(1L));
+  }
+
   // --- updateDrone tests ---
 
   @Test
@@ -112,10 +190,10 @@ class DroneServiceTest {
         .build();
 
     when(droneRepository.findById(100L)).thenReturn(Optional.of(drone));
-    when(matrixRepository.findById(1L)).thenReturn(Optional.of(matrix));
+    when(readCache.matrix(1L)).thenReturn(Optional.of(MatrixView.of(matrix)));
 
-    when(droneRepository.findByXAndYAndMatrixId(6, 6, 1L)).thenReturn(Collections.emptyList());
-    when(droneRepository.save(any(Drone.class))).thenReturn(updatedDrone);
+    when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(drone));
+    when(droneRepository.saveAndFlush(any(Drone.class))).thenReturn(updatedDrone);
 
     Drone result = droneService.updateDrone(100L, 1L, "Drone A Updated", "Model X", 6, 6, Orientation.E);
 
@@ -123,6 +201,36 @@ class DroneServiceTest {
     assertEquals("Drone A Updated", result.getName());
     assertEquals(6, result.getX());
     assertEquals(6, result.getY());
+    assertEquals(100L, occupancyIndex.keys(matrix, id -> List.of()).nameOwner("Drone A Updated"));
+    assertNull(occupancyIndex.keys(matrix, id -> List.of()).nameOwner("Drone A"));
+  }
+
+  @Test
+  void updateDrone_MovingToAnotherMatrixTouchesTheOldOne() {
+    Matrix other = Matrix.builder().id(2L).maxX(10).maxY(10).build();
+    when(droneRepository.findById(100L)).thenReturn(Optional.of(drone));
+    when(readCache.matrix(2L)).thenReturn(Optional.of(MatrixView.of(other)));
+    when(matrixRepository.getReferenceById(2L)).thenReturn(other);
+    when(droneRepository.saveAndFlush(drone)).thenReturn(drone);
+
+    droneService.updateDrone(100L, 2L, "Drone A", "Model X", 5, 5, Orientation.N);
+
+    verify(matrixVersions).touch(1L);
+    assertEquals(100L, occupancyIndex.peek(2L).occupant(5, 5));
+  }
+
+  @Test
+  void updateDrone_RejectsModelTakenInTheMatrix() {
+    Drone otherDrone = Drone.builder().id(101L).name("Drone B").model("Model Y").x(1).y(1).build();
+
+    when(droneRepository.findById(100L)).thenReturn(Optional.of(drone));
+    when(readCache.matrix(1L)).thenReturn(Optional.of(MatrixView.of(matrix)));
+    when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(drone, otherDrone));
+
+    ConflictException exception = assertThrows(ConflictException.class,
+        () -> droneService.updateDrone(100L, 1L, "Drone A", "Model Y", 5, 5, Orientation.N));
+    assertEquals("A drone with the model 'Model Y' already exists in matrix 1", exception.getMessage());
+    verify(droneRepository, never()).saveAndFlush(any());
   }
 
   @Test
@@ -137,7 +245,7 @@ class DroneServiceTest {
   @Test
   void updateDrone_MatrixNotFound() {
     when(droneRepository.findById(100L)).thenReturn(Optional.of(drone));
-    when(matrixRepository.findById(2L)).thenReturn(Optional.empty());
+    when(readCache.matrix(2L)).thenReturn(Optional.empty());
 
     NotFoundException exception = assertThrows(NotFoundException.class,
         () -> droneService.updateDrone(100L, 2L, "Drone A", "Model X", 5, 5, Orientation.N));
@@ -146,13 +254,13 @@ class DroneServiceTest {
 
   @Test
   void updateDrone_PositionConflict() {
-    Drone otherDrone = Drone.builder().id(101L).build();
+    Drone otherDrone = Drone.builder().id(101L).x(6).y(6).build();
 
     when(droneRepository.findById(100L)).thenReturn(Optional.of(drone));
-    when(matrixRepository.findById(1L)).thenReturn(Optional.of(matrix));
+    when(readCache.matrix(1L)).thenReturn(Optional.of(MatrixView.of(matrix)));
 
-    when(droneRepository.findByXAndYAndMatrixId(6, 6, 1L))
-        .thenReturn(List.of(otherDrone));
+    when(droneRepository.findByMatrixId(1L))
+        .thenReturn(List.of(drone, otherDrone));
 
     ConflictException exception = assertThrows(ConflictException.class,
         () -> droneService.updateDrone(100L, 1L, "Drone A", "Model X", 6, 6, Orientation.N));
@@ -174,23 +282,147 @@ class DroneServiceTest {
   }
 
   @Test
-  void getDrone_Success() {
+  void deleteDrone_KeepsTheCellUntilCommit() {
     when(droneRepository.findById(100L)).thenReturn(Optional.of(drone));
+    when(droneRepository.findByMatrixId(1L)).thenReturn(List.of(drone));
+    OccupancyGrid grid = occupancyIndex.grid(matrix, droneRepository::findByMatrixId);
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      droneService.deleteDrone(100L);
+
+      assertEquals(100L, grid.occupant(5, 5));
+      TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    assertEquals(OccupancyGrid.EMPTY, grid.occupant(5, 5));
+  }
 
-    Drone result = droneService.getDrone(100L);
+  @Test
+  void getDrone_Success() {
+    DroneView view = new DroneView(100L, "Drone A", "Model X", 5, 5, Orientation.N, 1L);
+    when(readCache.drone(100L)).thenReturn(Optional.of(view));
+
+    DroneView result = droneService.getDrone(100L);
 
     assertNotNull(result);
-    assertEquals(100L, result.getId());
+    assertEquals(100L, result.id());
   }
 
   @Test
   void listDrones_ReturnsList() {
-    when(droneRepository.findAll()).thenReturn(List.of(drone));
+    DroneView view = new DroneView(100L, "Drone A", "Model X", 5, 5, Orientation.N, 1L);
+    when(droneRepository.findViewsAfter(0L, null, null, Limit.unlimited())).thenReturn(List.of(view));
+    when(positions.overlay(any(DroneView.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-    List<Drone> result = droneService.listDrones();
+    List<DroneView> result = droneService.listDrones(null, null, null, null);
 
     assertNotNull(result);
     assertFalse(result.isEmpty());
     assertEquals(1, result.size());
   }
+
+  @Test
+  void listDrones_PagesByIdWithFilters() {
+    DroneView moved = new DroneView(101L, "Drone B", "Model Y", 2, 3, Orientation.N, 1L);
+    DroneView turned = new DroneView(102L, "Drone C", "Model Y", 0, 1, Orientation.E, 1L);
+    when(droneRepository.findViewsAfter(100L, 1L, Orientation.N, Limit.of(2))).thenReturn(List.of(
+        new DroneView(101L, "Drone B", "Model Y", 0, 0, Orientation.N, 1L),
+        new DroneView(102L, "Drone C", "Model Y", 0, 1, Orientation.N, 1L)));
+    when(positions.overlay(any(DroneView.class))).thenReturn(moved, turned);
+
+    // The buffered orientation wins over the stored one the query filtered on.
+    assertEquals(List.of(moved), droneService.listDrones(100L, 2, 1L, Orientation.N));
+    verify(positions).flushBeforeQuery();
+    assertThrows(IllegalArgumentException.class, () -> droneService.listDrones(null, 1_001, null, null));
+  }
+
+  @Test
+  void streamDrones_FeedsEveryRowAndClosesTheStream() {
+    AtomicBoolean closed = new AtomicBoolean();
+    Stream<DroneView> rows = Stream.of(
+        new DroneView(100L, "Drone A", "Model X", 5, 5, Orientation.N, 1L),
+        new DroneView(101L, "Drone B", "Model Y", 6, 6, Orientation.S, 1L)).onClose(() -> closed.set(true));
+    when(droneRepository.streamViewsAfter(0L, 1L, null)).thenReturn(rows);
+    when(positions.overlay(any(DroneView.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    List<Long> seen = new ArrayList<>();
+
+    droneService.streamDrones(1L, null, view -> seen.add(view.id()));
+
+    assertEquals(List.of(100L, 101L), seen);
+    assertTrue(closed.get());
+  }
+
+  @Test
+  void createDrones_InsertsTheWholeSetInOneBatch() {
+    when(readCache.matrix(1L)).thenReturn(Optional.of(MatrixView.of(matrix)));
+    when(matrixRepository.getReferenceById(1L)).thenReturn(matrix);
+    when(droneRepository.insertAll(any())).thenAnswer(invocation -> {
+      List<Drone> drones = invocation.getArgument(0);
+      for (int i = 0; i < drones.size(); i++) {
+        drones.get(i).setId(200L + i);
+      }
+      return drones;
+    });
+
+    List<Drone> result = droneService.createDrones(List.of(
+        request("Drone A", "Model A", 0, 0), request("Drone B", "Model B", 1, 0)));
+
+    assertEquals(List.of(200L, 201L), result.stream().map(Drone::getId).toList());
+    assertEquals(201L, occupancyIndex.peek(1L).occupant(1, 0));
+    assertEquals(201L, occupancyIndex.keys(matrix, id -> List.of()).modelOwner("Model B"));
+  }
+
+  @Test
+  void createDrones_RejectsDuplicatesInsideTheRequest() {
+    when(readCache.matrix(1L)).thenReturn(Optional.of(MatrixView.of(matrix)));
+
+    ConflictException exception = assertThrows(ConflictException.class, () -> droneService.createDrones(List.of(
+        request("Drone A", "Model A", 0, 0), request("Drone B", "Model B", 0, 0))));
+
+    assertTrue(exception.getMessage().contains("Position conflict at (0,0)"));
+    verify(droneRepository, never()).insertAll(any());
+  }
+
+  @Test
+  void createDrones_RejectsNamesAlreadyInTheMatrix() {
+    when(readCache.matrix(1L)).thenReturn(Optional.of(MatrixView.of(matrix)));
+    when(droneRepository.findByMatrixId(1L))
+        .thenReturn(List.of(Drone.builder().id(101L).name("Drone B").model("Model Y").x(9).y(9).build()));
+
+    ConflictException exception = assertThrows(ConflictException.class, () -> droneService.createDrones(List.of(
+        request("Drone A", "Model A", 0, 0), request("Drone B", "Model B", 1, 0))));
+
+    assertTrue(exception.getMessage().contains("'Drone B' already exists"));
+    verify(droneRepository, never()).insertAll(any());
+  }
+
+  @Test
+  void createDrones_TranslatesUniqueKeyViolationsFromTheBatch() {
+    when(readCache.matrix(1L)).thenReturn(Optional.of(MatrixView.of(matrix)));
+    when(droneRepository.insertAll(any())).thenThrow(violation("drones." + Drone.UNIQUE_NAME));
+
+    ConflictException exception = assertThrows(ConflictException.class, () -> droneService.createDrones(List.of(
+        request("Drone A", "Model A", 0, 0), request("Drone B", "Model B", 1, 0))));
+
+    assertEquals("A drone name in the request was taken meanwhile in matrix 1; nothing is created",
+        exception.getMessage());
+    assertNull(occupancyIndex.peek(1L));
+  }
+
+  private static DataIntegrityViolationException violation(String constraintName) {
+    return new DataIntegrityViolationException("could not execute statement", new ConstraintViolationException(
+        "could not execute statement", new SQLException("Duplicate entry"), constraintName));
+  }
+
+  private static CreateDroneRequest request(String name, String model, int x, int y) {
+    CreateDroneRequest request = new CreateDroneRequest();
+    request.setMatrixId(1L);
+    request.setName(name);
+    request.setModel(model);
+    request.setX(x);
+    request.setY(y);
+    request.setOrientation(Orientation.N);
+    return request;
+  }
 }